@@ -17,12 +17,22 @@ import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.net.BindException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,14 +42,22 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import javax.net.ServerSocketFactory;
 import javax.net.ssl.SSLServerSocket;
 import javax.net.ssl.SSLServerSocketFactory;
 import javax.net.ssl.SSLSocket;
@@ -106,6 +124,7 @@ public class JamnServer {
     public static final String SOCKET_IDTEXT = "socket.idtext";
     public static final String SOCKET_USAGE = "socket.usage";
     public static final String SOCKET_EXCEPTION = "socket.exception";
+    public static final String SOCKET_ASYNC = "socket.async";
     public static final String REQUEST_HEADER_TEXT = "request.header.text";
 
     protected Config config = new Config();
@@ -158,11 +177,14 @@ public class JamnServer {
             if (!System.getProperty("javax.net.ssl.keyStore", "").isEmpty()
                     && !System.getProperty("javax.net.ssl.keyStorePassword", "").isEmpty()) {
                 lSocket = SSLServerSocketFactory.getDefault().createServerSocket(lPort);
+                lSocket.setReuseAddress(true);
             } else {
-                lSocket = ServerSocketFactory.getDefault().createServerSocket(lPort);
+                // a channel based socket allows direct writes of (off-heap) buffers to the client
+                lSocket = ServerSocketChannel.open().socket();
+                lSocket.setReuseAddress(true);
+                lSocket.bind(new InetSocketAddress(lPort));
             }
 
-            lSocket.setReuseAddress(true);
             if (lPort == 0) {
                 config.setActualPort(lSocket.getLocalPort());
             }
@@ -200,6 +222,7 @@ public class JamnServer {
         if (requestExecutor == null || requestExecutor.isShutdown()) {
             requestExecutor = Executors.newFixedThreadPool(config.getWorkerNumber());
         }
+        requestProcessor.setAsyncExecutor(requestExecutor);
         clientSocketTimeout = config.getClientSocketTimeout();
         serverSocket = createServerSocket();
         determineServerURI(serverSocket);
@@ -226,6 +249,7 @@ public class JamnServer {
         if (requestExecutor != null) {
             requestExecutor.shutdownNow();
         }
+        requestProcessor.shutdown();
     }
 
     /**
@@ -350,6 +374,13 @@ public class JamnServer {
                                 requestProcessor.handleRequest(lClientSocket, lComData);
 
                             } finally {
+                                if (lComData.containsKey(SOCKET_ASYNC)) {
+                                    // the socket is closed by the pending async response
+                                    LOG.fine(() -> String.format("%s %s %s",
+                                            lComData.getOrDefault(SOCKET_IDTEXT, "unknown"), "released async",
+                                            Thread.currentThread().getName()));
+                                    return;
+                                }
                                 try {
                                     if (!(lClientSocket instanceof SSLSocket)) {
                                         lClientSocket.shutdownOutput(); // first step only output
@@ -439,6 +470,18 @@ public class JamnServer {
         default void setMessagePreprocessor(RequestMessagePreprocessor pPocessor) {
         }
 
+        /**
+         * The executor to complete async responses on - the request workers of the server.
+         */
+        default void setAsyncExecutor(Executor pExecutor) {
+        }
+
+        /**
+         * Called when the server stops - e.g. to release pending connections.
+         */
+        default void shutdown() {
+        }
+
     }
 
     /**
@@ -493,6 +536,48 @@ public class JamnServer {
          */
         public String toString(Object pObj) throws UncheckedJsonException;
 
+        /**
+         * <pre>
+         * Byte level variants - the defaults go through the String methods,
+         * a tool with native byte/stream support should override them.
+         * </pre>
+         */
+        public default <T> T toObject(byte[] pSrc, Class<T> pType) throws UncheckedJsonException {
+            return toObject(new String(pSrc, StandardCharsets.UTF_8), pType);
+        }
+
+        /**
+         */
+        public default void writeTo(Object pObj, OutputStream pOut) throws UncheckedJsonException {
+            try {
+                pOut.write(toString(pObj).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedJsonException(UncheckedJsonException.TOJSON_ERROR, e);
+            }
+        }
+
+        /**
+         * <pre>
+         * Create a reader/writer bound to a type - e.g. to be created once and reused per request.
+         * </pre>
+         */
+        public default <T> JsonReader<T> readerFor(Class<T> pType) {
+            return src -> toObject(src, pType);
+        }
+
+        /**
+         */
+        public default JsonWriter writerFor(Class<?> pType) {
+            return this::writeTo;
+        }
+
+        /**
+         * True if values of pType can only be of exactly this type.
+         */
+        public default boolean isFinalType(Class<?> pType) {
+            return pType != null && !pType.isPrimitive() && Modifier.isFinal(pType.getModifiers());
+        }
+
         /**
          */
         public default Object getNativeTool() {
@@ -506,6 +591,157 @@ public class JamnServer {
         }
     }
 
+    /**
+     * A type bound JSON reader created by a JsonToolWrapper.
+     */
+    @FunctionalInterface
+    public static interface JsonReader<T> {
+        T read(byte[] pSrc) throws UncheckedJsonException;
+    }
+
+    /**
+     * A type bound JSON writer created by a JsonToolWrapper.
+     */
+    @FunctionalInterface
+    public static interface JsonWriter {
+        void write(Object pObj, OutputStream pOut) throws UncheckedJsonException;
+    }
+
+    /**
+     * <pre>
+     * The Interface to write a response body directly to the output stream
+     * instead of collecting it in the response content buffer.
+     * e.g. to send file content or byte ranges without copying them into memory.
+     * </pre>
+     */
+    public static interface ContentWriter {
+        /**
+         */
+        void writeTo(OutputStream pOut) throws IOException;
+    }
+
+    /**
+     * <pre>
+     * The buffered response stream of a client socket.
+     * It offers the socket channel - if there is one - for direct writes of e.g. off-heap buffers.
+     * SSL sockets have no channel.
+     * </pre>
+     */
+    public static class SocketOutputStream extends BufferedOutputStream {
+        protected final WritableByteChannel channel;
+
+        public SocketOutputStream(Socket pSocket, int pSize) throws IOException {
+            super(pSocket.getOutputStream(), pSize);
+            channel = pSocket.getChannel();
+        }
+
+        /**
+         */
+        public boolean hasChannel() {
+            return channel != null;
+        }
+
+        /**
+         * Flush the buffered data and return the channel - null if the socket has none.
+         */
+        public WritableByteChannel getChannel() throws IOException {
+            if (channel != null) {
+                flush();
+            }
+            return channel;
+        }
+    }
+
+    /**
+     * <pre>
+     * An OutputStream writing HTTP/1.1 chunked transfer encoding.
+     * Data is collected in a buffer and sent as one chunk when the buffer is full or on flush.
+     * finish() sends the last chunk and the terminating zero chunk.
+     * Closing the stream does NOT close the underlying (socket) stream.
+     * </pre>
+     */
+    public static class ChunkedOutputStream extends OutputStream {
+        public static final int DefaultChunkSize = 8192;
+
+        protected OutputStream out;
+        protected byte[] buffer;
+        protected int count = 0;
+        protected boolean finished = false;
+
+        public ChunkedOutputStream(OutputStream pOut) {
+            this(pOut, DefaultChunkSize);
+        }
+
+        public ChunkedOutputStream(OutputStream pOut, int pChunkSize) {
+            out = pOut;
+            buffer = new byte[pChunkSize];
+        }
+
+        /**
+         */
+        @Override
+        public void write(int pByte) throws IOException {
+            if (count == buffer.length) {
+                writeChunk();
+            }
+            buffer[count++] = (byte) pByte;
+        }
+
+        /**
+         */
+        @Override
+        public void write(byte[] pData, int pOffset, int pLength) throws IOException {
+            while (pLength > 0) {
+                if (count == buffer.length) {
+                    writeChunk();
+                }
+                int lLen = Math.min(pLength, buffer.length - count);
+                System.arraycopy(pData, pOffset, buffer, count, lLen);
+                count += lLen;
+                pOffset += lLen;
+                pLength -= lLen;
+            }
+        }
+
+        /**
+         * Sends the buffered data as a chunk e.g. to get a first part to the client early.
+         */
+        @Override
+        public void flush() throws IOException {
+            writeChunk();
+            out.flush();
+        }
+
+        /**
+         */
+        public void finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                writeChunk();
+                out.write(("0" + CRLF + CRLF).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        }
+
+        /**
+         */
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        /**
+         */
+        protected void writeChunk() throws IOException {
+            if (count > 0) {
+                out.write((Integer.toHexString(count) + CRLF).getBytes(StandardCharsets.US_ASCII));
+                out.write(buffer, 0, count);
+                out.write(CRLF.getBytes(StandardCharsets.US_ASCII));
+                count = 0;
+            }
+        }
+    }
+
     /**
      * <pre>
      * The RequestProcessor is the interface called by the socket layer 
@@ -541,6 +777,9 @@ public class JamnServer {
         // the available ContentProvider
         protected Map<String, ContentProvider> contentProviderMap = new HashMap<>();
 
+        // the support of async responses waiting for completion
+        protected AsyncSupport asyncSupport = new AsyncSupport();
+
         // the interface to a first level processing of request messages
         protected RequestMessagePreprocessor messagePreprocessor = (RequestMessage pRequest,
                 ResponseMessage pResponse) -> LOG
@@ -584,8 +823,7 @@ public class JamnServer {
             pComData.put(SOCKET_IDTEXT, socketIDText);
 
             InputStream lInStream = new BufferedInputStream(pSocket.getInputStream(), getInitialBufferSizeFor("in"));
-            OutputStream lOutStream = new BufferedOutputStream(pSocket.getOutputStream(),
-                    getInitialBufferSizeFor("out"));
+            OutputStream lOutStream = new SocketOutputStream(pSocket, getInitialBufferSizeFor("out"));
 
             RequestMessage lRequest = null;
             ResponseMessage lResponse = null;
@@ -603,12 +841,14 @@ public class JamnServer {
                     lResponse = new ResponseMessage(lOutStream, new HttpHeader()
                             .setContentType(FieldValue.TEXT_PLAIN)
                             .setContentLength("0")).addContextData(socketIDText);
+                    lResponse.socket = pSocket;
+                    lResponse.asyncSupport = asyncSupport;
 
                     String lHeaderText = readHeader(lInStream);
                     lResponse.contextData.add(lHeaderText);
 
                     lRequest = new RequestMessage(newHeader(lHeaderText));
-                    lRequest.setBody(readBody(lInStream, lRequest.getContentLength(), lRequest.getEncoding()));
+                    lRequest.setBody(readBodyBytes(lInStream, lRequest.getContentLength()));
 
                     // comfort method restricted to localhost access
                     if (config.isAllowAllCORSEnabled() && HttpHeader.isLocalhost(lRequest.header().getHost())) {
@@ -633,7 +873,13 @@ public class JamnServer {
                             // create and send the response content
                             lContentProvider = getContentProviderFor(lRequest);
                             lContentProvider.handleContentProcessing(lRequest, lResponse);
-                            if (lResponse.isNotProcessed()) {
+                            if (lResponse.isAsync()) {
+                                // the response is completed later by another thread
+                                // and this worker is released - no keep-alive
+                                pComData.put(SOCKET_ASYNC, "true");
+                                keepAlive = false;
+                                asyncSupport.watch(lResponse.asyncResponse);
+                            } else if (lResponse.isNotProcessed()) {
                                 lResponse.send();
                             }
                             usage++;
@@ -665,6 +911,21 @@ public class JamnServer {
             messagePreprocessor = pHandler;
         }
 
+        /**
+        */
+        @Override
+        public void setAsyncExecutor(Executor pExecutor) {
+            asyncSupport.setExecutor(pExecutor);
+        }
+
+        /**
+         * Close all pending async connections - the disconnect listeners cancel their work.
+         */
+        @Override
+        public void shutdown() {
+            asyncSupport.shutdown();
+        }
+
         /**
          */
         @Override
@@ -746,6 +1007,12 @@ public class JamnServer {
          * </pre>
          */
         protected String readBody(InputStream pInStream, int pContentLength, String pEncoding) throws IOException {
+            return new String(readBodyBytes(pInStream, pContentLength), pEncoding);
+        }
+
+        /**
+         */
+        protected byte[] readBodyBytes(InputStream pInStream, int pContentLength) throws IOException {
             ByteArrayOutputStream lByteBuffer = new ByteArrayOutputStream();
             int lByte = 0;
             int lActual = 0;
@@ -767,7 +1034,7 @@ public class JamnServer {
                     LOG.warning(() -> msg);
                 }
             }
-            return new String(lByteBuffer.toByteArray(), pEncoding);
+            return lByteBuffer.toByteArray();
         }
 
         /**
@@ -927,12 +1194,17 @@ public class JamnServer {
             public static final String SC_101_SWITCH_PROTOCOLS = "101";
             public static final String SC_200_OK = "200";
             public static final String SC_204_NO_CONTENT = "204";
+            public static final String SC_206_PARTIAL_CONTENT = "206";
+            public static final String SC_304_NOT_MODIFIED = "304";
             public static final String SC_400_BAD_REQUEST = "400";
             public static final String SC_403_FORBIDDEN = "403";
             public static final String SC_404_NOT_FOUND = "404";
             public static final String SC_405_METHOD_NOT_ALLOWED = "405";
             public static final String SC_408_TIMEOUT = "408";
+            public static final String SC_416_RANGE_NOT_SATISFIABLE = "416";
+            public static final String SC_429_TOO_MANY_REQUESTS = "429";
             public static final String SC_500_INTERNAL_ERROR = "500";
+            public static final String SC_503_SERVICE_UNAVAILABLE = "503";
 
             public static final Map<String, String> TEXT;
             static {
@@ -941,6 +1213,8 @@ public class JamnServer {
                 lMap.put("200", "OK");
                 lMap.put("201", "Created");
                 lMap.put("204", "No Content");
+                lMap.put("206", "Partial Content");
+                lMap.put("304", "Not Modified");
                 lMap.put("400", "Bad Request");
                 lMap.put("403", "Forbidden");
                 lMap.put("404", "Not found");
@@ -948,6 +1222,8 @@ public class JamnServer {
                 lMap.put("406", "Not Acceptable");
                 lMap.put("408", "Request Timeout");
                 lMap.put("411", "Length Required");
+                lMap.put("416", "Range Not Satisfiable");
+                lMap.put("429", "Too Many Requests");
                 lMap.put("500", "Internal Server Error");
                 lMap.put("503", "Service Unavailable");
                 TEXT = Collections.unmodifiableMap(lMap);
@@ -981,6 +1257,21 @@ public class JamnServer {
             public static final String UPGRADE = "Upgrade";
             public static final String SET_COOKIE = "Set-Cookie";
             public static final String COOKIE = "Cookie";
+            public static final String RANGE = "Range";
+            public static final String IF_RANGE = "If-Range";
+            public static final String ACCEPT_RANGES = "Accept-Ranges";
+            public static final String CONTENT_RANGE = "Content-Range";
+            public static final String ETAG = "ETag";
+            public static final String LAST_MODIFIED = "Last-Modified";
+            public static final String IF_NONE_MATCH = "If-None-Match";
+            public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+            public static final String CACHE_CONTROL = "Cache-Control";
+            public static final String ACCEPT_ENCODING = "Accept-Encoding";
+            public static final String CONTENT_ENCODING = "Content-Encoding";
+            public static final String VARY = "Vary";
+            public static final String LINK = "Link";
+            public static final String TRANSFER_ENCODING = "Transfer-Encoding";
+            public static final String ACCEPT = "Accept";
 
             public static final String ACCESS_CONTROL_REQUEST_METHOD = "Access-Control-Request-Method";
             public static final String ACCESS_CONTROL_REQUEST_HEADERS = "Access-Control-Request-Headers";
@@ -1021,10 +1312,17 @@ public class JamnServer {
             public static final String TEXT_CSS = "text/css";
             public static final String TEXT_JS = "text/javascript";
             public static final String APPLICATION_JSON = "application/json";
+            public static final String APPLICATION_NDJSON = "application/x-ndjson";
+            public static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
             public static final String IMAGE = "image/";
             public static final String IMAGE_PNG = "image/png";
             public static final String IMAGE_X_ICON = "image/x-icon";
             public static final String IMAGE_SVG_XML = "image/svg+xml";
+            public static final String BYTES = "bytes";
+            public static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+            public static final String GZIP = "gzip";
+            public static final String BR = "br";
+            public static final String CHUNKED = "chunked";
         }
 
         /**
@@ -1083,6 +1381,13 @@ public class JamnServer {
             return fieldMap.getOrDefault(pKey, pDefault.length > 0 ? pDefault[0] : "");
         }
 
+        /**
+         */
+        public HttpHeader remove(String pKey) {
+            fieldMap.remove(pKey);
+            return this;
+        }
+
         /**
          */
         public HttpHeader setEncoding(String encoding) {
@@ -1186,6 +1491,12 @@ public class JamnServer {
             return setContentLength(String.valueOf(pVal));
         }
 
+        /**
+         */
+        public HttpHeader setContentLength(long pVal) {
+            return setContentLength(String.valueOf(pVal));
+        }
+
         /**
          */
         public HttpHeader setConnection(String pVal) {
@@ -1287,13 +1598,376 @@ public class JamnServer {
 
     }
 
+    /**
+     * <pre>
+     * A response that is completed later - e.g. when an asynchronous service result is available.
+     * The connection is closed after completion.
+     * 
+     * While waiting the released connection is watched by the AsyncSupport of the server.
+     * A client that closes its side (EOF - including a half-close) or resets the connection
+     * is disconnected and the disconnect listeners are called - e.g. to cancel the work.
+     * The watch does not consume any bytes, a client that already sends further data
+     * is no longer watched. SSL connections are not watched,
+     * for them a disconnect is detected by a failing send or by the server stop.
+     * </pre>
+     */
+    public static class AsyncResponse {
+        protected ResponseMessage response;
+        protected Socket socket;
+        protected AsyncSupport support;
+        protected AtomicBoolean done = new AtomicBoolean(false);
+        protected volatile boolean disconnected = false;
+        protected List<Runnable> disconnectListener = new CopyOnWriteArrayList<>();
+        // the registration at the async watcher - guarded by this
+        protected SelectionKey watchKey;
+        protected CompletableFuture<Void> unwatched = new CompletableFuture<>();
+
+        protected AsyncResponse(ResponseMessage pResponse, Socket pSocket, AsyncSupport pSupport) {
+            response = pResponse;
+            socket = pSocket;
+            support = pSupport;
+            if (support != null) {
+                support.pending.add(this);
+            }
+        }
+
+        /**
+         * The executor to complete the response on - the request workers of the server.
+         */
+        public Executor getExecutor() {
+            return support != null ? support.executor : ForkJoinPool.commonPool();
+        }
+
+        /**
+         */
+        public ResponseMessage getResponse() {
+            return response;
+        }
+
+        /**
+         */
+        public boolean isDone() {
+            return done.get();
+        }
+
+        /**
+         */
+        public boolean isDisconnected() {
+            return disconnected;
+        }
+
+        /**
+         * Add a listener called if the connection is lost before completion - e.g. to cancel the work.
+         */
+        public AsyncResponse onDisconnect(Runnable pListener) {
+            disconnectListener.add(pListener);
+            if (disconnected) {
+                pListener.run();
+            }
+            return this;
+        }
+
+        /**
+         * Send the response and close the connection - returns false if already done.
+         */
+        public boolean complete() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            release();
+            if (support != null) {
+                support.unwatch(this);
+            }
+            try {
+                response.send();
+            } catch (IOException e) {
+                LOG.fine(() -> String.format("Async response send failed [%s]", e));
+                notifyDisconnected();
+            } finally {
+                closeSocket();
+            }
+            return true;
+        }
+
+        /**
+         * Close the pending connection without response and notify the disconnect listeners.
+         */
+        public void disconnect() {
+            if (done.compareAndSet(false, true)) {
+                release();
+                closeSocket();
+                notifyDisconnected();
+            }
+        }
+
+        /**
+         */
+        protected void notifyDisconnected() {
+            disconnected = true;
+            disconnectListener.forEach(Runnable::run);
+        }
+
+        /**
+         */
+        protected void release() {
+            if (support != null) {
+                support.pending.remove(this);
+            }
+        }
+
+        /**
+         */
+        protected void closeSocket() {
+            if (socket != null) {
+                try {
+                    if (!(socket instanceof SSLSocket)) {
+                        socket.shutdownOutput();
+                    }
+                } catch (IOException e) {
+                    // already closed
+                } finally {
+                    try {
+                        socket.close();
+                    } catch (IOException e) {
+                        // already closed
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * The async response support of a server.
+     * - the pending responses - disconnected when the server stops
+     * - the executor to complete them on - the request workers of the server
+     * - the watcher that detects client disconnects of the released connections
+     * </pre>
+     */
+    public static class AsyncSupport {
+        protected Set<AsyncResponse> pending = ConcurrentHashMap.newKeySet();
+        protected volatile Executor executor = ForkJoinPool.commonPool();
+        protected AsyncWatcher watcher;
+
+        /**
+         */
+        public void setExecutor(Executor pExecutor) {
+            executor = pExecutor;
+        }
+
+        /**
+         * Start watching the connection of a pending response - after the request worker released it.
+         */
+        public void watch(AsyncResponse pResponse) {
+            if (pResponse.isDone() || pResponse.socket == null || pResponse.socket.getChannel() == null) {
+                return;
+            }
+            try {
+                getWatcher().watch(pResponse);
+            } catch (IOException e) {
+                LOG.fine(() -> String.format("Async watcher not available [%s]", e));
+            }
+        }
+
+        /**
+         * Stop watching and restore the blocking mode of the connection - before a response is sent.
+         */
+        protected void unwatch(AsyncResponse pResponse) {
+            AsyncWatcher lWatcher;
+            synchronized (this) {
+                lWatcher = watcher;
+            }
+            if (lWatcher != null) {
+                lWatcher.unwatch(pResponse);
+            }
+        }
+
+        /**
+         * Disconnect all pending responses and stop the watcher.
+         */
+        public void shutdown() {
+            new ArrayList<>(pending).forEach(AsyncResponse::disconnect);
+            synchronized (this) {
+                if (watcher != null) {
+                    watcher.close();
+                    watcher = null;
+                }
+            }
+        }
+
+        /**
+         */
+        protected synchronized AsyncWatcher getWatcher() throws IOException {
+            if (watcher == null || !watcher.running) {
+                watcher = new AsyncWatcher();
+                watcher.start();
+            }
+            return watcher;
+        }
+    }
+
+    /**
+     * <pre>
+     * A selector thread watching the released connections of pending async responses.
+     * A readable connection without available bytes is at EOF or reset - the client is gone.
+     * </pre>
+     */
+    protected static class AsyncWatcher extends Thread {
+        protected Selector selector;
+        protected Queue<AsyncResponse> added = new ConcurrentLinkedQueue<>();
+        protected Queue<AsyncResponse> removed = new ConcurrentLinkedQueue<>();
+        protected volatile boolean running = true;
+
+        protected AsyncWatcher() throws IOException {
+            super("JamnServer - Async Watcher");
+            setDaemon(true);
+            selector = Selector.open();
+        }
+
+        /**
+         */
+        protected void watch(AsyncResponse pResponse) {
+            added.add(pResponse);
+            selector.wakeup();
+        }
+
+        /**
+         * Deregister the connection - the blocking mode can only be restored by the watcher thread.
+         */
+        protected void unwatch(AsyncResponse pResponse) {
+            synchronized (pResponse) {
+                if (pResponse.watchKey == null) {
+                    return;
+                }
+            }
+            removed.add(pResponse);
+            if (running) {
+                selector.wakeup();
+                pResponse.unwatched.join();
+            } else {
+                restoreBlocking(pResponse);
+            }
+        }
+
+        /**
+         */
+        protected void close() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerAdded();
+                    deregisterRemoved();
+                    for (SelectionKey lKey : selector.selectedKeys()) {
+                        checkConnection(lKey);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                LOG.fine(() -> String.format("Async watcher stopped [%s]", e));
+            } finally {
+                running = false;
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // nothing to do
+                }
+                AsyncResponse lResponse;
+                while ((lResponse = removed.poll()) != null) {
+                    restoreBlocking(lResponse);
+                }
+            }
+        }
+
+        /**
+         */
+        protected void registerAdded() {
+            AsyncResponse lResponse;
+            while ((lResponse = added.poll()) != null) {
+                synchronized (lResponse) {
+                    // a completing response has already set done before it unwatches
+                    if (!lResponse.isDone()) {
+                        try {
+                            SocketChannel lChannel = lResponse.socket.getChannel();
+                            lChannel.configureBlocking(false);
+                            lResponse.watchKey = lChannel.register(selector, SelectionKey.OP_READ, lResponse);
+                        } catch (IOException e) {
+                            // already closed
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         */
+        protected void deregisterRemoved() throws IOException {
+            List<AsyncResponse> lList = new ArrayList<>();
+            AsyncResponse lResponse;
+            while ((lResponse = removed.poll()) != null) {
+                synchronized (lResponse) {
+                    if (lResponse.watchKey != null) {
+                        lResponse.watchKey.cancel();
+                        lResponse.watchKey = null;
+                    }
+                }
+                lList.add(lResponse);
+            }
+            if (!lList.isEmpty()) {
+                // flush the cancelled keys - required to switch back to blocking
+                selector.selectNow();
+                lList.forEach(this::restoreBlocking);
+            }
+        }
+
+        /**
+         */
+        protected void checkConnection(SelectionKey pKey) {
+            AsyncResponse lResponse = (AsyncResponse) pKey.attachment();
+            if (!pKey.isValid() || !pKey.isReadable()) {
+                return;
+            }
+            int lAvailable = 0;
+            try {
+                lAvailable = lResponse.socket.getInputStream().available();
+            } catch (IOException e) {
+                // closed or reset
+            }
+            if (lAvailable > 0) {
+                // further client data is not consumed - stop watching
+                pKey.interestOps(0);
+            } else {
+                lResponse.disconnect();
+            }
+        }
+
+        /**
+         */
+        protected void restoreBlocking(AsyncResponse pResponse) {
+            try {
+                pResponse.socket.getChannel().configureBlocking(true);
+            } catch (IOException e) {
+                // already closed
+            } finally {
+                pResponse.unwatched.complete(null);
+            }
+        }
+    }
+
     /**
      * <pre>
      * </pre>
      */
     public static class RequestMessage {
         protected HttpHeader httpHeader = null;
-        protected String bodyContent = "";
+        protected String bodyContent = null;
+        // the raw body - decoded to bodyContent on demand
+        protected byte[] bodyData = null;
 
         public RequestMessage(HttpHeader pHeader) {
             httpHeader = pHeader;
@@ -1308,13 +1982,37 @@ public class JamnServer {
         /**
          */
         public String body() {
+            if (bodyContent == null) {
+                try {
+                    bodyContent = bodyData == null ? "" : new String(bodyData, getEncoding());
+                } catch (UnsupportedEncodingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
             return bodyContent;
         }
 
+        /**
+         */
+        public byte[] bodyBytes() {
+            if (bodyData == null) {
+                bodyData = bodyContent == null ? new byte[0] : bodyContent.getBytes(StandardCharsets.UTF_8);
+            }
+            return bodyData;
+        }
+
         /**
          */
         public void setBody(String pBody) {
             bodyContent = pBody;
+            bodyData = null;
+        }
+
+        /**
+         */
+        public void setBody(byte[] pBody) {
+            bodyData = pBody;
+            bodyContent = null;
         }
 
         /**
@@ -1369,8 +2067,17 @@ public class JamnServer {
         protected HttpHeader httpHeader = new HttpHeader();
         protected OutputStream outStream;
         protected ByteArrayOutputStream contentBuffer;
+        protected ContentWriter contentWriter;
+        protected long contentWriterLength = 0;
         protected String statusNr = "";
         protected boolean isProcessed = false;
+        protected boolean isSent = false;
+        protected Socket socket;
+        protected AsyncResponse asyncResponse;
+        // the async response support of the server
+        protected AsyncSupport asyncSupport;
+        // called once when the response is finished - sent, failed or dropped
+        protected List<Runnable> completionListener = new ArrayList<>();
 
         protected String encoding = StandardCharsets.UTF_8.name();
 
@@ -1427,6 +2134,27 @@ public class JamnServer {
             return !isProcessed;
         }
 
+        /**
+         * <pre>
+         * Switch the response to asynchronous completion.
+         * The request worker thread is released after the content processing
+         * and the response is sent by AsyncResponse.complete() - then the connection is closed.
+         * </pre>
+         */
+        public AsyncResponse startAsync() {
+            if (asyncResponse == null) {
+                httpHeader.setConnectionClose();
+                asyncResponse = new AsyncResponse(this, socket, asyncSupport);
+            }
+            return asyncResponse;
+        }
+
+        /**
+         */
+        public boolean isAsync() {
+            return asyncResponse != null;
+        }
+
         /**
          */
         public ResponseMessage setContentType(String pVal) {
@@ -1446,15 +2174,79 @@ public class JamnServer {
             getContentBuffer().write(pContent);
         }
 
+        /**
+         * The content buffer as stream e.g. to serialize content directly into it.
+         */
+        public OutputStream getContentStream() {
+            return getContentBuffer();
+        }
+
+        /**
+         * Discard any buffered content e.g. partially written before an error.
+         */
+        public void resetContent() {
+            if (contentBuffer != null) {
+                contentBuffer.reset();
+            }
+        }
+
+        /**
+         * <pre>
+         * Sets a writer that sends pLength bytes of body content
+         * directly to the output stream - bypassing the content buffer.
+         * </pre>
+         */
+        public void setContentWriter(long pLength, ContentWriter pWriter) {
+            contentWriterLength = pLength;
+            contentWriter = pWriter;
+        }
+
+        /**
+         * <pre>
+         * Sets a writer that sends body content of unknown length
+         * with chunked transfer encoding directly to the output stream.
+         * Chunked transfer requires a HTTP/1.1 request - the response is sent as HTTP/1.1.
+         * An error of the writer can not be answered anymore - the connection is just closed.
+         * </pre>
+         */
+        public void setChunkedContentWriter(ContentWriter pWriter) {
+            setContentWriter(-1, pWriter);
+        }
+
+        /**
+         * <pre>
+         * Add a listener called once when the response is finished
+         * - after a successful or failed send or when the response is dropped unsent.
+         * E.g. to release resources held by a content writer that may never run.
+         * </pre>
+         */
+        public ResponseMessage onComplete(Runnable pListener) {
+            completionListener.add(pListener);
+            return this;
+        }
+
         /**
          */
         public void send() throws IOException {
-            writeOutResponse(outStream, getContentBuffer().toByteArray());
+            try {
+                if (contentWriter != null) {
+                    writeOutResponse(outStream, contentWriterLength, contentWriter);
+                } else {
+                    writeOutResponse(outStream, getContentBuffer().toByteArray());
+                }
+            } finally {
+                notifyCompleted();
+            }
         }
 
         /**
          */
         public void sendStatus(String pStatus) throws IOException {
+            if (isSent) {
+                // e.g. an error while writing a chunked body - a further header would corrupt the stream
+                LOG.fine(() -> String.format("Response already sent - status [%s] dropped", pStatus));
+                return;
+            }
             setStatus(pStatus);
             writeOutResponse(outStream, null);
         }
@@ -1462,7 +2254,21 @@ public class JamnServer {
         /**
          */
         public void close() throws IOException {
-            outStream.flush();
+            if (!isAsync()) {
+                try {
+                    outStream.flush();
+                } finally {
+                    notifyCompleted();
+                }
+            }
+        }
+
+        /**
+         */
+        protected void notifyCompleted() {
+            List<Runnable> lListener = new ArrayList<>(completionListener);
+            completionListener.clear();
+            lListener.forEach(Runnable::run);
         }
 
         /**
@@ -1473,10 +2279,36 @@ public class JamnServer {
 
             LOG.fine(this::requestSummary);
             contextData.add(0, "<-- ALREADY SENT -->");
+            isSent = true;
             pOut.write(lMessageBytes);
             pOut.flush();
         }
 
+        /**
+         * @throws IOException
+         */
+        protected void writeOutResponse(OutputStream pOut, long pLength, ContentWriter pWriter) throws IOException {
+            if (pLength < 0) {
+                httpHeader.remove(Field.CONTENT_LENGTH).set(Field.TRANSFER_ENCODING, FieldValue.CHUNKED)
+                        .setHttpVersion(Field.HTTP_1_1);
+            } else {
+                httpHeader.setContentLength(pLength);
+            }
+
+            LOG.fine(this::requestSummary);
+            contextData.add(0, "<-- ALREADY SENT -->");
+            isSent = true;
+            pOut.write(httpHeader.toMessageBytes(encoding));
+            if (pLength < 0) {
+                ChunkedOutputStream lChunked = new ChunkedOutputStream(pOut);
+                pWriter.writeTo(lChunked);
+                lChunked.finish();
+            } else {
+                pWriter.writeTo(pOut);
+            }
+            pOut.flush();
+        }
+
         /**
          */
         protected String requestSummary() {
@@ -1736,6 +2568,16 @@ public class JamnServer {
          */
         public static interface ValueProvider {
             String getValueFor(String pKey, Object pCtx);
+
+            /**
+             * <pre>
+             * A constant value does not depend on the context or time
+             * and may be resolved once e.g. when compiling a template.
+             * </pre>
+             */
+            default boolean isConstant(String pKey) {
+                return false;
+            }
         }
 
         /**
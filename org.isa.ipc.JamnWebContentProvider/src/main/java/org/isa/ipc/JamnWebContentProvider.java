@@ -1,26 +1,102 @@
 /* Authored by iqbserve.de */
 package org.isa.ipc;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import org.isa.ipc.JamnServer.HttpHeader.Field;
 import org.isa.ipc.JamnServer.HttpHeader.FieldValue;
 import org.isa.ipc.JamnServer.HttpHeader.Status;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
 
 import org.isa.ipc.JamnServer.Config;
-import org.isa.ipc.JamnServer.ExprString;
 import org.isa.ipc.JamnServer.ExprString.ValueProvider;
 import org.isa.ipc.JamnServer.JsonToolWrapper;
 import org.isa.ipc.JamnServer.RequestMessage;
 import org.isa.ipc.JamnServer.ResponseMessage;
+import org.isa.ipc.JamnServer.SocketOutputStream;
 
 /**
  * <pre>
@@ -33,14 +109,53 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
 
     protected static final String LS = System.lineSeparator();
     protected static Logger LOG = Logger.getLogger(JamnWebContentProvider.class.getName());
-    // development.mode - disables e.g. caching if true
-    protected static boolean DvlpMode = true;
+    // supported content encodings and their sidecar file extensions by preference
+    protected static final String[][] SidecarEncodings = { { FieldValue.BR, ".br" }, { FieldValue.GZIP, ".gz" } };
+    protected static final DateTimeFormatter HttpDateFormat = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
 
     protected JsonToolWrapper jsonTool;
 
     protected Config config = new Config();
     protected String webroot;
 
+    // development mode - disables e.g. caching if true
+    protected boolean developmentMode = true;
+
+    // the content types by file extension
+    protected ContentTypeRegistry contentTypes = new ContentTypeRegistry();
+
+    // serve precompressed .br/.gz sidecar files if accepted by the client
+    protected boolean precompressedEnabled = true;
+
+    // binary files from this size on are NOT loaded into memory
+    // but transfered directly from the file and never cached
+    protected long largeFileThreshold = 1024L * 1024;
+
+    // a file system watcher to invalidate cached files in production mode
+    protected FileWatcher fileWatcher = null;
+    protected List<Path> watchRoots = new ArrayList<>();
+    // absolute file path -> cache keys of the web files built from that file
+    protected Map<Path, Set<String>> fileIndex = new ConcurrentHashMap<>();
+    // counts invalidations - a load that overlaps an invalidation is not cached
+    // because it may have read a file before it was indexed
+    protected AtomicLong invalidations = new AtomicLong();
+
+    // the index of all webroot files built by the warm-up
+    protected Map<String, IndexEntry> contentIndex = new ConcurrentHashMap<>();
+    protected WarmUpState warmUpState = null;
+
+    // Cache-Control header values by request path patterns
+    protected List<CacheControlPolicy> cacheControlPolicies = new CopyOnWriteArrayList<>();
+
+    // the static import graph of the served js modules for Link modulepreload headers
+    protected ModuleGraph moduleGraph = new ModuleGraph(this::loadModuleFile);
+    protected boolean modulePreloadEnabled = true;
+
+    // content hashed asset urls - production mode only
+    protected Fingerprinter fingerprinter = new Fingerprinter();
+    protected boolean fingerprintEnabled = false;
+
     // customizable file helper functions
     protected FileHelper fileHelper = new FileHelper();
     protected Predicate<WebFile> cacheableChecker = file -> true;
@@ -55,8 +170,7 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
      * or anything else a user wants to be associated with a resource name.
      * </pre>
      */
-    protected FileProvider fileProvider = (WebFile pFile) -> pFile
-            .setData(Files.readAllBytes(Paths.get(pFile.filePath)));
+    protected FileProvider fileProvider = new DefaultFileProvider();
 
     /**
      * <pre>
@@ -70,26 +184,20 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
     };
 
     /**
-     * A rudimentary file cache. 
+     * An optional JS/CSS minification stage applied after the fileEnricher.
      */
-    protected FileCache fileCache = new FileCache() {
-        private Map<String, WebFile> cacheMap = Collections.synchronizedMap(new HashMap<>());
-
-        @Override
-        public synchronized void put(String pKey, WebFile pFile) {
-            cacheMap.put(pKey, pFile);
-        }
+    protected Minifier minifier = null;
 
-        @Override
-        public boolean contains(String pKey) {
-            return cacheMap.containsKey(pKey);
-        }
+    /**
+     * Known missing request paths to answer repeated 404 requests without file access (production mode).
+     */
+    protected NegativeCache missingFiles = new NegativeCache(NegativeCache.DefaultMaxSize,
+            NegativeCache.DefaultTtlMillis);
 
-        @Override
-        public WebFile get(String pKey) {
-            return cacheMap.get(pKey);
-        }
-    };
+    /**
+     * A size bounded LRU file cache (see DefaultFileCache).
+     */
+    protected FileCache fileCache = new DefaultFileCache(DefaultFileCache.DefaultMaxBytes, 0);
 
     protected JamnWebContentProvider() {
     }
@@ -120,6 +228,20 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
         return this;
     }
 
+    /**
+     * Set a minifier - or null to serve JS/CSS files as authored.
+     */
+    public JamnWebContentProvider setMinifier(Minifier pMinifier) {
+        minifier = pMinifier;
+        return this;
+    }
+
+    /**
+     */
+    public Minifier getMinifier() {
+        return minifier;
+    }
+
     /**
      */
     public JamnWebContentProvider setFileCache(FileCache fileCache) {
@@ -127,6 +249,13 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
         return this;
     }
 
+    /**
+     */
+    public JamnWebContentProvider setNegativeCache(NegativeCache pCache) {
+        missingFiles = pCache;
+        return this;
+    }
+
     /**
      */
     public JamnWebContentProvider setCacheableChecker(Predicate<WebFile> cacheableChecker) {
@@ -154,6 +283,166 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
         return fileHelper;
     }
 
+    /**
+     * <pre>
+     * In development mode (default) files are NOT cached.
+     * In production mode files are cached and should be invalidated by the file watcher.
+     * </pre>
+     */
+    public JamnWebContentProvider setDevelopmentMode(boolean pMode) {
+        developmentMode = pMode;
+        if (developmentMode) {
+            fileCache.clear();
+        }
+        return this;
+    }
+
+    /**
+     */
+    public boolean isDevelopmentMode() {
+        return developmentMode;
+    }
+
+    /**
+     */
+    public JamnWebContentProvider setLargeFileThreshold(long pBytes) {
+        largeFileThreshold = pBytes;
+        return this;
+    }
+
+    /**
+     */
+    public ContentTypeRegistry getContentTypes() {
+        return contentTypes;
+    }
+
+    /**
+     */
+    public JamnWebContentProvider setContentTypes(ContentTypeRegistry pContentTypes) {
+        contentTypes = pContentTypes;
+        return this;
+    }
+
+    /**
+     */
+    public JamnWebContentProvider setPrecompressedEnabled(boolean pEnabled) {
+        precompressedEnabled = pEnabled;
+        return this;
+    }
+
+    /**
+     * Emit Link rel=modulepreload headers for the js modules of html pages (default true).
+     */
+    public JamnWebContentProvider setModulePreloadEnabled(boolean pEnabled) {
+        modulePreloadEnabled = pEnabled;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * Rewrite asset references to content hashed urls that are served as immutable (see Fingerprinter).
+     * Fingerprinting is only active in production mode with a file watcher.
+     * </pre>
+     */
+    public JamnWebContentProvider setFingerprintEnabled(boolean pEnabled, boolean pModules) {
+        fingerprintEnabled = pEnabled;
+        fingerprinter.setModules(pModules);
+        fingerprinter.reset();
+        return this;
+    }
+
+    /**
+     */
+    public boolean isFingerprinting() {
+        return fingerprintEnabled && !developmentMode;
+    }
+
+    /**
+     */
+    public Fingerprinter getFingerprinter() {
+        return fingerprinter;
+    }
+
+    /**
+     */
+    public ModuleGraph getModuleGraph() {
+        return moduleGraph;
+    }
+
+    /**
+     * Add a folder beside the webroot e.g. for template components to be watched for changes.
+     */
+    public JamnWebContentProvider addWatchRoot(String pPath) {
+        watchRoots.add(Paths.get(pPath));
+        return this;
+    }
+
+    /**
+     * <pre>
+     * Start a file system watcher on the webroot and all added watch roots.
+     * Every change, creation or deletion of a file invalidates
+     * all cached web files depending on it.
+     * </pre>
+     */
+    public synchronized JamnWebContentProvider startFileWatcher() throws IOException {
+        if (fileWatcher == null) {
+            fileWatcher = new FileWatcher(this::invalidate, this::invalidateAll);
+            fileWatcher.register(Paths.get(webroot));
+            for (Path root : watchRoots) {
+                fileWatcher.register(root);
+            }
+            fileWatcher.start();
+            LOG.info(() -> String.format("WebContentProvider file watcher started on [%s] %s", webroot, watchRoots));
+        }
+        return this;
+    }
+
+    /**
+     */
+    public synchronized void stopFileWatcher() {
+        if (fileWatcher != null) {
+            fileWatcher.stop();
+            fileWatcher = null;
+        }
+    }
+
+    /**
+     * Remove all cached web files depending on the given file or folder.
+     */
+    public void invalidate(Path pPath) {
+        Path lPath = normalize(pPath);
+        invalidations.incrementAndGet();
+        fileIndex.keySet().removeIf(file -> {
+            if (file.startsWith(lPath)) {
+                Set<String> lKeys = fileIndex.get(file);
+                if (lKeys != null) {
+                    lKeys.forEach(key -> {
+                        fileCache.remove(key);
+                        LOG.fine(() -> String.format("WebContentProvider cache invalidated [%s] by [%s]", key, lPath));
+                    });
+                }
+                return true;
+            }
+            return false;
+        });
+        moduleGraph.invalidate(lPath);
+        missingFiles.invalidate(lPath);
+        if (fingerprintEnabled) {
+            fingerprinter.invalidate(lPath);
+        }
+    }
+
+    /**
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        fileIndex.clear();
+        fileCache.clear();
+        moduleGraph.invalidateAll();
+        missingFiles.clear();
+        fingerprinter.reset();
+    }
+
     /**
      * JamnServer.ContentProvider Interface method.
      */
@@ -166,13 +455,37 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
         WebFile lContent;
         try {
             if (pRequest.isMethod("GET")) {
-                lContent = getFileContent(pRequest.getPath(), pResponse);
+                String lRange = pRequest.header().get(Field.RANGE);
+                String lPath = pRequest.getPath();
+                boolean lImmutable = false;
+                if (isFingerprinting()) {
+                    String lRealPath = fingerprinter.toRealPath(lPath);
+                    lImmutable = fingerprinter.isCurrent(lPath, lRealPath);
+                    lPath = lRealPath;
+                }
+                lContent = getFileContent(lPath, pResponse, !lRange.isEmpty());
+                if (modulePreloadEnabled && lContent.getContentType().startsWith(FieldValue.TEXT_HTML)) {
+                    setModulePreloadHeader(lContent, pResponse);
+                }
+                if (lContent.hasEncodedVariants()) {
+                    pResponse.header().set(Field.VARY, Field.ACCEPT_ENCODING);
+                    if (lRange.isEmpty()) {
+                        lContent = selectEncodedVariant(pRequest, lContent, pResponse);
+                    }
+                }
+                setCacheHeader(lContent, pResponse);
+                if (lImmutable) {
+                    pResponse.header().set(Field.CACHE_CONTROL, Fingerprinter.ImmutableCacheControl);
+                }
 
-                if (!lContent.isEmpty()) {
-                    pResponse.writeToContent(lContent.getData());
+                if (isNotModified(pRequest, lContent)) {
+                    pResponse.setStatus(Status.SC_304_NOT_MODIFIED);
+                } else if (!lRange.isEmpty()) {
+                    handleRangeRequest(pRequest, pResponse, lContent, lRange);
                 } else {
-                    pResponse.setStatus(Status.SC_204_NO_CONTENT);
+                    sendContent(lContent, pResponse);
                 }
+                pResponse.header().set(Field.ACCEPT_RANGES, FieldValue.BYTES);
             } else {
                 LOG.warning(() -> String.format("WebContentProvider Warning: Unsupported HTTP Method [%s]",
                         pRequest.getMethod()));
@@ -190,210 +503,3350 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
     }
 
     /**
+     * Announce the transitive static module imports of an html page to avoid an import waterfall.
      */
-    protected WebFile getFileContent(String pRequestPath, ResponseMessage pResponse)
-            throws WebContentException {
-        String lDecodedPath = fileHelper.decodeRequestPath(pRequestPath);
-
-        // the decoded path gets the unique id/requestPath of the requested file
-        WebFile lWebFile = new WebFile(lDecodedPath);
+    protected void setModulePreloadHeader(WebFile pPage, ResponseMessage pResponse) {
+        if (!pPage.hasFileBody()) {
+            String lLinks = moduleGraph.getPreloadLinks(pPage, developmentMode);
+            if (!lLinks.isEmpty()) {
+                pResponse.header().set(Field.LINK, lLinks);
+            }
+        }
+    }
 
-        if (!DvlpMode && fileCache.contains(lWebFile.getId())) {
-            lWebFile = fileCache.get(lWebFile.getId());
-            pResponse.setContentType(lWebFile.getContentType());
-            return lWebFile;
+    /**
+     * Load the raw - not enriched - source of a module for the import scan.
+     */
+    protected WebFile loadModuleFile(String pPath) throws IOException, WebContentException {
+        if (isFingerprinting() && fingerprinter.modules) {
+            // the served module content with rewritten imports
+            String lRealPath = fingerprinter.toRealPath(pPath);
+            WebFile lModule = fileCache.get(lRealPath);
+            return lModule != null ? lModule : loadWebFile(lRealPath, false);
         }
+        WebFile lModule = new WebFile(pPath);
+        prepareWebFile(lModule);
+        fileProvider.readAllFileBytes(lModule);
+        return lModule;
+    }
 
-        lWebFile.filePath = getFilePathFor(fileHelper.doPathMapping(lDecodedPath));
+    /**
+     */
+    protected void sendContent(WebFile pContent, ResponseMessage pResponse) throws IOException {
+        if (pContent.isEmpty()) {
+            pResponse.setStatus(Status.SC_204_NO_CONTENT);
+        } else {
+            // write the content directly to the response stream
+            // instead of copying it through the response content buffer
+            pResponse.setContentWriter(pContent.getLength(),
+                    out -> pContent.writeTo(out, 0, pContent.getLength()));
+        }
+    }
 
-        try {
-            // by default html is assumed
-            pResponse.setContentType(FieldValue.TEXT_HTML);
+    /**
+     * <pre>
+     * Get the WebFile for a request path - from the cache or by loading it.
+     * Concurrent requests for the same not yet cached file load it only once.
+     * A load that overlaps an invalidation is served but not cached.
+     * </pre>
+     */
+    protected WebFile getFileContent(String pRequestPath, ResponseMessage pResponse, boolean pAsFileBody)
+            throws WebContentException {
+        // the decoded path gets the unique id/requestPath of the requested file
+        String lDecodedPath = fileHelper.decodeRequestPath(pRequestPath);
+        WebFile lWebFile;
 
-            if (fileHelper.isStyleSheet(lDecodedPath)) {
-                pResponse.setContentType(FieldValue.TEXT_CSS);
-            } else if (fileHelper.isJavaScript(lDecodedPath)) {
-                pResponse.setContentType(FieldValue.TEXT_JS);
-            } else if (fileHelper.isImage(lDecodedPath)) {
-                pResponse.setContentType(fileHelper.getImageTypeFrom(lWebFile.filePath));
-                lWebFile.setTextFormat(false);
+        if (developmentMode) {
+            lWebFile = loadWebFile(lDecodedPath, pAsFileBody);
+        } else {
+            if (missingFiles.contains(lDecodedPath)) {
+                throw new WebContentException(Status.SC_404_NOT_FOUND,
+                        String.format("Known missing file [%s]", lDecodedPath));
             }
-
-            lWebFile.setContentType(pResponse.getContentType());
-            fileProvider.readAllFileBytes(lWebFile);
-            fileEnricher.enrich(lWebFile);
-            if(cacheableChecker.test(lWebFile)){
-                fileCache.put(lWebFile.requestPath, lWebFile);
+            try {
+                long lGeneration = invalidations.get();
+                lWebFile = fileCache.getOrLoad(lDecodedPath, () -> indexWebFile(loadWebFile(lDecodedPath, pAsFileBody)),
+                        file -> isCacheable(file) && invalidations.get() == lGeneration);
+            } catch (WebContentException e) {
+                if (e.getMissingFile() != null) {
+                    missingFiles.put(lDecodedPath, e.getMissingFile());
+                }
+                throw e;
+            } catch (Exception e) {
+                throw new WebContentException(Status.SC_500_INTERNAL_ERROR,
+                        String.format("Could NOT get file content [%s]", lDecodedPath), e);
             }
-
-        } catch (Exception e) {
-            throw new WebContentException(Status.SC_404_NOT_FOUND,
-                    String.format("Could NOT read file data [%s]", lWebFile.filePath), e);
         }
 
+        pResponse.setContentType(lWebFile.getContentType());
         return lWebFile;
     }
 
     /**
      */
-    protected String getFilePathFor(String pRequestPath) {
-        return new StringBuilder(webroot).append(pRequestPath).toString();
+    protected boolean isCacheable(WebFile pWebFile) {
+        return !pWebFile.hasFileBody() && contentTypes.getFor(pWebFile.filePath).isCacheable()
+                && cacheableChecker.test(pWebFile);
     }
 
-    /*********************************************************
-     * Provider classes and interfaces.
-     *********************************************************/
-
     /**
-     * A file provider delivers the concrete file content as a byte array. This
-     * might be a filesystem file, or a database record or what ever.
+     * Register the file and its dependencies for cache invalidation.
      */
-    public static interface FileProvider {
-        void readAllFileBytes(WebFile pWebFile) throws IOException;
+    protected WebFile indexWebFile(WebFile pWebFile) {
+        if (!pWebFile.hasFileBody()) {
+            fileIndex.computeIfAbsent(normalize(Paths.get(pWebFile.filePath)), k -> ConcurrentHashMap.newKeySet())
+                    .add(pWebFile.getId());
+            for (WebFile variant : pWebFile.encodedVariants.values()) {
+                fileIndex.computeIfAbsent(normalize(Paths.get(variant.filePath)), k -> ConcurrentHashMap.newKeySet())
+                        .add(pWebFile.getId());
+            }
+            for (Path dependency : pWebFile.getDependencies()) {
+                fileIndex.computeIfAbsent(normalize(dependency), k -> ConcurrentHashMap.newKeySet())
+                        .add(pWebFile.getId());
+            }
+        }
+        return pWebFile;
     }
 
     /**
-     * A file enricher is used to pre process loaded web files to dynamically inject
-     * values, text or code.
+     * <pre>
+     * Attach precompressed sidecar files like "file.js.br" and "file.js.gz" 
+     * as encoded variants to a loaded web file.
+     * Sidecars older than the original file are ignored.
+     * </pre>
      */
-    public static interface FileEnricher {
-        void enrich(WebFile pFile);
+    protected void loadEncodedVariants(WebFile pWebFile) {
+        for (String[] encoding : SidecarEncodings) {
+            WebFile lVariant = new WebFile(pWebFile.getRequestPath());
+            lVariant.filePath = pWebFile.filePath + encoding[1];
+            lVariant.setContentType(pWebFile.getContentType());
+            lVariant.setTextFormat(false);
+            lVariant.contentEncoding = encoding[0];
+            try {
+                if (fileProvider.attachFileBody(lVariant) && lVariant.getLastModified() >= pWebFile.getLastModified()) {
+                    if (!lVariant.hasBufferBody() && lVariant.getLength() < largeFileThreshold) {
+                        lVariant.setFileBody(null, 0);
+                        fileProvider.readAllFileBytes(lVariant);
+                    }
+                    lVariant.setETag(createETagFor(lVariant));
+                    pWebFile.addEncodedVariant(lVariant);
+                }
+            } catch (IOException e) {
+                // no sidecar present
+            }
+        }
     }
 
     /**
-     * File cache abstraction.
+     * <pre>
+     * Select the encoded variant of a web file preferred and accepted by the client.
+     * </pre>
      */
-    public static interface FileCache {
-        void put(String pKey, WebFile pFile);
-
-        boolean contains(String pKey);
+    protected WebFile selectEncodedVariant(RequestMessage pRequest, WebFile pWebFile, ResponseMessage pResponse) {
+        String lAccepted = pRequest.header().get(Field.ACCEPT_ENCODING);
+        if (!lAccepted.isEmpty()) {
+            for (String[] encoding : SidecarEncodings) {
+                WebFile lVariant = pWebFile.getEncodedVariant(encoding[0]);
+                if (lVariant != null && isEncodingAccepted(lAccepted, encoding[0])) {
+                    pResponse.header().set(Field.CONTENT_ENCODING, encoding[0]);
+                    return lVariant;
+                }
+            }
+        }
+        return pWebFile;
+    }
 
-        WebFile get(String pKey);
+    /**
+     * Check an Accept-Encoding header value like "gzip, deflate, br;q=0.8" for an encoding.
+     */
+    protected static boolean isEncodingAccepted(String pAcceptEncoding, String pEncoding) {
+        boolean lWildcard = false;
+        for (String entry : pAcceptEncoding.split(",")) {
+            String[] lParts = entry.trim().split(";");
+            String lName = lParts[0].trim().toLowerCase();
+            boolean lRejected = lParts.length > 1 && lParts[1].trim().matches("q=0(\\.0*)?");
+            if (lName.equals(pEncoding)) {
+                return !lRejected;
+            }
+            if (lName.equals("*")) {
+                lWildcard = !lRejected;
+            }
+        }
+        return lWildcard;
     }
 
     /**
      * <pre>
-     * A set of customizable public File helper methods
-     * which can be overwritten individually
+     * Precompress the compressible files of the webroot as gzip sidecars.
      * </pre>
      */
-    public static class FileHelper {
+    public String precompress() throws IOException {
+        return new Precompressor(contentTypes).run(Paths.get(webroot)).toString();
+    }
 
-        /**
-         */
-        public String doPathMapping(String pPath) {
-            if (pPath.equals("/") || pPath.equals("/index") || pPath.equals("/index.html")
-                    || pPath.equals("/index.htm")) {
-                return "/index.html";
-            }
-            return pPath;
+    /**
+     * <pre>
+     * Start a background warm-up of the webroot.
+     * A parallel fork-join traversal builds the content index (path, size, modification, type, hash)
+     * and - in production mode - preloads all files up to pMaxPreloadSize bytes into the file cache.
+     * Requests are served during the warm-up, concurrent requests for the same file load it only once.
+     * </pre>
+     */
+    public synchronized CompletableFuture<WarmUpState> startWarmUp(long pMaxPreloadSize, int pParallelism) {
+        if (warmUpState != null && !warmUpState.isDone()) {
+            return warmUpState.result;
         }
+        Path lRoot = normalize(Paths.get(webroot));
+        WarmUpState lState = new WarmUpState(pMaxPreloadSize);
+        warmUpState = lState;
 
-        /**
-         */
-        public String getImageTypeFrom(String pPath) {
-            String lType = "";
-            if (pPath.endsWith("/favicon.ico")) {
-                lType = FieldValue.IMAGE_X_ICON;
-            }else if(pPath.endsWith(".svg")){
-                lType = FieldValue.IMAGE_SVG_XML;
-            }else{
-                lType = FieldValue.IMAGE + pPath.substring(pPath.lastIndexOf(".") + 1, pPath.length());
+        ForkJoinPool lPool = new ForkJoinPool(Math.max(1, pParallelism), pool -> {
+            ForkJoinWorkerThread lThread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            lThread.setName("JamnWebContentWarmUp-" + lThread.getPoolIndex());
+            lThread.setDaemon(true);
+            return lThread;
+        }, null, false);
+
+        LOG.info(() -> String.format("WebContentProvider warm-up started on [%s]", lRoot));
+        lPool.execute(() -> {
+            try {
+                lPool.invoke(new WarmUpTask(lRoot, lRoot, lState));
+                lState.finish(null);
+                LOG.info(lState::toString);
+            } catch (Exception e) {
+                lState.finish(e);
+                LOG.warning(() -> String.format("WebContentProvider warm-up failed [%s]%s%s", e, LS,
+                        getStackTraceFrom(e)));
+            } finally {
+                lPool.shutdown();
             }
-            return lType;
-        }
+        });
+        return lState.result;
+    }
 
-        /**
-         */
-        public String decodeRequestPath(String pPath) {
-            return pPath;
+    /**
+     */
+    public String getStatusInfo() {
+        StringBuilder lInfo = new StringBuilder("WebContentProvider mode [")
+                .append(developmentMode ? "development" : "production").append("] file watcher [")
+                .append(fileWatcher != null ? "on" : "off").append("]");
+        if (warmUpState != null) {
+            lInfo.append(LS).append(warmUpState);
         }
-
-        /**
-         */
-        public boolean isStyleSheet(String pPath) {
-            return pPath.endsWith(".css");
+        if (fileCache instanceof DefaultFileCache cache) {
+            lInfo.append(LS).append("WebContentProvider cache: ").append(cache.getStatistics());
         }
-
-        /**
-         */
-        public boolean isJavaScript(String pPath) {
-            return pPath.endsWith(".js") || pPath.endsWith(".mjs");
+        lInfo.append(LS).append("WebContentProvider missing files: ").append(missingFiles.getStatistics());
+        lInfo.append(LS).append("WebContentProvider module graph: ").append(moduleGraph.getStatistics());
+        if (minifier != null) {
+            lInfo.append(LS).append("WebContentProvider minifier: ").append(minifier.getStatistics());
         }
+        return lInfo.toString();
+    }
 
-        /**
-         */
-        public boolean isImage(String pPath) {
-            return pPath.endsWith(".png") || pPath.endsWith(".jpg")
-                    || pPath.endsWith(".gif")
-                    || pPath.endsWith(".ico")
-                    || pPath.endsWith(".svg");
-        }
+    /**
+     */
+    public Map<String, IndexEntry> getContentIndex() {
+        return Collections.unmodifiableMap(contentIndex);
     }
 
     /**
+     * Index and optionally preload a single file found by the warm-up.
      */
-    public static class WebFile {
-        protected String requestPath = "";
-        protected String filePath = "";
+    protected void warmUpFile(Path pRoot, Path pFile, BasicFileAttributes pAttributes, WarmUpState pState) {
+        String lPath = "/" + pRoot.relativize(pFile).toString().replace('\\', '/');
+        WebFile lWebFile = new WebFile(lPath);
+        prepareWebFile(lWebFile);
+        String lHash = "";
+
+        if (!developmentMode && pAttributes.size() <= pState.maxPreloadSize) {
+            try {
+                long lGeneration = invalidations.get();
+                WebFile lLoaded = fileCache.getOrLoad(lPath, () -> indexWebFile(loadWebFile(lPath, false)),
+                        file -> isCacheable(file) && invalidations.get() == lGeneration);
+                lHash = lLoaded.getETag();
+                pState.preloaded.increment();
+                pState.bytes.add(lLoaded.getLength());
+            } catch (Exception e) {
+                pState.errors.increment();
+                LOG.fine(() -> String.format("WebContentProvider warm-up preload error [%s] [%s]", lPath, e));
+            }
+        }
+
+        contentIndex.put(lPath, new IndexEntry(lPath, pAttributes.size(), pAttributes.lastModifiedTime().toMillis(),
+                lWebFile.getContentType(), lHash));
+        long lCount = pState.files.incrementAndGet();
+        if (lCount % WarmUpState.ProgressStep == 0) {
+            LOG.info(pState::toString);
+        }
+    }
+
+    /**
+     * The recursive fork-join task of the warm-up - one task per folder.
+     */
+    protected class WarmUpTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        protected final transient Path root;
+        protected final transient Path folder;
+        protected final transient WarmUpState state;
+
+        protected WarmUpTask(Path pRoot, Path pFolder, WarmUpState pState) {
+            root = pRoot;
+            folder = pFolder;
+            state = pState;
+        }
+
+        @Override
+        protected void compute() {
+            List<WarmUpTask> lSubTasks = new ArrayList<>();
+            try (DirectoryStream<Path> lEntries = Files.newDirectoryStream(folder)) {
+                for (Path entry : lEntries) {
+                    BasicFileAttributes lAttributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (lAttributes.isDirectory()) {
+                        lSubTasks.add(new WarmUpTask(root, entry, state));
+                    } else if (lAttributes.isRegularFile() && !isWarmUpExcluded(entry)) {
+                        warmUpFile(root, entry, lAttributes, state);
+                    }
+                }
+            } catch (IOException e) {
+                state.errors.increment();
+                LOG.fine(() -> String.format("WebContentProvider warm-up folder error [%s] [%s]", folder, e));
+            }
+            invokeAll(lSubTasks);
+        }
+    }
+
+    /**
+     * <pre>
+     * The fingerprint stage that rewrites asset references to content hashed urls
+     * e.g. /css/workbench.css -> /css/workbench.3f2a9c1d.css
+     * 
+     * - references are rewritten in html src/href attributes and importmaps,
+     *   in css url() and @import and - if enabled - in js module static imports
+     * - the fingerprint is a hash of the served content including its own rewritten references
+     *   so a change propagates to all referencing files
+     * - a reference cycle is guarded - a file reached again while being fingerprinted keeps its plain url
+     * - html pages are never fingerprinted, js modules only if enabled because
+     *   a module also loaded by a plain url (e.g. a dynamic import) would be instantiated twice
+     * - a fingerprint is computed once per file without a global lock - concurrent requests
+     *   wait for the running computation, a wait that would close a cycle between threads
+     *   keeps the plain url like a cycle within one thread
+     * - a failed computation is not remembered
+     * - a file change only resets the changed file and - transitively - the files referencing it
+     * </pre>
+     */
+    public class Fingerprinter implements FileEnricher {
+        public static final String ImmutableCacheControl = "public, max-age=31536000, immutable";
+        protected static final Pattern FingerprintPattern = Pattern.compile("^(.*/[^/]+)\\.([0-9a-f]{8})(\\.[^./]+)$");
+        protected static final Pattern HtmlRefPattern = Pattern
+                .compile("(\\b(?:src|href)\\s*=\\s*[\"'])([^\"']+)([\"'])", Pattern.CASE_INSENSITIVE);
+        protected static final Pattern CssRefPattern = Pattern
+                .compile("(url\\(\\s*[\"']?|@import\\s+[\"'])([^\"')\\s]+)([\"')\\s])");
+
+        // request path -> fingerprint (computation), "" = not fingerprinted
+        protected final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+        protected final Set<String> cyclic = ConcurrentHashMap.newKeySet();
+        // request path -> request paths of the files referencing it
+        protected final Map<String, Set<String>> referrers = new ConcurrentHashMap<>();
+        // the files with rewritten references
+        protected final Set<String> rewritten = ConcurrentHashMap.newKeySet();
+        protected final ThreadLocal<Deque<String>> inProgress = ThreadLocal.withInitial(ArrayDeque::new);
+        // the running computation a thread waits for - to detect cycles between threads
+        protected final Map<Thread, Fingerprint> waiting = new ConcurrentHashMap<>();
+        protected final ReentrantLock waitLock = new ReentrantLock();
+        protected boolean modules = false;
+
+        /**
+         */
+        public Fingerprinter setModules(boolean pModules) {
+            modules = pModules;
+            return this;
+        }
+
+        @Override
+        public void enrich(WebFile pFile) {
+            String lPath = pFile.getRequestPath();
+            boolean lIsModule = modules && fileHelper.isJavaScript(lPath);
+            boolean lIsCss = fileHelper.isStyleSheet(lPath);
+            boolean lIsHtml = pFile.getContentType().startsWith(FieldValue.TEXT_HTML);
+            if (pFile.hasFileBody() || !(lIsModule || lIsCss || lIsHtml)) {
+                return;
+            }
+
+            inProgress.get().push(lPath);
+            try {
+                String lSource = new String(pFile.getData(), StandardCharsets.UTF_8);
+                String lResult;
+                if (lIsHtml) {
+                    lResult = rewrite(lSource, HtmlRefPattern, 2, pFile);
+                    lResult = rewriteImportMaps(lResult, pFile);
+                } else if (lIsCss) {
+                    lResult = rewrite(lSource, CssRefPattern, 2, pFile);
+                } else {
+                    lResult = rewrite(lSource, ModuleGraph.ImportPattern, 1, pFile);
+                }
+                rewritten.add(lPath);
+                if (!lResult.equals(lSource)) {
+                    pFile.setData(lResult.getBytes(StandardCharsets.UTF_8));
+                }
+            } finally {
+                inProgress.get().pop();
+            }
+        }
+
+        /**
+         * Get the current fingerprint of a file - or null if it is not fingerprinted.
+         */
+        public String fingerprintOf(String pPath) {
+            if (!isFingerprintable(pPath)) {
+                return null;
+            }
+            Fingerprint lPrint = fingerprints.get(pPath);
+            if (lPrint == null) {
+                if (cyclic.contains(pPath) || inProgress.get().contains(pPath)) {
+                    // keep the plain url for a file on a reference cycle
+                    cyclic.add(pPath);
+                    return null;
+                }
+                Fingerprint lNew = new Fingerprint(pPath);
+                lPrint = fingerprints.putIfAbsent(pPath, lNew);
+                if (lPrint == null) {
+                    return compute(lNew);
+                }
+            }
+            return await(lPrint);
+        }
+
+        /**
+         * Map a fingerprinted request path to the real path - other paths are returned unchanged.
+         */
+        public String toRealPath(String pPath) {
+            Matcher lMatcher = FingerprintPattern.matcher(pPath);
+            if (lMatcher.matches()) {
+                String lRealPath = lMatcher.group(1) + lMatcher.group(3);
+                if (isFingerprintable(lRealPath)) {
+                    return lRealPath;
+                }
+            }
+            return pPath;
+        }
+
+        /**
+         * A fingerprinted request path with the current fingerprint may be cached forever.
+         */
+        public boolean isCurrent(String pRequestPath, String pRealPath) {
+            return !pRequestPath.equals(pRealPath)
+                    && pRequestPath.equals(withFingerprint(pRealPath, fingerprintOf(pRealPath)));
+        }
+
+        /**
+         * Forget all fingerprints and remove all rewritten files from the cache.
+         */
+        public void reset() {
+            fingerprints.clear();
+            cyclic.clear();
+            referrers.clear();
+            rewritten.forEach(fileCache::remove);
+            rewritten.clear();
+            moduleGraph.invalidateAll();
+        }
+
+        /**
+         * <pre>
+         * Forget the fingerprints of the files from or below the given file path
+         * and of all files referencing them - transitively.
+         * Rewritten referencing files are removed from the cache.
+         * </pre>
+         */
+        public void invalidate(Path pPath) {
+            Deque<String> lPending = new ArrayDeque<>();
+            fingerprints.forEach((path, print) -> {
+                if (print.filePath.startsWith(pPath)) {
+                    lPending.add(path);
+                }
+            });
+            referrers.keySet().forEach(path -> {
+                if (filePathOf(path).startsWith(pPath)) {
+                    lPending.add(path);
+                }
+            });
+
+            Set<String> lDone = new HashSet<>();
+            while (!lPending.isEmpty()) {
+                String lPath = lPending.poll();
+                if (lDone.add(lPath)) {
+                    fingerprints.remove(lPath);
+                    cyclic.remove(lPath);
+                    if (rewritten.remove(lPath)) {
+                        fileCache.remove(lPath);
+                        moduleGraph.invalidate(filePathOf(lPath));
+                    }
+                    Set<String> lReferrers = referrers.remove(lPath);
+                    if (lReferrers != null) {
+                        lPending.addAll(lReferrers);
+                    }
+                }
+            }
+            LOG.fine(() -> String.format("WebContentProvider fingerprints invalidated by [%s] %s", pPath, lDone));
+        }
+
+        /**
+         */
+        public boolean isFingerprintable(String pPath) {
+            String lName = pPath.substring(pPath.lastIndexOf('/') + 1);
+            if (!lName.contains(".") || (fileHelper.isJavaScript(pPath) && !modules)
+                    || !fileHelper.doPathMapping(pPath).equals(pPath)) {
+                return false;
+            }
+            return !contentTypes.getFor(pPath).getMimeType().startsWith(FieldValue.TEXT_HTML);
+        }
+
+        /**
+         * Run a new computation - a failed computation is removed so it is retried on the next request.
+         */
+        protected String compute(Fingerprint pPrint) {
+            String lHash = null;
+            try {
+                lHash = computeFingerprint(pPrint.path);
+            } finally {
+                if (lHash == null) {
+                    fingerprints.remove(pPrint.path, pPrint);
+                }
+                pPrint.hash.complete(lHash == null ? "" : lHash);
+            }
+            return lHash == null || lHash.isEmpty() ? null : lHash;
+        }
+
+        /**
+         * Wait for a computation of another thread - unless the wait would close a cycle.
+         */
+        protected String await(Fingerprint pPrint) {
+            if (!pPrint.hash.isDone()) {
+                Thread lCurrent = Thread.currentThread();
+                waitLock.lock();
+                try {
+                    if (isWaitCycle(pPrint, lCurrent)) {
+                        // keep the plain url for a file on a reference cycle
+                        cyclic.add(pPrint.path);
+                        return null;
+                    }
+                    waiting.put(lCurrent, pPrint);
+                } finally {
+                    waitLock.unlock();
+                }
+                try {
+                    pPrint.hash.join();
+                } finally {
+                    waiting.remove(lCurrent);
+                }
+            }
+            String lHash = pPrint.hash.join();
+            return lHash.isEmpty() ? null : lHash;
+        }
+
+        /**
+         * Follow the owners of the awaited computations - must be called under waitLock.
+         */
+        protected boolean isWaitCycle(Fingerprint pPrint, Thread pCurrent) {
+            Fingerprint lNext = pPrint;
+            Set<Fingerprint> lSeen = new HashSet<>();
+            while (lNext != null && !lNext.hash.isDone() && lSeen.add(lNext)) {
+                if (lNext.owner == pCurrent) {
+                    return true;
+                }
+                lNext = waiting.get(lNext.owner);
+            }
+            return false;
+        }
+
+        /**
+         * The fingerprint hash or "" if not fingerprinted - null if the computation failed.
+         */
+        protected String computeFingerprint(String pPath) {
+            inProgress.get().push(pPath);
+            try {
+                WebFile lFile = developmentMode ? null : fileCache.get(pPath);
+                if (lFile == null) {
+                    lFile = loadWebFile(pPath, false);
+                }
+                if (cyclic.contains(pPath)) {
+                    return "";
+                }
+                MessageDigest lDigest = MessageDigest.getInstance("SHA-256");
+                byte[] lHash = lDigest.digest(lFile.getETag().getBytes(StandardCharsets.UTF_8));
+                return String.format("%02x%02x%02x%02x", lHash[0], lHash[1], lHash[2], lHash[3]);
+            } catch (Exception e) {
+                LOG.fine(() -> String.format("WebContentProvider NO fingerprint for [%s] [%s]", pPath, e));
+                return null;
+            } finally {
+                inProgress.get().pop();
+            }
+        }
+
+        /**
+         */
+        protected Path filePathOf(String pPath) {
+            WebFile lFile = new WebFile(pPath);
+            prepareWebFile(lFile);
+            return normalize(Paths.get(lFile.filePath));
+        }
+
+        /**
+         * Rewrite all references found by a pattern group.
+         */
+        protected String rewrite(String pSource, Pattern pPattern, int pGroup, WebFile pFile) {
+            Matcher lMatcher = pPattern.matcher(pSource);
+            StringBuilder lResult = new StringBuilder(pSource.length() + 64);
+            int lPos = 0;
+            while (lMatcher.find()) {
+                String lRef = lMatcher.group(pGroup);
+                String lNewRef = rewriteReference(lRef, pFile);
+                if (!lNewRef.equals(lRef)) {
+                    lResult.append(pSource, lPos, lMatcher.start(pGroup)).append(lNewRef);
+                    lPos = lMatcher.end(pGroup);
+                }
+            }
+            return lPos == 0 ? pSource : lResult.append(pSource, lPos, pSource.length()).toString();
+        }
+
+        /**
+         */
+        protected String rewriteImportMaps(String pHtml, WebFile pFile) {
+            Matcher lScript = ModuleGraph.ScriptPattern.matcher(pHtml);
+            StringBuilder lResult = new StringBuilder(pHtml.length() + 64);
+            int lPos = 0;
+            while (lScript.find()) {
+                if (lScript.group(1).toLowerCase(Locale.ROOT).contains("importmap")) {
+                    lResult.append(pHtml, lPos, lScript.start(2))
+                            .append(rewrite(lScript.group(2), ModuleGraph.MapEntryPattern, 2, pFile));
+                    lPos = lScript.end(2);
+                }
+            }
+            return lPos == 0 ? pHtml : lResult.append(pHtml, lPos, pHtml.length()).toString();
+        }
+
+        /**
+         * Insert the fingerprint into a same origin reference and record the dependency.
+         */
+        protected String rewriteReference(String pRef, WebFile pFile) {
+            if (pRef.contains("?") || pRef.contains("#") || pRef.contains(":") || pRef.startsWith("//")) {
+                return pRef;
+            }
+            String lPath = ModuleGraph.resolve(pRef.startsWith("/") || pRef.startsWith(".") ? pRef : "./" + pRef,
+                    pFile.getRequestPath(), Collections.emptyMap());
+            if (lPath == null || !isFingerprintable(lPath)) {
+                return pRef;
+            }
+            // also a plain (cyclic) reference may get fingerprinted after a change
+            referrers.computeIfAbsent(lPath, k -> ConcurrentHashMap.newKeySet()).add(pFile.getRequestPath());
+            String lHash = fingerprintOf(lPath);
+            if (lHash == null) {
+                return pRef;
+            }
+            pFile.addDependency(filePathOf(lPath));
+            return withFingerprint(pRef, lHash);
+        }
+
+        /**
+         */
+        protected String withFingerprint(String pRef, String pHash) {
+            int lDot = pRef.lastIndexOf('.');
+            if (pHash == null || lDot <= pRef.lastIndexOf('/')) {
+                return pRef;
+            }
+            return pRef.substring(0, lDot) + "." + pHash + pRef.substring(lDot);
+        }
+
+        /**
+         * A fingerprint computation owned by the computing thread.
+         */
+        protected class Fingerprint {
+            protected final String path;
+            protected final Path filePath;
+            protected final Thread owner = Thread.currentThread();
+            protected final CompletableFuture<String> hash = new CompletableFuture<>();
+
+            protected Fingerprint(String pPath) {
+                path = pPath;
+                filePath = filePathOf(pPath);
+            }
+        }
+    }
+
+    /**
+     * Hidden files and precompressed sidecars are not indexed.
+     */
+    protected boolean isWarmUpExcluded(Path pFile) {
+        String lName = pFile.getFileName().toString();
+        return lName.startsWith(".") || lName.endsWith(".gz") || lName.endsWith(".br");
+    }
+
+    /**
+     * Set the file path and content type for a not yet loaded WebFile.
+     */
+    protected void prepareWebFile(WebFile pWebFile) {
+        String lDecodedPath = pWebFile.getRequestPath();
+        pWebFile.filePath = getFilePathFor(fileHelper.doPathMapping(lDecodedPath));
+
+        ContentType lType = contentTypes.getFor(pWebFile.filePath);
+        pWebFile.setContentType(lType.getMimeType());
+        pWebFile.setTextFormat(lType.isText());
+    }
+
+    /**
+     * <pre>
+     * Create and load the WebFile for a decoded request path by the fileProvider.
+     * A non text file is first attached as a file body if supported by the provider.
+     * It stays a file body - which is neither read, enriched nor cached -
+     * if pAsFileBody is true or if it is a large file.
+     * </pre>
+     */
+    protected WebFile loadWebFile(String pDecodedPath, boolean pAsFileBody) throws WebContentException {
+        WebFile lWebFile = new WebFile(pDecodedPath);
+        prepareWebFile(lWebFile);
+        try {
+            if (!lWebFile.isTextFormat() && fileProvider.attachFileBody(lWebFile)) {
+                if (pAsFileBody || lWebFile.hasBufferBody() || lWebFile.getLength() >= largeFileThreshold) {
+                    lWebFile.setETag(createETagFor(lWebFile));
+                    return lWebFile;
+                }
+                lWebFile.setFileBody(null, 0);
+            }
+            fileProvider.readAllFileBytes(lWebFile);
+            byte[] lRawData = lWebFile.getData();
+            fileEnricher.enrich(lWebFile);
+            // an enriched content is built from more than the file itself
+            lWebFile.setEnriched(lRawData != lWebFile.getData());
+            if (minifier != null) {
+                minifier.enrich(lWebFile);
+            }
+            if (isFingerprinting()) {
+                byte[] lData = lWebFile.getData();
+                fingerprinter.enrich(lWebFile);
+                lWebFile.setEnriched(lWebFile.isEnriched() || lData != lWebFile.getData());
+            }
+            lWebFile.setETag(createETagFor(lWebFile));
+
+            // precompressed sidecars are only valid for unchanged files
+            if (precompressedEnabled && contentTypes.getFor(lWebFile.filePath).isCompressible()
+                    && lRawData == lWebFile.getData()) {
+                loadEncodedVariants(lWebFile);
+            }
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            // an expected result - a cheap exception recording the resolved missing file
+            throw new WebContentException(Status.SC_404_NOT_FOUND,
+                    String.format("File NOT found [%s]", lWebFile.filePath))
+                    .setMissingFile(normalize(Paths.get(lWebFile.filePath)));
+        } catch (Exception e) {
+            throw new WebContentException(Status.SC_404_NOT_FOUND,
+                    String.format("Could NOT read file data [%s]", lWebFile.filePath), e);
+        }
+        return lWebFile;
+    }
+
+    /**
+     * <pre>
+     * Answer a GET request with a Range header.
+     * Text files are loaded as usual and the ranges are taken from memory.
+     * Not cached binary files are NOT loaded, the ranges are transfered
+     * straight from the file channel.
+     * A single range is answered as 206 Partial Content, 
+     * multiple ranges as multipart/byteranges.
+     * </pre>
+     */
+    protected void handleRangeRequest(RequestMessage pRequest, ResponseMessage pResponse, WebFile pWebFile,
+            String pRange) throws IOException {
+        final WebFile lFile = pWebFile;
+        long lLength = lFile.getLength();
+        List<ByteRange> lRanges = ByteRange.parse(pRange, lLength);
+
+        // an unparsable range or a non matching If-Range condition
+        // is answered with the complete content
+        if (lRanges == null || !isIfRangeMatching(pRequest.header().get(Field.IF_RANGE), lFile)) {
+            sendContent(lFile, pResponse);
+            return;
+        }
+
+        if (lRanges.isEmpty()) {
+            pResponse.setStatus(Status.SC_416_RANGE_NOT_SATISFIABLE);
+            pResponse.header().set(Field.CONTENT_RANGE, FieldValue.BYTES + " */" + lLength);
+            return;
+        }
+
+        pResponse.setStatus(Status.SC_206_PARTIAL_CONTENT);
+        if (lRanges.size() == 1) {
+            ByteRange lRange = lRanges.get(0);
+            pResponse.header().set(Field.CONTENT_RANGE, lRange.toContentRange(lLength));
+            pResponse.setContentWriter(lRange.length(), out -> lFile.writeTo(out, lRange.start, lRange.length()));
+        } else {
+            MultipartRanges lMultipart = new MultipartRanges(lFile, lRanges);
+            pResponse.setContentType(lMultipart.getContentType());
+            pResponse.setContentWriter(lMultipart.getLength(), lMultipart::writeTo);
+        }
+    }
+
+    /**
+     * <pre>
+     * An If-Range entity tag must strongly match the ETag of the file,
+     * an If-Range date must exactly match the last modification of the file.
+     * </pre>
+     */
+    protected boolean isIfRangeMatching(String pIfRange, WebFile pWebFile) {
+        if (pIfRange.isEmpty()) {
+            return true;
+        }
+        if (pIfRange.startsWith("W/")) {
+            // weak tags never match for ranges
+            return false;
+        }
+        if (pIfRange.startsWith("\"")) {
+            return pIfRange.equals(pWebFile.getETag());
+        }
+        long lDate = parseHttpDate(pIfRange);
+        return lDate > 0 && pWebFile.hasValidLastModified() && lDate == pWebFile.getLastModified() / 1000;
+    }
+
+    /**
+     * <pre>
+     * Evaluate the conditional request header.
+     * If-None-Match takes precedence over If-Modified-Since.
+     * </pre>
+     */
+    protected boolean isNotModified(RequestMessage pRequest, WebFile pWebFile) {
+        String lIfNoneMatch = pRequest.header().get(Field.IF_NONE_MATCH);
+        if (!lIfNoneMatch.isEmpty()) {
+            if (lIfNoneMatch.trim().equals("*")) {
+                return true;
+            }
+            // weak comparison
+            String lTag = stripWeakPrefix(pWebFile.getETag());
+            for (String tag : lIfNoneMatch.split(",")) {
+                if (!lTag.isEmpty() && stripWeakPrefix(tag.trim()).equals(lTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String lIfModifiedSince = pRequest.header().get(Field.IF_MODIFIED_SINCE);
+        if (!lIfModifiedSince.isEmpty() && pWebFile.hasValidLastModified()) {
+            long lDate = parseHttpDate(lIfModifiedSince);
+            return lDate > 0 && pWebFile.getLastModified() / 1000 <= lDate;
+        }
+        return false;
+    }
+
+    /**
+     * Set the validator and Cache-Control header fields for a web file.
+     */
+    protected void setCacheHeader(WebFile pWebFile, ResponseMessage pResponse) {
+        if (!pWebFile.getETag().isEmpty()) {
+            pResponse.header().set(Field.ETAG, pWebFile.getETag());
+        }
+        if (pWebFile.hasValidLastModified()) {
+            pResponse.header().set(Field.LAST_MODIFIED, HttpDateFormat
+                    .format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(pWebFile.getLastModified()), ZoneOffset.UTC)));
+        }
+        for (CacheControlPolicy policy : cacheControlPolicies) {
+            if (policy.matches(pWebFile.getRequestPath())) {
+                pResponse.header().set(Field.CACHE_CONTROL, policy.value);
+                break;
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * Add a Cache-Control value for request paths matching a glob like pattern
+     * where * matches within a path segment and ** across segments e.g.
+     *  - /images/*  max-age=86400
+     *  - /**        no-cache
+     * The first matching policy wins.
+     * </pre>
+     */
+    public JamnWebContentProvider addCacheControlPolicy(String pPathPattern, String pValue) {
+        cacheControlPolicies.add(new CacheControlPolicy(pPathPattern, pValue));
+        return this;
+    }
+
+    /**
+     * <pre>
+     * Add policies from a definition string like:
+     * /images/*:max-age=86400;/**:no-cache
+     * </pre>
+     */
+    public JamnWebContentProvider addCacheControlPolicies(String pDefinition) {
+        for (String policy : pDefinition.split(";")) {
+            int lPos = policy.indexOf(':');
+            if (lPos > 0) {
+                addCacheControlPolicy(policy.substring(0, lPos).trim(), policy.substring(lPos + 1).trim());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Create a strong ETag - a content hash for data or size and modification time for file bodies.
+     */
+    protected String createETagFor(WebFile pWebFile) {
+        if (pWebFile.hasFileBody() || pWebFile.hasBufferBody()) {
+            return new StringBuilder("\"").append(Long.toHexString(pWebFile.getLength())).append("-")
+                    .append(Long.toHexString(pWebFile.getLastModified())).append("\"").toString();
+        }
+        try {
+            byte[] lHash = MessageDigest.getInstance("SHA-256").digest(pWebFile.getData());
+            return new StringBuilder("\"")
+                    .append(Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(lHash, 16)))
+                    .append("\"").toString();
+        } catch (NoSuchAlgorithmException e) {
+            return "";
+        }
+    }
+
+    /**
+     */
+    protected String getFilePathFor(String pRequestPath) {
+        return new StringBuilder(webroot).append(pRequestPath).toString();
+    }
+
+    /*********************************************************
+     * Provider classes and interfaces.
+     *********************************************************/
+
+    /**
+     * A file provider delivers the concrete file content as a byte array. This
+     * might be a filesystem file, or a database record or what ever.
+     */
+    public static interface FileProvider {
+        void readAllFileBytes(WebFile pWebFile) throws IOException;
+
+        /**
+         * <pre>
+         * Attach the file to the WebFile as a file body WITHOUT reading its content.
+         * An in memory provider may attach a buffer body instead.
+         * A provider returns false if it does not support file bodies.
+         * </pre>
+         */
+        default boolean attachFileBody(WebFile pWebFile) throws IOException {
+            return false;
+        }
+    }
+
+    /**
+     * The default FileProvider reading files from the underlying filesystem.
+     */
+    public static class DefaultFileProvider implements FileProvider {
+
+        @Override
+        public void readAllFileBytes(WebFile pWebFile) throws IOException {
+            Path lFile = Paths.get(pWebFile.filePath);
+            pWebFile.setData(Files.readAllBytes(lFile));
+            pWebFile.setLastModified(Files.getLastModifiedTime(lFile).toMillis());
+        }
+
+        @Override
+        public boolean attachFileBody(WebFile pWebFile) throws IOException {
+            Path lFile = Paths.get(pWebFile.filePath);
+            BasicFileAttributes lAttributes = Files.readAttributes(lFile, BasicFileAttributes.class);
+            if (!lAttributes.isRegularFile()) {
+                throw new NoSuchFileException(pWebFile.filePath);
+            }
+            pWebFile.setFileBody(lFile, lAttributes.size());
+            pWebFile.setLastModified(lAttributes.lastModifiedTime().toMillis());
+            return true;
+        }
+    }
+
+    /**
+     * <pre>
+     * A FileProvider serving the webroot from a single zip/jar archive.
+     * 
+     * - the central directory is indexed once into a hash map
+     * - the archive is memory mapped - reads are buffer slices
+     * - stored (uncompressed) non text entries are attached as mapped buffer bodies
+     *   instead of being read into a byte array
+     * - deflated entries are inflated for reading and passed through without recompression
+     *   as gzip encoded variant - the raw zip deflate stream is framed by a gzip header
+     *   and the crc and size from the central directory
+     * 
+     * Archive entries are mapped to file paths by: webroot + /path <-> entryRoot + path
+     * </pre>
+     */
+    public static class ArchiveFileProvider implements FileProvider {
+        protected static final int EndSignature = 0x06054b50;
+        protected static final int CentralSignature = 0x02014b50;
+        protected static final int LocalSignature = 0x04034b50;
+        protected static final byte[] GzipHeader = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+        protected final Path archivePath;
+        protected final String webroot;
+        protected final String entryRoot;
+        protected final ByteBuffer archive;
+        protected final Map<String, ArchiveEntry> entries = new HashMap<>();
+
+        /**
+         * @param pArchive - the zip/jar file
+         * @param pWebroot - the webroot of the content provider
+         * @param pEntryRoot - the folder of the web files inside the archive e.g. "http/" or ""
+         */
+        public ArchiveFileProvider(Path pArchive, String pWebroot, String pEntryRoot) throws IOException {
+            archivePath = pArchive;
+            webroot = pWebroot;
+            entryRoot = pEntryRoot;
+            try (FileChannel lChannel = FileChannel.open(pArchive, StandardOpenOption.READ)) {
+                if (lChannel.size() > Integer.MAX_VALUE) {
+                    throw new IOException(String.format("Archive too large [%s]", pArchive));
+                }
+                archive = lChannel.map(FileChannel.MapMode.READ_ONLY, 0, lChannel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            indexCentralDirectory();
+            LOG.info(() -> String.format("WebContentProvider archive indexed [%s] entries [%s]", archivePath,
+                    entries.size()));
+        }
+
+        @Override
+        public void readAllFileBytes(WebFile pWebFile) throws IOException {
+            ArchiveEntry lEntry = entries.get(toEntryName(pWebFile.filePath));
+            byte[] lData;
+            if (lEntry != null) {
+                lData = lEntry.isStored() ? toArray(lEntry.slice()) : inflate(lEntry);
+            } else {
+                lData = toArray(gzipPassThrough(pWebFile).slice());
+                lEntry = entries.get(toEntryName(baseOf(pWebFile.filePath)));
+            }
+            pWebFile.setData(lData);
+            pWebFile.setLastModified(lEntry.lastModified);
+        }
+
+        @Override
+        public boolean attachFileBody(WebFile pWebFile) throws IOException {
+            ArchiveEntry lEntry = entries.get(toEntryName(pWebFile.filePath));
+            if (lEntry != null) {
+                if (!lEntry.isStored()) {
+                    // must be inflated by readAllFileBytes
+                    return false;
+                }
+                pWebFile.setBufferBody(PooledBuffer.wrap(lEntry.slice()));
+                pWebFile.setLastModified(lEntry.lastModified);
+                return true;
+            }
+            pWebFile.setBufferBody(PooledBuffer.wrap(gzipPassThrough(pWebFile)));
+            pWebFile.setLastModified(entries.get(toEntryName(baseOf(pWebFile.filePath))).lastModified);
+            return true;
+        }
+
+        /**
+         */
+        public boolean contains(String pFilePath) {
+            return entries.containsKey(toEntryName(pFilePath));
+        }
+
+        /**
+         */
+        public int getEntryCount() {
+            return entries.size();
+        }
+
+        /**
+         * Frame the deflate data of the base entry of a gzip variant as gzip.
+         */
+        protected ByteBuffer gzipPassThrough(WebFile pWebFile) throws IOException {
+            ArchiveEntry lBase = null;
+            if (FieldValue.GZIP.equals(pWebFile.getContentEncoding()) && pWebFile.filePath.endsWith(".gz")) {
+                lBase = entries.get(toEntryName(baseOf(pWebFile.filePath)));
+            }
+            if (lBase == null || lBase.isStored()) {
+                throw new NoSuchFileException(pWebFile.filePath);
+            }
+            ByteBuffer lGzip = ByteBuffer.allocate(GzipHeader.length + lBase.compressedSize + 8)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            lGzip.put(GzipHeader).put(lBase.slice()).putInt(lBase.crc).putInt(lBase.size).flip();
+            return lGzip;
+        }
+
+        /**
+         */
+        protected byte[] inflate(ArchiveEntry pEntry) throws IOException {
+            if (pEntry.method != ZipEntry.DEFLATED) {
+                throw new IOException(String.format("Unsupported archive compression [%s] [%s]", pEntry.method,
+                        pEntry.name));
+            }
+            byte[] lData = new byte[pEntry.size];
+            Inflater lInflater = new Inflater(true);
+            try {
+                lInflater.setInput(pEntry.slice());
+                int lPos = 0;
+                while (lPos < lData.length && !lInflater.finished()) {
+                    int lCount = lInflater.inflate(lData, lPos, lData.length - lPos);
+                    if (lCount == 0 && (lInflater.needsInput() || lInflater.needsDictionary())) {
+                        throw new IOException(String.format("Truncated archive entry [%s]", pEntry.name));
+                    }
+                    lPos += lCount;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(String.format("Corrupt archive entry [%s]", pEntry.name), e);
+            } finally {
+                lInflater.end();
+            }
+            return lData;
+        }
+
+        /**
+         * Read the entries of the central directory - zip64 archives are not supported.
+         */
+        protected void indexCentralDirectory() throws IOException {
+            int lEnd = -1;
+            for (int i = archive.limit() - 22; i >= Math.max(0, archive.limit() - 22 - 0xFFFF); i--) {
+                if (archive.getInt(i) == EndSignature) {
+                    lEnd = i;
+                    break;
+                }
+            }
+            if (lEnd < 0) {
+                throw new IOException(String.format("No zip archive [%s]", archivePath));
+            }
+            int lCount = Short.toUnsignedInt(archive.getShort(lEnd + 10));
+            long lOffset = Integer.toUnsignedLong(archive.getInt(lEnd + 16));
+            if (lCount == 0xFFFF || lOffset == 0xFFFFFFFFL) {
+                throw new IOException(String.format("Zip64 archive NOT supported [%s]", archivePath));
+            }
+
+            int lPos = (int) lOffset;
+            for (int i = 0; i < lCount; i++) {
+                if (archive.getInt(lPos) != CentralSignature) {
+                    throw new IOException(String.format("Corrupt zip central directory [%s]", archivePath));
+                }
+                int lNameLength = Short.toUnsignedInt(archive.getShort(lPos + 28));
+                int lExtraLength = Short.toUnsignedInt(archive.getShort(lPos + 30));
+                int lCommentLength = Short.toUnsignedInt(archive.getShort(lPos + 32));
+                byte[] lName = new byte[lNameLength];
+                archive.get(lPos + 46, lName);
+
+                ArchiveEntry lEntry = new ArchiveEntry(this, new String(lName, StandardCharsets.UTF_8));
+                lEntry.method = Short.toUnsignedInt(archive.getShort(lPos + 10));
+                lEntry.lastModified = fromDosTime(Short.toUnsignedInt(archive.getShort(lPos + 14)),
+                        Short.toUnsignedInt(archive.getShort(lPos + 12)));
+                lEntry.crc = archive.getInt(lPos + 16);
+                lEntry.compressedSize = archive.getInt(lPos + 20);
+                lEntry.size = archive.getInt(lPos + 24);
+                int lLocal = archive.getInt(lPos + 42);
+                if (archive.getInt(lLocal) != LocalSignature) {
+                    throw new IOException(String.format("Corrupt zip local header [%s]", lEntry.name));
+                }
+                lEntry.dataOffset = lLocal + 30 + Short.toUnsignedInt(archive.getShort(lLocal + 26))
+                        + Short.toUnsignedInt(archive.getShort(lLocal + 28));
+
+                if (!lEntry.name.endsWith("/")) {
+                    entries.put(lEntry.name, lEntry);
+                }
+                lPos += 46 + lNameLength + lExtraLength + lCommentLength;
+            }
+        }
+
+        /**
+         */
+        protected String toEntryName(String pFilePath) {
+            String lPath = pFilePath.startsWith(webroot) ? pFilePath.substring(webroot.length()) : pFilePath;
+            lPath = lPath.replace('\\', '/');
+            while (lPath.startsWith("/")) {
+                lPath = lPath.substring(1);
+            }
+            return entryRoot + lPath;
+        }
+
+        /**
+         */
+        protected static String baseOf(String pSidecarPath) {
+            return pSidecarPath.substring(0, pSidecarPath.lastIndexOf('.'));
+        }
+
+        /**
+         */
+        protected static byte[] toArray(ByteBuffer pBuffer) {
+            byte[] lData = new byte[pBuffer.remaining()];
+            pBuffer.get(lData);
+            return lData;
+        }
+
+        /**
+         */
+        protected static long fromDosTime(int pDate, int pTime) {
+            try {
+                return LocalDateTime.of(((pDate >> 9) & 0x7f) + 1980, (pDate >> 5) & 0x0f, pDate & 0x1f,
+                        (pTime >> 11) & 0x1f, (pTime >> 5) & 0x3f, (pTime & 0x1f) * 2)
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * An indexed archive entry.
+         */
+        protected static class ArchiveEntry {
+            protected final ArchiveFileProvider provider;
+            protected final String name;
+            protected int method;
+            protected long lastModified;
+            protected int crc;
+            protected int compressedSize;
+            protected int size;
+            protected int dataOffset;
+
+            protected ArchiveEntry(ArchiveFileProvider pProvider, String pName) {
+                provider = pProvider;
+                name = pName;
+            }
+
+            protected boolean isStored() {
+                return method == ZipEntry.STORED;
+            }
+
+            protected ByteBuffer slice() {
+                return provider.archive.slice(dataOffset, compressedSize);
+            }
+        }
+    }
+
+    /**
+     * A file enricher is used to pre process loaded web files to dynamically inject
+     * values, text or code.
+     */
+    public static interface FileEnricher {
+        void enrich(WebFile pFile);
+
+        /**
+         * Chain a further enricher stage.
+         */
+        default FileEnricher andThen(FileEnricher pNext) {
+            return (WebFile pFile) -> {
+                enrich(pFile);
+                pNext.enrich(pFile);
+            };
+        }
+    }
+
+    /**
+     * File cache abstraction.
+     */
+    public static interface FileCache {
+        void put(String pKey, WebFile pFile);
+
+        boolean contains(String pKey);
+
+        WebFile get(String pKey);
+
+        /**
+         */
+        default WebFile remove(String pKey) {
+            return null;
+        }
+
+        /**
+         */
+        default void clear() {
+        }
+
+        /**
+         * <pre>
+         * Get a cached file or load it by the loader.
+         * The loaded file is put to the cache if accepted by pCacheable.
+         * Implementations should load a file only once for concurrent misses.
+         * </pre>
+         */
+        default WebFile getOrLoad(String pKey, FileLoader pLoader, Predicate<WebFile> pCacheable) throws Exception {
+            WebFile lFile = get(pKey);
+            if (lFile == null) {
+                lFile = pLoader.load();
+                if (pCacheable.test(lFile)) {
+                    put(pKey, lFile);
+                }
+            }
+            return lFile;
+        }
+    }
+
+    /**
+     * The loader function used by FileCache.getOrLoad
+     */
+    @FunctionalInterface
+    public static interface FileLoader {
+        WebFile load() throws Exception;
+    }
+
+    /**
+     * <pre>
+     * A concurrent, size bounded file cache with segmented LRU eviction.
+     * 
+     * - lookups are lock free on a ConcurrentHashMap
+     * - new entries start in a probation segment, a hit promotes them to a protected segment
+     *   so that one time requests do not evict frequently used files
+     * - the cache is bounded by the sum of the file lengths (maxBytes)
+     * - an optional time to live expires entries on access
+     * - recency updates on a hit are lossy: they are skipped if the lock is busy
+     * - a remove or clear during a running load marks the load as invalidated
+     *   so that the loaded (possibly stale) file is not put to the cache
+     * </pre>
+     */
+    public static class DefaultFileCache implements FileCache {
+        public static final long DefaultMaxBytes = 32L * 1024 * 1024;
+        // the share of maxBytes for the protected segment
+        protected static final int ProtectedPercent = 80;
+
+        protected final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        protected final Map<String, Load> loading = new ConcurrentHashMap<>();
+        protected final ReentrantLock lock = new ReentrantLock();
+
+        protected final Segment probation = new Segment();
+        protected final Segment protectedSegment = new Segment();
+
+        protected final long maxBytes;
+        protected final long maxProtectedBytes;
+        protected final long ttlMillis;
+
+        protected final LongAdder hits = new LongAdder();
+        protected final LongAdder misses = new LongAdder();
+        protected final LongAdder evictions = new LongAdder();
+        protected final LongAdder loads = new LongAdder();
+
+        /**
+         * @param pMaxBytes - the byte budget of the cache
+         * @param pTtlMillis - the time to live of an entry, 0 = no expiration
+         */
+        public DefaultFileCache(long pMaxBytes, long pTtlMillis) {
+            maxBytes = pMaxBytes;
+            maxProtectedBytes = pMaxBytes * ProtectedPercent / 100;
+            ttlMillis = pTtlMillis;
+        }
+
+        @Override
+        public void put(String pKey, WebFile pFile) {
+            putEntry(pKey, pFile, null);
+        }
+
+        /**
+         * Put an entry - skipped if pLoad is given and was invalidated meanwhile.
+         * Returns false if the file was not added.
+         */
+        protected boolean putEntry(String pKey, WebFile pFile, Load pLoad) {
+            long lWeight = pFile.getCacheWeight();
+            if (lWeight > maxBytes) {
+                remove(pKey);
+                return false;
+            }
+            Entry lEntry = new Entry(pKey, pFile, lWeight,
+                    ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE);
+            List<Entry> lRemoved = new ArrayList<>();
+
+            lock.lock();
+            try {
+                if (pLoad != null && pLoad.invalidated) {
+                    LOG.fine(() -> String.format("FileCache skipped stale load [%s]", pKey));
+                    return false;
+                }
+                Entry lOld = entries.put(pKey, lEntry);
+                if (lOld != null) {
+                    lOld.segment.unlink(lOld);
+                    lRemoved.add(lOld);
+                }
+                probation.addFirst(lEntry);
+                evict(lRemoved);
+            } finally {
+                lock.unlock();
+            }
+            lRemoved.forEach(entry -> onRemoval(entry.key, entry.file, entry.evicted));
+            return true;
+        }
+
+        @Override
+        public boolean contains(String pKey) {
+            Entry lEntry = entries.get(pKey);
+            return lEntry != null && !isExpired(lEntry);
+        }
+
+        @Override
+        public WebFile get(String pKey) {
+            Entry lEntry = entries.get(pKey);
+            if (lEntry == null) {
+                misses.increment();
+                return null;
+            }
+            if (isExpired(lEntry)) {
+                misses.increment();
+                remove(pKey);
+                return null;
+            }
+            hits.increment();
+            if (lock.tryLock()) {
+                try {
+                    onHit(lEntry);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return lEntry.file;
+        }
+
+        @Override
+        public WebFile remove(String pKey) {
+            Entry lEntry;
+            lock.lock();
+            try {
+                lEntry = entries.remove(pKey);
+                if (lEntry != null) {
+                    lEntry.segment.unlink(lEntry);
+                }
+                Load lLoad = loading.get(pKey);
+                if (lLoad != null) {
+                    lLoad.invalidated = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (lEntry != null) {
+                onRemoval(pKey, lEntry.file, false);
+                return lEntry.file;
+            }
+            return null;
+        }
+
+        @Override
+        public void clear() {
+            List<Entry> lRemoved;
+            lock.lock();
+            try {
+                lRemoved = new ArrayList<>(entries.values());
+                entries.clear();
+                probation.clear();
+                protectedSegment.clear();
+                loading.values().forEach(load -> load.invalidated = true);
+            } finally {
+                lock.unlock();
+            }
+            lRemoved.forEach(entry -> onRemoval(entry.key, entry.file, false));
+        }
+
+        @Override
+        public WebFile getOrLoad(String pKey, FileLoader pLoader, Predicate<WebFile> pCacheable) throws Exception {
+            WebFile lFile = get(pKey);
+            if (lFile != null) {
+                return lFile;
+            }
+
+            Load lLoad = new Load();
+            Load lRunning = loading.putIfAbsent(pKey, lLoad);
+            if (lRunning != null) {
+                // another thread is already loading the file
+                return awaitLoad(lRunning);
+            }
+
+            try {
+                loads.increment();
+                lFile = pLoader.load();
+                if (pCacheable.test(lFile)) {
+                    putEntry(pKey, lFile, lLoad);
+                }
+                lLoad.complete(lFile);
+                return lFile;
+            } catch (Exception e) {
+                lLoad.completeExceptionally(e);
+                throw e;
+            } finally {
+                loading.remove(pKey, lLoad);
+            }
+        }
+
+        /**
+         */
+        protected WebFile awaitLoad(CompletableFuture<WebFile> pLoad) throws Exception {
+            try {
+                return pLoad.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * A running load - invalidated by a remove or clear of its key while loading.
+         */
+        protected static class Load extends CompletableFuture<WebFile> {
+            protected volatile boolean invalidated = false;
+        }
+
+        /**
+         * Called for every entry that is removed, replaced, evicted or cleared - outside the lock.
+         */
+        protected void onRemoval(String pKey, WebFile pFile, boolean pEvicted) {
+            // hook for subclasses
+        }
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        public long getEvictionCount() {
+            return evictions.sum();
+        }
+
+        public long getLoadCount() {
+            return loads.sum();
+        }
+
+        public int getSize() {
+            return entries.size();
+        }
+
+        public long getWeightedSize() {
+            lock.lock();
+            try {
+                return probation.weight + protectedSegment.weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            long lHits = getHitCount();
+            long lRequests = lHits + getMissCount();
+            return String.format("files [%s] bytes [%s/%s] hits [%s] misses [%s] hit rate [%.1f%%] loads [%s] evictions [%s]",
+                    getSize(), getWeightedSize(), maxBytes, lHits, getMissCount(),
+                    lRequests > 0 ? lHits * 100.0 / lRequests : 0.0, getLoadCount(), getEvictionCount());
+        }
+
+        protected boolean isExpired(Entry pEntry) {
+            return ttlMillis > 0 && System.currentTimeMillis() > pEntry.expiresAt;
+        }
+
+        /**
+         * Move the entry to the head of the protected segment - must be called under lock.
+         */
+        protected void onHit(Entry pEntry) {
+            // the entry may have been removed concurrently
+            if (pEntry.segment == null) {
+                return;
+            }
+            pEntry.segment.unlink(pEntry);
+            protectedSegment.addFirst(pEntry);
+            // demote the least recently used protected entries
+            while (protectedSegment.weight > maxProtectedBytes && protectedSegment.tail != pEntry) {
+                Entry lDemoted = protectedSegment.tail;
+                protectedSegment.unlink(lDemoted);
+                probation.addFirst(lDemoted);
+            }
+        }
+
+        /**
+         * Evict least recently used probation entries first - must be called under lock.
+         */
+        protected void evict(List<Entry> pRemoved) {
+            while (probation.weight + protectedSegment.weight > maxBytes) {
+                evictTail(pRemoved);
+            }
+        }
+
+        /**
+         * Evict least recently used entries of at least pBytes - e.g. if a subclass runs out of storage.
+         */
+        protected void evictBytes(long pBytes) {
+            List<Entry> lRemoved = new ArrayList<>();
+            lock.lock();
+            try {
+                long lFreed = 0;
+                while (lFreed < pBytes && (probation.tail != null || protectedSegment.tail != null)) {
+                    lFreed += evictTail(lRemoved);
+                }
+            } finally {
+                lock.unlock();
+            }
+            lRemoved.forEach(entry -> onRemoval(entry.key, entry.file, entry.evicted));
+        }
+
+        /**
+         * Evict the least recently used entry and return its weight - must be called under lock.
+         */
+        protected long evictTail(List<Entry> pRemoved) {
+            Entry lVictim = probation.tail != null ? probation.tail : protectedSegment.tail;
+            lVictim.segment.unlink(lVictim);
+            entries.remove(lVictim.key, lVictim);
+            evictions.increment();
+            lVictim.evicted = true;
+            pRemoved.add(lVictim);
+            return lVictim.weight;
+        }
+
+        /**
+         */
+        protected static class Entry {
+            protected final String key;
+            protected final WebFile file;
+            protected final long weight;
+            protected final long expiresAt;
+            protected boolean evicted = false;
+            protected Segment segment;
+            protected Entry prev;
+            protected Entry next;
+
+            protected Entry(String pKey, WebFile pFile, long pWeight, long pExpiresAt) {
+                key = pKey;
+                file = pFile;
+                weight = pWeight;
+                expiresAt = pExpiresAt;
+            }
+        }
+
+        /**
+         * A doubly linked LRU list - head = most recently used.
+         */
+        protected static class Segment {
+            protected Entry head;
+            protected Entry tail;
+            protected long weight = 0;
+
+            protected void addFirst(Entry pEntry) {
+                pEntry.segment = this;
+                pEntry.prev = null;
+                pEntry.next = head;
+                if (head != null) {
+                    head.prev = pEntry;
+                }
+                head = pEntry;
+                if (tail == null) {
+                    tail = pEntry;
+                }
+                weight += pEntry.weight;
+            }
+
+            protected void unlink(Entry pEntry) {
+                if (pEntry.prev != null) {
+                    pEntry.prev.next = pEntry.next;
+                } else {
+                    head = pEntry.next;
+                }
+                if (pEntry.next != null) {
+                    pEntry.next.prev = pEntry.prev;
+                } else {
+                    tail = pEntry.prev;
+                }
+                pEntry.prev = null;
+                pEntry.next = null;
+                pEntry.segment = null;
+                weight -= pEntry.weight;
+            }
+
+            protected void clear() {
+                for (Entry e = head; e != null; e = e.next) {
+                    e.segment = null;
+                }
+                head = null;
+                tail = null;
+                weight = 0;
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * A size bounded cache of known missing request paths with a short time to live.
+     * Entries are invalidated by the file watcher when the file or a parent folder is created.
+     * If the cache is full expired entries are dropped - and if that is not enough all entries,
+     * which keeps it bounded against floods of random paths.
+     * </pre>
+     */
+    public static class NegativeCache {
+        public static final int DefaultMaxSize = 10000;
+        public static final long DefaultTtlMillis = 30000;
+
+        protected final int maxSize;
+        protected final long ttlMillis;
+        // request path -> missing file and expiration
+        protected final Map<String, MissingFile> entries = new ConcurrentHashMap<>();
+        protected final LongAdder hits = new LongAdder();
+
+        /**
+         */
+        public NegativeCache(int pMaxSize, long pTtlMillis) {
+            maxSize = pMaxSize;
+            ttlMillis = pTtlMillis;
+        }
+
+        /**
+         */
+        public boolean contains(String pPath) {
+            MissingFile lEntry = entries.get(pPath);
+            if (lEntry == null) {
+                return false;
+            }
+            if (lEntry.expires < System.currentTimeMillis()) {
+                entries.remove(pPath, lEntry);
+                return false;
+            }
+            hits.increment();
+            return true;
+        }
+
+        /**
+         */
+        public void put(String pPath, Path pFile) {
+            if (entries.size() >= maxSize) {
+                long lNow = System.currentTimeMillis();
+                entries.values().removeIf(entry -> entry.expires < lNow);
+                if (entries.size() >= maxSize) {
+                    entries.clear();
+                }
+            }
+            entries.put(pPath, new MissingFile(pFile, System.currentTimeMillis() + ttlMillis));
+        }
+
+        /**
+         * Remove all entries for the file or folder.
+         */
+        public void invalidate(Path pPath) {
+            entries.values().removeIf(entry -> entry.file.startsWith(pPath));
+        }
+
+        /**
+         */
+        public void clear() {
+            entries.clear();
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            return String.format("size [%s] hits [%s]", entries.size(), hits.sum());
+        }
+
+        /**
+         */
+        protected static class MissingFile {
+            protected final Path file;
+            protected final long expires;
+
+            protected MissingFile(Path pFile, long pExpires) {
+                file = pFile;
+                expires = pExpires;
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * A DefaultFileCache that keeps the file content off-heap in pooled direct buffers
+     * to keep large amounts of cached content out of the garbage collected heap.
+     * 
+     * - direct buffer slabs are allocated on demand up to maxBytes
+     * - chunks are handed out by a buddy allocator in steps of MinChunkSize:
+     *   the unused tail of a power of two block is freed at once
+     *   and a freed chunk merges with its free buddies into larger blocks again
+     * - if no chunk is available least recently used entries are evicted
+     *   so that their space is free again after the grace period
+     * - content is written directly from the direct buffer to the socket channel
+     *   if the response stream offers one (see PooledBuffer.writeTo)
+     * - a removed or evicted chunk is recycled only when no reader is using it 
+     *   AND a grace period has passed - so a request that got a file just before
+     *   its eviction can still send it
+     * - files larger than a slab are not cached
+     * </pre>
+     */
+    public static class OffHeapFileCache extends DefaultFileCache {
+        protected static final int MinChunkSize = 4 * 1024;
+        public static final int DefaultSlabSize = 1024 * 1024;
+        public static final long DefaultGraceMillis = 10000;
+
+        protected final int slabSize;
+        protected final int maxOrder;
+        protected final long graceMillis;
+        protected final AtomicLong slabBytes = new AtomicLong();
+        // the allocator state - guarded by itself
+        // a block of order n has MinChunkSize << n bytes, its address is slab index * slabSize + offset
+        protected final List<ByteBuffer> slabs = new ArrayList<>();
+        protected final List<TreeSet<Long>> freeBlocks = new ArrayList<>();
+        protected final Queue<PooledBuffer> retired = new ConcurrentLinkedQueue<>();
+        protected final AtomicLong retiredBytes = new AtomicLong();
+        protected final LongAdder rejected = new LongAdder();
+
+        /**
+         */
+        public OffHeapFileCache(long pMaxBytes, long pTtlMillis) {
+            this(pMaxBytes, pTtlMillis, DefaultSlabSize, DefaultGraceMillis);
+        }
+
+        /**
+         * @param pSlabSize - the size of a direct buffer slab and the max size of a cacheable file
+         * @param pGraceMillis - the minimum time between removal and reuse of a chunk
+         */
+        public OffHeapFileCache(long pMaxBytes, long pTtlMillis, int pSlabSize, long pGraceMillis) {
+            super(pMaxBytes, pTtlMillis);
+            slabSize = Math.max(MinChunkSize, Integer.highestOneBit(pSlabSize));
+            maxOrder = Integer.numberOfTrailingZeros(slabSize / MinChunkSize);
+            graceMillis = pGraceMillis;
+            for (int i = 0; i <= maxOrder; i++) {
+                freeBlocks.add(new TreeSet<>());
+            }
+        }
+
+        @Override
+        protected boolean putEntry(String pKey, WebFile pFile, Load pLoad) {
+            WebFile lOffHeap = toOffHeap(pFile);
+            if (lOffHeap == null && pFile.getLength() <= slabSize) {
+                // no free chunk - make room by the least recently used entries
+                makeRoom(pFile.getCacheWeight());
+                lOffHeap = toOffHeap(pFile);
+            }
+            if (lOffHeap == null) {
+                rejected.increment();
+                remove(pKey);
+                return false;
+            }
+            boolean lAdded = super.putEntry(pKey, lOffHeap, pLoad);
+            if (lOffHeap != pFile && !lAdded) {
+                // not accepted by the budget or a stale load
+                onRemoval(pKey, lOffHeap, false);
+            }
+            return lAdded;
+        }
+
+        @Override
+        protected void onRemoval(String pKey, WebFile pFile, boolean pEvicted) {
+            retire(pFile);
+            for (WebFile variant : pFile.encodedVariants.values()) {
+                retire(variant);
+            }
+        }
+
+        /**
+         * Evict entries until the retired chunks cover pBytes - they are reused after the grace period.
+         */
+        protected void makeRoom(long pBytes) {
+            long lMissing = pBytes - retiredBytes.get();
+            if (lMissing > 0) {
+                evictBytes(lMissing);
+            }
+            reclaim();
+        }
+
+        /**
+         * Create an off-heap copy of a web file and its variants - returns null if no space is available.
+         */
+        protected WebFile toOffHeap(WebFile pFile) {
+            if (pFile.hasFileBody() || pFile.hasBufferBody()) {
+                return pFile;
+            }
+            WebFile lCopy = copyToBuffer(pFile);
+            if (lCopy == null) {
+                return null;
+            }
+            for (WebFile variant : pFile.encodedVariants.values()) {
+                WebFile lVariant = copyToBuffer(variant);
+                if (lVariant == null) {
+                    // keep the cache consistent - the original is served instead
+                    continue;
+                }
+                lCopy.addEncodedVariant(lVariant);
+            }
+            return lCopy;
+        }
+
+        /**
+         */
+        protected WebFile copyToBuffer(WebFile pFile) {
+            if (pFile.hasFileBody() || pFile.hasBufferBody()) {
+                return pFile;
+            }
+            byte[] lData = pFile.getData();
+            PooledBuffer lBuffer = allocate(lData.length);
+            if (lBuffer == null) {
+                return null;
+            }
+            lBuffer.chunk.put(0, lData);
+            WebFile lCopy = pFile.copyWithoutContent();
+            lCopy.setBufferBody(lBuffer);
+            return lCopy;
+        }
+
+        /**
+         * Get a chunk of pLength rounded up to MinChunkSize - returns null if no space is available.
+         */
+        protected PooledBuffer allocate(int pLength) {
+            if (pLength > slabSize) {
+                return null;
+            }
+            int lSize = Math.max(MinChunkSize, (pLength + MinChunkSize - 1) / MinChunkSize * MinChunkSize);
+            int lOrder = 0;
+            while ((MinChunkSize << lOrder) < lSize) {
+                lOrder++;
+            }
+
+            long lAddress = takeBlock(lOrder);
+            if (lAddress < 0) {
+                reclaim();
+                lAddress = takeBlock(lOrder);
+            }
+            if (lAddress < 0 && newSlab()) {
+                lAddress = takeBlock(lOrder);
+            }
+            if (lAddress < 0) {
+                return null;
+            }
+
+            ByteBuffer lSlab;
+            synchronized (freeBlocks) {
+                // give back the unused tail of the block
+                freeRange(lAddress + lSize, (MinChunkSize << lOrder) - lSize);
+                lSlab = slabs.get((int) (lAddress / slabSize));
+            }
+            PooledBuffer lBuffer = new PooledBuffer(lSlab.slice((int) (lAddress % slabSize), lSize), pLength);
+            lBuffer.address = lAddress;
+            return lBuffer;
+        }
+
+        /**
+         * Take a free block of an order - a larger block is split. Returns -1 if there is none.
+         */
+        protected long takeBlock(int pOrder) {
+            synchronized (freeBlocks) {
+                for (int order = pOrder; order <= maxOrder; order++) {
+                    Long lAddress = freeBlocks.get(order).pollFirst();
+                    if (lAddress != null) {
+                        // the upper halves become free buddies
+                        while (order > pOrder) {
+                            order--;
+                            freeBlocks.get(order).add(lAddress + (MinChunkSize << order));
+                        }
+                        return lAddress;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Free a MinChunkSize aligned range as the largest aligned blocks - must be called under the allocator lock.
+         */
+        protected void freeRange(long pAddress, long pLength) {
+            long lEnd = pAddress + pLength;
+            while (pAddress < lEnd) {
+                int lOrder = maxOrder;
+                while (pAddress % (MinChunkSize << lOrder) != 0 || pAddress + (MinChunkSize << lOrder) > lEnd) {
+                    lOrder--;
+                }
+                freeBlock(pAddress, lOrder);
+                pAddress += MinChunkSize << lOrder;
+            }
+        }
+
+        /**
+         * Free a block and merge it with its free buddies - must be called under the allocator lock.
+         */
+        protected void freeBlock(long pAddress, int pOrder) {
+            while (pOrder < maxOrder) {
+                long lBuddy = pAddress ^ (MinChunkSize << pOrder);
+                if (!freeBlocks.get(pOrder).remove(lBuddy)) {
+                    break;
+                }
+                pAddress = Math.min(pAddress, lBuddy);
+                pOrder++;
+            }
+            freeBlocks.get(pOrder).add(pAddress);
+        }
+
+        /**
+         * Allocate a new direct slab as one free block - if the budget allows.
+         */
+        protected boolean newSlab() {
+            synchronized (freeBlocks) {
+                if (slabBytes.get() + slabSize > maxBytes) {
+                    return false;
+                }
+                slabs.add(ByteBuffer.allocateDirect(slabSize));
+                slabBytes.addAndGet(slabSize);
+                freeBlocks.get(maxOrder).add((long) (slabs.size() - 1) * slabSize);
+                return true;
+            }
+        }
+
+        /**
+         */
+        protected void retire(WebFile pFile) {
+            if (pFile.bodyBuffer != null && pFile.bodyBuffer.pooled) {
+                pFile.bodyBuffer.retiredAt = System.currentTimeMillis();
+                retiredBytes.addAndGet(pFile.bodyBuffer.capacity());
+                retired.add(pFile.bodyBuffer);
+            }
+        }
+
+        /**
+         * Recycle retired chunks that are no longer read and passed the grace period.
+         */
+        protected void reclaim() {
+            long lNow = System.currentTimeMillis();
+            Iterator<PooledBuffer> lIt = retired.iterator();
+            while (lIt.hasNext()) {
+                PooledBuffer lBuffer = lIt.next();
+                if (lNow - lBuffer.retiredAt >= graceMillis && lBuffer.recycle()) {
+                    lIt.remove();
+                    retiredBytes.addAndGet(-lBuffer.capacity());
+                    synchronized (freeBlocks) {
+                        freeRange(lBuffer.address, lBuffer.capacity());
+                    }
+                }
+            }
+        }
+
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+
+        public long getSlabBytes() {
+            return slabBytes.get();
+        }
+
+        @Override
+        public String getStatistics() {
+            return String.format("%s off-heap slabs [%s] retired [%s] rejected [%s]", super.getStatistics(),
+                    getSlabBytes(), retired.size(), getRejectedCount());
+        }
+    }
+
+    /**
+     * <pre>
+     * A reference counted chunk of a direct buffer holding an off-heap web file body.
+     * state >= 0 = number of active readers, -1 = recycled
+     * </pre>
+     */
+    public static class PooledBuffer {
+        protected final ByteBuffer chunk;
+        protected final int length;
+        protected final AtomicInteger state = new AtomicInteger();
+        protected volatile long retiredAt = 0;
+        // the allocator address of a pooled chunk
+        protected long address = -1;
+        // false for a buffer that is not owned by a pool e.g. a mapped archive slice
+        protected final boolean pooled;
+
+        protected PooledBuffer(ByteBuffer pChunk, int pLength) {
+            this(pChunk, pLength, true);
+        }
+
+        protected PooledBuffer(ByteBuffer pChunk, int pLength, boolean pPooled) {
+            chunk = pChunk;
+            length = pLength;
+            pooled = pPooled;
+        }
+
+        /**
+         * Wrap a not pooled buffer - from its position to its limit.
+         */
+        public static PooledBuffer wrap(ByteBuffer pBuffer) {
+            return new PooledBuffer(pBuffer.slice(), pBuffer.remaining(), false);
+        }
+
+        public int capacity() {
+            return chunk.capacity();
+        }
+
+        protected boolean acquire() {
+            int lState;
+            do {
+                lState = state.get();
+                if (lState < 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(lState, lState + 1));
+            return true;
+        }
+
+        protected void release() {
+            state.decrementAndGet();
+        }
+
+        protected boolean recycle() {
+            return state.compareAndSet(0, -1);
+        }
+
+        /**
+         * <pre>
+         * Write a part of the buffer to the response stream.
+         * 
+         * If the stream is a socket stream with a channel the slice is written
+         * directly from the direct buffer to the socket without a copy on the heap.
+         * Other streams - e.g. chunked or SSL responses - get the slice copied
+         * chunk wise through a small heap buffer.
+         * </pre>
+         */
+        public void writeTo(OutputStream pOut, long pOffset, long pLength) throws IOException {
+            if (!acquire()) {
+                throw new IOException("Off-heap web file body is already recycled");
+            }
+            try {
+                ByteBuffer lSlice = chunk.slice((int) pOffset, (int) pLength);
+                WritableByteChannel lTarget = pOut instanceof SocketOutputStream socketOut && socketOut.hasChannel()
+                        ? socketOut.getChannel()
+                        : Channels.newChannel(pOut);
+                while (lSlice.hasRemaining()) {
+                    lTarget.write(lSlice);
+                }
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         */
+        public byte[] toByteArray() {
+            byte[] lData = new byte[length];
+            if (!acquire()) {
+                throw new IllegalStateException("Off-heap web file body is already recycled");
+            }
+            try {
+                chunk.get(0, lData);
+            } finally {
+                release();
+            }
+            return lData;
+        }
+    }
+
+    /**
+     * <pre>
+     * A set of customizable public File helper methods
+     * which can be overwritten individually
+     * 
+     * Content types are resolved by the ContentTypeRegistry - see setContentTypes.
+     * So overriding isStyleSheet/isJavaScript no longer changes the content type
+     * and an unknown extension is served as application/octet-stream.
+     * </pre>
+     */
+    public static class FileHelper {
+
+        /**
+         */
+        public String doPathMapping(String pPath) {
+            if (pPath.equals("/") || pPath.equals("/index") || pPath.equals("/index.html")
+                    || pPath.equals("/index.htm")) {
+                return "/index.html";
+            }
+            return pPath;
+        }
+
+        /**
+         * @deprecated no longer called - content types are resolved by the ContentTypeRegistry.
+         */
+        @Deprecated
+        public String getImageTypeFrom(String pPath) {
+            String lType = "";
+            if (pPath.endsWith("/favicon.ico")) {
+                lType = FieldValue.IMAGE_X_ICON;
+            }else if(pPath.endsWith(".svg")){
+                lType = FieldValue.IMAGE_SVG_XML;
+            }else{
+                lType = FieldValue.IMAGE + pPath.substring(pPath.lastIndexOf(".") + 1, pPath.length());
+            }
+            return lType;
+        }
+
+        /**
+         */
+        public String decodeRequestPath(String pPath) {
+            return pPath;
+        }
+
+        /**
+         */
+        public boolean isStyleSheet(String pPath) {
+            return pPath.endsWith(".css");
+        }
+
+        /**
+         */
+        public boolean isJavaScript(String pPath) {
+            return pPath.endsWith(".js") || pPath.endsWith(".mjs");
+        }
+
+        /**
+         * @deprecated no longer called - content types are resolved by the ContentTypeRegistry.
+         */
+        @Deprecated
+        public boolean isImage(String pPath) {
+            return pPath.endsWith(".png") || pPath.endsWith(".jpg")
+                    || pPath.endsWith(".gif")
+                    || pPath.endsWith(".ico")
+                    || pPath.endsWith(".svg");
+        }
+
+    }
+
+    /**
+     * <pre>
+     * The content type of a file extension.
+     * - text: the file is a text that may be a template
+     * - compressible: worth to be served precompressed
+     * - cacheable: may be held in the file cache
+     * </pre>
+     */
+    public static class ContentType {
+        protected final String mimeType;
+        protected final boolean text;
+        protected final boolean compressible;
+        protected final boolean cacheable;
+
+        public ContentType(String pMimeType, boolean pText, boolean pCompressible, boolean pCacheable) {
+            mimeType = pMimeType;
+            text = pText;
+            compressible = pCompressible;
+            cacheable = pCacheable;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public boolean isText() {
+            return text;
+        }
+
+        public boolean isCompressible() {
+            return compressible;
+        }
+
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s text=%s compressible=%s cacheable=%s", mimeType, text, compressible, cacheable);
+        }
+    }
+
+    /**
+     * <pre>
+     * A registry of content types by file extension.
+     * Unknown extensions are served as application/octet-stream.
+     * 
+     * Overrides can be loaded from properties like:
+     * wasm=application/wasm;compressible
+     * md=text/markdown;text;compressible
+     * iso=application/octet-stream;nocache
+     * </pre>
+     */
+    public static class ContentTypeRegistry {
+        protected static final ContentType Unknown = new ContentType(FieldValue.APPLICATION_OCTET_STREAM, false, false,
+                true);
+        protected static final String TEXT = "text";
+        protected static final String COMPRESSIBLE = "compressible";
+        protected static final String NOCACHE = "nocache";
+
+        protected final Map<String, ContentType> types = new ConcurrentHashMap<>();
+
+        public ContentTypeRegistry() {
+            // text - compressible
+            text("html", FieldValue.TEXT_HTML);
+            text("htm", FieldValue.TEXT_HTML);
+            text("css", FieldValue.TEXT_CSS);
+            text("js", FieldValue.TEXT_JS);
+            text("mjs", FieldValue.TEXT_JS);
+            text("json", FieldValue.APPLICATION_JSON);
+            text("map", FieldValue.APPLICATION_JSON);
+            text("webmanifest", "application/manifest+json");
+            text("txt", "text/plain");
+            text("md", "text/markdown");
+            text("csv", "text/csv");
+            text("xml", "application/xml");
+            text("svg", FieldValue.IMAGE_SVG_XML);
+            // binary - compressible
+            binary("wasm", "application/wasm", true);
+            binary("ico", FieldValue.IMAGE_X_ICON, true);
+            binary("bmp", "image/bmp", true);
+            binary("ttf", "font/ttf", true);
+            binary("otf", "font/otf", true);
+            binary("eot", "application/vnd.ms-fontobject", true);
+            // binary - already compressed
+            binary("png", FieldValue.IMAGE_PNG, false);
+            binary("jpg", "image/jpeg", false);
+            binary("jpeg", "image/jpeg", false);
+            binary("gif", "image/gif", false);
+            binary("webp", "image/webp", false);
+            binary("avif", "image/avif", false);
+            binary("woff", "font/woff", false);
+            binary("woff2", "font/woff2", false);
+            binary("pdf", "application/pdf", false);
+            binary("zip", "application/zip", false);
+            binary("gz", "application/gzip", false);
+            binary("tar", "application/x-tar", false);
+            binary("7z", "application/x-7z-compressed", false);
+            binary("jar", "application/java-archive", false);
+            binary("mp4", "video/mp4", false);
+            binary("webm", "video/webm", false);
+            binary("ogv", "video/ogg", false);
+            binary("mp3", "audio/mpeg", false);
+            binary("ogg", "audio/ogg", false);
+            binary("wav", "audio/wav", false);
+            binary("m4a", "audio/mp4", false);
+        }
+
+        protected void text(String pExtension, String pMimeType) {
+            register(pExtension, new ContentType(pMimeType, true, true, true));
+        }
+
+        protected void binary(String pExtension, String pMimeType, boolean pCompressible) {
+            register(pExtension, new ContentType(pMimeType, false, pCompressible, true));
+        }
+
+        /**
+         */
+        public ContentTypeRegistry register(String pExtension, ContentType pType) {
+            types.put(pExtension.toLowerCase(), pType);
+            return this;
+        }
+
+        /**
+         * Get the content type for a file name or path by its extension.
+         */
+        public ContentType getFor(String pPath) {
+            int lDot = pPath.lastIndexOf('.');
+            if (lDot < 0 || lDot < pPath.lastIndexOf('/')) {
+                return Unknown;
+            }
+            ContentType lType = types.get(pPath.substring(lDot + 1).toLowerCase());
+            return lType != null ? lType : Unknown;
+        }
+
+        /**
+         */
+        public boolean contains(String pExtension) {
+            return types.containsKey(pExtension.toLowerCase());
+        }
+
+        /**
+         * Load overrides like: extension=mime/type[;text][;compressible][;nocache]
+         */
+        public ContentTypeRegistry load(Properties pDefinitions) {
+            for (String extension : pDefinitions.stringPropertyNames()) {
+                String[] lParts = pDefinitions.getProperty(extension).split(";");
+                List<String> lFlags = Arrays.stream(lParts).skip(1).map(String::trim).toList();
+                register(extension.trim(), new ContentType(lParts[0].trim(), lFlags.contains(TEXT),
+                        lFlags.contains(COMPRESSIBLE), !lFlags.contains(NOCACHE)));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * <pre>
+     * A WebFile holds its content either as in memory data
+     * or as a file body that is transfered directly from the file when written.
+     * </pre>
+     */
+    public static class WebFile {
+        // the size of memory mapped slices for large file bodies
+        protected static long MappedSliceSize = 4L * 1024 * 1024;
+
+        protected String requestPath = "";
+        protected String filePath = "";
         protected String contentType = "";
         protected byte[] data = new byte[0];
         protected boolean isTextFormat = true;
+        protected long lastModified = 0;
+        // the content was changed by an enricher e.g. a resolved template
+        protected boolean enriched = false;
+
+        // a file body is NOT loaded into data
+        protected Path bodyFile = null;
+        protected long bodyLength = 0;
+
+        // an off-heap body held in a pooled direct buffer
+        protected PooledBuffer bodyBuffer = null;
+
+        // other files the content is built from e.g. by a file enricher
+        protected Set<Path> dependencies = new LinkedHashSet<>();
+
+        protected String etag = "";
+
+        // precompressed variants of the content by encoding
+        protected String contentEncoding = "";
+        protected Map<String, WebFile> encodedVariants = new LinkedHashMap<>();
+
+        public WebFile(String pPath) {
+            requestPath = pPath;
+        }
+
+        public String getId() {
+            return requestPath;
+        }
+
+        public boolean isEmpty() {
+            return getLength() == 0;
+        }
+
+        /**
+         */
+        public long getLength() {
+            if (bodyFile != null) {
+                return bodyLength;
+            }
+            return bodyBuffer != null ? bodyBuffer.length : data.length;
+        }
+
+        /**
+         */
+        public boolean hasBufferBody() {
+            return bodyBuffer != null;
+        }
+
+        /**
+         * Set an off-heap body - the in memory data is released.
+         */
+        public void setBufferBody(PooledBuffer pBuffer) {
+            bodyBuffer = pBuffer;
+            data = new byte[0];
+        }
+
+        /**
+         * <pre>
+         * Create a copy of the meta data without content.
+         * Encoded variants are not copied.
+         * </pre>
+         */
+        public WebFile copyWithoutContent() {
+            WebFile lCopy = new WebFile(requestPath);
+            lCopy.filePath = filePath;
+            lCopy.contentType = contentType;
+            lCopy.isTextFormat = isTextFormat;
+            lCopy.lastModified = lastModified;
+            lCopy.enriched = enriched;
+            lCopy.dependencies = dependencies;
+            lCopy.etag = etag;
+            lCopy.contentEncoding = contentEncoding;
+            return lCopy;
+        }
+
+        /**
+         */
+        public boolean hasFileBody() {
+            return bodyFile != null;
+        }
+
+        /**
+         */
+        public void setFileBody(Path pFile, long pLength) {
+            bodyFile = pFile;
+            bodyLength = pLength;
+        }
+
+        /**
+         * <pre>
+         * Write pLength bytes of the content starting at pOffset.
+         * A file body is transfered by the file channel, large parts as memory mapped slices.
+         * 
+         * Note: a file body is copied through a heap buffer to the response OutputStream
+         * - there is no sendfile/zero copy. The benefit is that the whole file is never held on the heap.
+         * An off-heap body is written directly to the socket channel if available - see PooledBuffer.
+         * </pre>
+         */
+        public void writeTo(OutputStream pOut, long pOffset, long pLength) throws IOException {
+            if (bodyFile != null) {
+                try (FileChannel lChannel = FileChannel.open(bodyFile, StandardOpenOption.READ)) {
+                    if (pLength >= MappedSliceSize) {
+                        transferMapped(lChannel, pOut, pOffset, pLength);
+                    } else {
+                        transfer(lChannel, pOut, pOffset, pLength);
+                    }
+                }
+            } else if (bodyBuffer != null) {
+                bodyBuffer.writeTo(pOut, pOffset, pLength);
+            } else {
+                pOut.write(data, (int) pOffset, (int) pLength);
+            }
+        }
+
+        /**
+         * <pre>
+         * Transfer by FileChannel.transferTo to a channel wrapping the OutputStream.
+         * Because the target is not a socket channel the JDK copies the data
+         * in chunks through a small heap buffer - it does NOT use sendfile.
+         * </pre>
+         */
+        protected static void transfer(FileChannel pChannel, OutputStream pOut, long pOffset, long pLength)
+                throws IOException {
+            WritableByteChannel lTarget = Channels.newChannel(pOut);
+            long lPos = pOffset;
+            long lEnd = pOffset + pLength;
+            while (lPos < lEnd) {
+                long lCount = pChannel.transferTo(lPos, lEnd - lPos, lTarget);
+                if (lCount <= 0) {
+                    throw new IOException(String.format("File body transfer stopped at [%s] of [%s]", lPos, lEnd));
+                }
+                lPos += lCount;
+            }
+        }
+
+        /**
+         * <pre>
+         * Transfer memory mapped slices of the file to a channel wrapping the OutputStream.
+         * The slices are copied chunk wise through a heap buffer of the stream channel
+         * but the whole file is never read into the heap.
+         * </pre>
+         */
+        protected static void transferMapped(FileChannel pChannel, OutputStream pOut, long pOffset, long pLength)
+                throws IOException {
+            WritableByteChannel lTarget = Channels.newChannel(pOut);
+            long lPos = pOffset;
+            long lEnd = pOffset + pLength;
+            while (lPos < lEnd) {
+                long lSize = Math.min(MappedSliceSize, lEnd - lPos);
+                MappedByteBuffer lSlice = pChannel.map(FileChannel.MapMode.READ_ONLY, lPos, lSize);
+                while (lSlice.hasRemaining()) {
+                    lTarget.write(lSlice);
+                }
+                lPos += lSize;
+            }
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * The bytes held in memory - including encoded variants.
+         */
+        public long getCacheWeight() {
+            long lWeight = 0;
+            if (bodyBuffer != null) {
+                lWeight = bodyBuffer.capacity();
+            } else if (!hasFileBody()) {
+                lWeight = data.length;
+            }
+            for (WebFile variant : encodedVariants.values()) {
+                lWeight += variant.getCacheWeight();
+            }
+            return lWeight;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public boolean hasEncodedVariants() {
+            return !encodedVariants.isEmpty();
+        }
+
+        public WebFile getEncodedVariant(String pEncoding) {
+            return encodedVariants.get(pEncoding);
+        }
+
+        public void addEncodedVariant(WebFile pVariant) {
+            encodedVariants.put(pVariant.getContentEncoding(), pVariant);
+        }
+
+        public void setETag(String pETag) {
+            etag = pETag;
+        }
+
+        /**
+         * <pre>
+         * The last modification of the file is only a valid validator
+         * if the content is neither enriched nor built from other files.
+         * </pre>
+         */
+        public boolean hasValidLastModified() {
+            return lastModified > 0 && !enriched && dependencies.isEmpty();
+        }
+
+        public boolean isEnriched() {
+            return enriched;
+        }
+
+        public void setEnriched(boolean pEnriched) {
+            enriched = pEnriched;
+        }
+
+        /**
+         * Record a file that was used to build the content e.g. an injected template component.
+         */
+        public void addDependency(Path pFile) {
+            dependencies.add(pFile);
+        }
+
+        public Set<Path> getDependencies() {
+            return dependencies;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public String toString() {
+            return requestPath;
+        }
+
+        public String getRequestPath() {
+            return requestPath;
+        }
+
+        public void setRequestPath(String requestPath) {
+            this.requestPath = requestPath;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public void setFilePath(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * An off-heap body is copied back on-heap - which should be avoided.
+         */
+        public byte[] getData() {
+            if (bodyBuffer != null) {
+                return bodyBuffer.toByteArray();
+            }
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+
+        public boolean isTextFormat() {
+            return isTextFormat;
+        }
+
+        public void setTextFormat(boolean isTextFormat) {
+            this.isTextFormat = isTextFormat;
+        }
+    }
+
+    /**
+     * The metadata of a webroot file built by the warm-up.
+     */
+    public static class IndexEntry {
+        protected final String path;
+        protected final long size;
+        protected final long lastModified;
+        protected final String contentType;
+        protected final String hash;
+
+        protected IndexEntry(String pPath, long pSize, long pLastModified, String pContentType, String pHash) {
+            path = pPath;
+            size = pSize;
+            lastModified = pLastModified;
+            contentType = pContentType;
+            hash = pHash;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * The progress and result of a warm-up run.
+     */
+    public static class WarmUpState {
+        protected static final int ProgressStep = 500;
+
+        protected final long maxPreloadSize;
+        protected final long startTime = System.currentTimeMillis();
+        protected final AtomicLong files = new AtomicLong();
+        protected final LongAdder preloaded = new LongAdder();
+        protected final LongAdder bytes = new LongAdder();
+        protected final LongAdder errors = new LongAdder();
+        protected final CompletableFuture<WarmUpState> result = new CompletableFuture<>();
+        protected volatile long duration = -1;
+
+        protected WarmUpState(long pMaxPreloadSize) {
+            maxPreloadSize = pMaxPreloadSize;
+        }
+
+        protected void finish(Throwable pError) {
+            duration = System.currentTimeMillis() - startTime;
+            if (pError != null) {
+                result.completeExceptionally(pError);
+            } else {
+                result.complete(this);
+            }
+        }
+
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        public long getFileCount() {
+            return files.get();
+        }
+
+        public long getPreloadedCount() {
+            return preloaded.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("WebContentProvider warm-up [%s]: files [%s] preloaded [%s] bytes [%s] errors [%s] %s [%s ms]",
+                    isDone() ? "done" : "running", files.get(), preloaded.sum(), bytes.sum(), errors.sum(),
+                    isDone() ? "duration" : "elapsed",
+                    isDone() ? duration : System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * <pre>
+     * A task that walks a folder and creates gzip sidecar files ("file.js.gz")
+     * for all compressible files in parallel.
+     * 
+     * - templates are skipped because their content is created at request time
+     * - up to date sidecars are not created again
+     * - a sidecar is only kept if it saves a relevant amount of bytes
+     * There is no JDK brotli encoder - so ".br" sidecars are served but not created.
+     * </pre>
+     */
+    public static class Precompressor {
+        protected static int MinSize = 1024;
+
+        protected final ContentTypeRegistry contentTypes;
+
+        protected final LongAdder files = new LongAdder();
+        protected final LongAdder compressed = new LongAdder();
+        protected final LongAdder bytesIn = new LongAdder();
+        protected final LongAdder bytesOut = new LongAdder();
+        protected final List<String> errors = new CopyOnWriteArrayList<>();
+        protected long duration = 0;
+
+        public Precompressor() {
+            this(new ContentTypeRegistry());
+        }
+
+        public Precompressor(ContentTypeRegistry pContentTypes) {
+            contentTypes = pContentTypes;
+        }
+
+        /**
+         */
+        public Precompressor run(Path pRoot) throws IOException {
+            long lStart = System.currentTimeMillis();
+            List<Path> lFiles;
+            try (Stream<Path> lWalk = Files.walk(pRoot)) {
+                lFiles = lWalk.filter(Files::isRegularFile).filter(this::isCompressible).toList();
+            }
+            lFiles.parallelStream().forEach(this::compress);
+            duration = System.currentTimeMillis() - lStart;
+            LOG.info(this::toString);
+            return this;
+        }
+
+        /**
+         */
+        protected boolean isCompressible(Path pFile) {
+            return contentTypes.getFor(pFile.getFileName().toString()).isCompressible();
+        }
+
+        /**
+         */
+        protected void compress(Path pFile) {
+            Path lSidecar = pFile.resolveSibling(pFile.getFileName() + ".gz");
+            try {
+                files.increment();
+                if (Files.size(pFile) < MinSize || (Files.exists(lSidecar)
+                        && Files.getLastModifiedTime(lSidecar).compareTo(Files.getLastModifiedTime(pFile)) >= 0)) {
+                    return;
+                }
+                byte[] lData = Files.readAllBytes(pFile);
+                if (DefaultFileEnricher.isTemplate(lData)) {
+                    return;
+                }
+
+                ByteArrayOutputStream lBuffer = new ByteArrayOutputStream(lData.length / 3);
+                try (GZIPOutputStream lOut = new GZIPOutputStream(lBuffer) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }) {
+                    lOut.write(lData);
+                }
+
+                // keep it only if it saves at least 10 percent
+                if (lBuffer.size() < lData.length * 0.9) {
+                    Path lTemp = lSidecar.resolveSibling(lSidecar.getFileName() + ".tmp");
+                    Files.write(lTemp, lBuffer.toByteArray());
+                    Files.move(lTemp, lSidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    compressed.increment();
+                    bytesIn.add(lData.length);
+                    bytesOut.add(lBuffer.size());
+                }
+            } catch (IOException e) {
+                errors.add(String.format("%s [%s]", pFile, e));
+            }
+        }
+
+        public long getCompressedCount() {
+            return compressed.sum();
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "WebContentProvider precompress: files [%s] compressed [%s] bytes [%s -> %s] errors [%s] duration [%s ms]",
+                    files.sum(), compressed.sum(), bytesIn.sum(), bytesOut.sum(), errors.size(), duration);
+        }
+    }
+
+    /**
+     * A Cache-Control header value for a request path pattern.
+     */
+    protected static class CacheControlPolicy {
+        protected final Pattern pattern;
+        protected final String value;
+
+        protected CacheControlPolicy(String pPathPattern, String pValue) {
+            pattern = Pattern.compile(globToRegex(pPathPattern));
+            value = pValue;
+        }
+
+        protected boolean matches(String pPath) {
+            return pattern.matcher(pPath).matches();
+        }
+
+        protected static String globToRegex(String pGlob) {
+            StringBuilder lRegex = new StringBuilder();
+            for (int i = 0; i < pGlob.length(); i++) {
+                char c = pGlob.charAt(i);
+                if (c == '*' && i + 1 < pGlob.length() && pGlob.charAt(i + 1) == '*') {
+                    lRegex.append(".*");
+                    i++;
+                } else if (c == '*') {
+                    lRegex.append("[^/]*");
+                } else if (c == '?') {
+                    lRegex.append("[^/]");
+                } else {
+                    lRegex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return lRegex.toString();
+        }
+    }
+
+    /**
+     * <pre>
+     * The graph of static ES module imports starting from the module scripts of html pages.
+     * 
+     * - html pages are scanned for module scripts - src attributes and inline imports -
+     *   and an importmap to resolve bare specifiers
+     * - modules are scanned for static "import ... from" and "export ... from" declarations,
+     *   dynamic import() calls are NOT followed
+     * - only same origin paths are followed
+     * - the scanned modules and the resulting Link header value per page are cached
+     *   until a module changes - in development mode modules are validated by their modification time
+     * </pre>
+     */
+    public static class ModuleGraph {
+        protected static final Pattern ScriptPattern = Pattern.compile("<script\\b([^>]*)>([\\s\\S]*?)</script>",
+                Pattern.CASE_INSENSITIVE);
+        protected static final Pattern TypePattern = Pattern.compile("\\btype\\s*=\\s*[\"']?([\\w-]+)",
+                Pattern.CASE_INSENSITIVE);
+        protected static final Pattern SrcPattern = Pattern.compile("\\bsrc\\s*=\\s*[\"']([^\"']+)[\"']",
+                Pattern.CASE_INSENSITIVE);
+        protected static final Pattern ImportPattern = Pattern.compile(
+                "(?:^|[;\\s}])(?:import|export)\\s*(?:[\\w*{}\\s,$]*?\\s*from\\s*)?[\"']([^\"'\\s]+)[\"']");
+        protected static final Pattern MapEntryPattern = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]+)\"");
+        public static final int MaxLinks = 64;
+
+        protected final ModuleLoader loader;
+        // module path -> scanned module
+        protected final Map<String, ModuleNode> modules = new ConcurrentHashMap<>();
+        // page path -> page etag and link header value
+        protected final Map<String, String[]> pageLinks = new ConcurrentHashMap<>();
+        // page path -> scanned page version - a page is only scanned again if its etag changed
+        protected final Map<String, PageScan> pageScans = new ConcurrentHashMap<>();
+
+        /**
+         */
+        public ModuleGraph(ModuleLoader pLoader) {
+            loader = pLoader;
+        }
+
+        /**
+         * <pre>
+         * Get the Link header value with all transitive module dependencies of a html page.
+         * pValidate - check all scanned modules for modifications
+         * 
+         * The page content is only read and scanned for a new page version (etag)
+         * - so a cached off-heap page is not copied to the heap per request.
+         * </pre>
+         */
+        public String getPreloadLinks(WebFile pPage, boolean pValidate) {
+            String[] lCached = pageLinks.get(pPage.getRequestPath());
+            if (!pValidate && lCached != null && lCached[0].equals(pPage.getETag())) {
+                return lCached[1];
+            }
+
+            PageScan lScan = getPageScan(pPage);
+            Map<String, String> lImportMap = lScan.importMap;
+            Set<String> lVisited = new LinkedHashSet<>();
+            List<String> lPending = new ArrayList<>(lScan.roots);
+            while (!lPending.isEmpty() && lVisited.size() < MaxLinks) {
+                String lPath = lPending.remove(0);
+                ModuleNode lNode = lVisited.contains(lPath) ? null : getModule(lPath, pValidate);
+                if (lNode != null) {
+                    lVisited.add(lPath);
+                    for (String spec : lNode.specifiers) {
+                        String lDependency = resolve(spec, lPath, lImportMap);
+                        if (lDependency != null && !lVisited.contains(lDependency)) {
+                            lPending.add(lDependency);
+                        }
+                    }
+                }
+            }
+
+            String lLinks = lVisited.stream().map(path -> "<" + path + ">; rel=modulepreload")
+                    .collect(Collectors.joining(", "));
+            pageLinks.put(pPage.getRequestPath(), new String[] { pPage.getETag(), lLinks });
+            return lLinks;
+        }
+
+        /**
+         * Remove all modules from or below the given file path.
+         */
+        public void invalidate(Path pPath) {
+            if (modules.values().removeIf(node -> node.filePath.startsWith(pPath))) {
+                pageLinks.clear();
+            }
+        }
+
+        /**
+         */
+        public void invalidateAll() {
+            modules.clear();
+            pageLinks.clear();
+            pageScans.clear();
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            return String.format("modules [%s] pages [%s]", modules.size(), pageLinks.size());
+        }
+
+        /**
+         * Get the scan of the current page version - scan the page if unknown or changed.
+         */
+        protected PageScan getPageScan(WebFile pPage) {
+            PageScan lScan = pageScans.get(pPage.getRequestPath());
+            if (lScan == null || pPage.getETag().isEmpty() || !lScan.etag.equals(pPage.getETag())) {
+                lScan = new PageScan(pPage.getETag());
+                scanPage(new String(pPage.getData(), StandardCharsets.UTF_8), pPage.getRequestPath(),
+                        lScan.importMap, lScan.roots);
+                pageScans.put(pPage.getRequestPath(), lScan);
+            }
+            return lScan;
+        }
+
+        /**
+         * Collect the importmap entries and the root modules of a page.
+         */
+        protected void scanPage(String pHtml, String pPagePath, Map<String, String> pImportMap, List<String> pRoots) {
+            List<String> lSpecifiers = new ArrayList<>();
+            Matcher lScript = ScriptPattern.matcher(pHtml);
+            while (lScript.find()) {
+                Matcher lType = TypePattern.matcher(lScript.group(1));
+                String lTypeName = lType.find() ? lType.group(1).toLowerCase(Locale.ROOT) : "";
+                if (lTypeName.equals("importmap")) {
+                    Matcher lEntry = MapEntryPattern.matcher(lScript.group(2));
+                    while (lEntry.find()) {
+                        pImportMap.put(lEntry.group(1), lEntry.group(2));
+                    }
+                } else if (lTypeName.equals("module")) {
+                    Matcher lSrc = SrcPattern.matcher(lScript.group(1));
+                    if (lSrc.find()) {
+                        lSpecifiers.add(lSrc.group(1));
+                    } else {
+                        lSpecifiers.addAll(scanImports(lScript.group(2)));
+                    }
+                }
+            }
+            for (String spec : lSpecifiers) {
+                String lPath = resolve(spec, pPagePath, pImportMap);
+                if (lPath != null) {
+                    pRoots.add(lPath);
+                }
+            }
+        }
+
+        /**
+         */
+        protected ModuleNode getModule(String pPath, boolean pValidate) {
+            ModuleNode lNode = modules.get(pPath);
+            if (lNode == null || (pValidate && lNode.isModified())) {
+                try {
+                    WebFile lFile = loader.load(pPath);
+                    lNode = new ModuleNode(normalize(Paths.get(lFile.filePath)), lFile.getLastModified(),
+                            scanImports(new String(lFile.getData(), StandardCharsets.UTF_8)));
+                    modules.put(pPath, lNode);
+                } catch (Exception e) {
+                    // a missing module is not preloaded
+                    LOG.fine(() -> String.format("WebContentProvider module NOT scanned [%s] [%s]", pPath, e));
+                    modules.remove(pPath);
+                    return null;
+                }
+            }
+            return lNode;
+        }
+
+        /**
+         */
+        protected static List<String> scanImports(String pSource) {
+            List<String> lSpecifiers = new ArrayList<>();
+            Matcher lImport = ImportPattern.matcher(pSource);
+            while (lImport.find()) {
+                lSpecifiers.add(lImport.group(1));
+            }
+            return lSpecifiers;
+        }
+
+        /**
+         * Resolve an import specifier to a same origin absolute path - or null.
+         */
+        protected static String resolve(String pSpecifier, String pBasePath, Map<String, String> pImportMap) {
+            String lSpec = pImportMap.get(pSpecifier);
+            if (lSpec == null) {
+                lSpec = pSpecifier;
+                // prefix mappings like "lib/": "/jsmod/lib/"
+                for (Map.Entry<String, String> entry : pImportMap.entrySet()) {
+                    if (entry.getKey().endsWith("/") && pSpecifier.startsWith(entry.getKey())) {
+                        lSpec = entry.getValue() + pSpecifier.substring(entry.getKey().length());
+                        break;
+                    }
+                }
+            }
+            if (!lSpec.startsWith("/") && !lSpec.startsWith("./") && !lSpec.startsWith("../")) {
+                return null;
+            }
+            try {
+                String lPath = URI.create(pBasePath).resolve(lSpec).normalize().getPath();
+                return lPath != null && lPath.startsWith("/") && !lPath.startsWith("/..") ? lPath : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         */
+        @FunctionalInterface
+        public static interface ModuleLoader {
+            WebFile load(String pPath) throws Exception;
+        }
+
+        /**
+         * The importmap entries and root modules of a page version.
+         */
+        protected static class PageScan {
+            protected final String etag;
+            protected final Map<String, String> importMap = new LinkedHashMap<>();
+            protected final List<String> roots = new ArrayList<>();
 
-        public WebFile(String pPath) {
-            requestPath = pPath;
+            protected PageScan(String pETag) {
+                etag = pETag;
+            }
         }
 
-        public String getId() {
-            return requestPath;
+        /**
+         */
+        protected static class ModuleNode {
+            protected final Path filePath;
+            protected final long lastModified;
+            protected final List<String> specifiers;
+
+            protected ModuleNode(Path pFilePath, long pLastModified, List<String> pSpecifiers) {
+                filePath = pFilePath;
+                lastModified = pLastModified;
+                specifiers = pSpecifiers;
+            }
+
+            protected boolean isModified() {
+                try {
+                    return Files.getLastModifiedTime(filePath).toMillis() != lastModified;
+                } catch (IOException e) {
+                    return true;
+                }
+            }
         }
+    }
 
-        public boolean isEmpty() {
-            return data.length == 0;
+    /**
+     * <pre>
+     * A recursive file system watcher based on a WatchService
+     * running in a daemon thread.
+     * A change listener gets every created, modified or deleted path.
+     * </pre>
+     */
+    public static class FileWatcher implements Runnable {
+        protected WatchService watchService;
+        protected Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+        protected Consumer<Path> changeListener;
+        protected Runnable overflowListener;
+        protected Thread thread;
+        protected volatile boolean running = false;
+
+        /**
+         * @param pChangeListener - called with a changed path
+         * @param pOverflowListener - called if events were lost
+         */
+        public FileWatcher(Consumer<Path> pChangeListener, Runnable pOverflowListener) throws IOException {
+            watchService = FileSystems.getDefault().newWatchService();
+            changeListener = pChangeListener;
+            overflowListener = pOverflowListener;
         }
 
-        public String toString() {
-            return requestPath;
+        /**
+         * Register a folder and all its sub folders.
+         */
+        public void register(Path pRoot) throws IOException {
+            if (!Files.isDirectory(pRoot)) {
+                LOG.warning(() -> String.format("WebContentProvider file watcher root is not a directory [%s]", pRoot));
+                return;
+            }
+            Files.walkFileTree(pRoot, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path pDir, BasicFileAttributes pAttrs) throws IOException {
+                    watchKeys.put(pDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), pDir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         }
 
-        public String getRequestPath() {
-            return requestPath;
+        /**
+         */
+        public void start() {
+            running = true;
+            thread = new Thread(this, "JamnWebContentFileWatcher");
+            thread.setDaemon(true);
+            thread.start();
         }
 
-        public void setRequestPath(String requestPath) {
-            this.requestPath = requestPath;
+        /**
+         */
+        public void stop() {
+            running = false;
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.fine(() -> String.format("WebContentProvider file watcher close error [%s]", e));
+            }
         }
 
-        public String getFilePath() {
-            return filePath;
+        @Override
+        public void run() {
+            while (running) {
+                WatchKey lKey;
+                try {
+                    lKey = watchService.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ClosedWatchServiceException e) {
+                    return;
+                }
+
+                Path lDir = watchKeys.get(lKey);
+                for (WatchEvent<?> event : lKey.pollEvents()) {
+                    if (event.kind() == OVERFLOW || lDir == null) {
+                        overflowListener.run();
+                        continue;
+                    }
+                    Path lPath = lDir.resolve((Path) event.context());
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(lPath)) {
+                        try {
+                            register(lPath);
+                        } catch (IOException e) {
+                            LOG.warning(() -> String.format("WebContentProvider file watcher register error [%s] [%s]",
+                                    lPath, e));
+                        }
+                    }
+                    changeListener.accept(lPath);
+                }
+                if (!lKey.reset()) {
+                    watchKeys.remove(lKey);
+                }
+            }
         }
+    }
 
-        public void setFilePath(String filePath) {
-            this.filePath = filePath;
+    /**
+     * <pre>
+     * A single byte range of a http Range header like: bytes=0-499, 500-, -500
+     * </pre>
+     */
+    protected static class ByteRange {
+        // limit the number of ranges a client may request at once
+        protected static int MaxRanges = 16;
+
+        protected final long start;
+        protected final long end;
+
+        protected ByteRange(long pStart, long pEnd) {
+            start = pStart;
+            end = pEnd;
         }
 
-        public String getContentType() {
-            return contentType;
+        /**
+         * <pre>
+         * Parse a Range header for a content of pLength bytes.
+         * Returns null if the header is unparsable or unsupported
+         * and an empty list if no range is satisfiable.
+         * </pre>
+         */
+        protected static List<ByteRange> parse(String pHeader, long pLength) {
+            String lPrefix = FieldValue.BYTES + "=";
+            if (!pHeader.trim().toLowerCase().startsWith(lPrefix)) {
+                return null;
+            }
+            String[] lSpecs = pHeader.trim().substring(lPrefix.length()).split(",");
+            if (lSpecs.length > MaxRanges) {
+                return null;
+            }
+
+            List<ByteRange> lRanges = new ArrayList<>(lSpecs.length);
+            try {
+                for (String spec : lSpecs) {
+                    String lSpec = spec.trim();
+                    int lDash = lSpec.indexOf('-');
+                    if (lDash < 0) {
+                        return null;
+                    }
+                    String lFirst = lSpec.substring(0, lDash).trim();
+                    String lLast = lSpec.substring(lDash + 1).trim();
+                    long lStart;
+                    long lEnd;
+
+                    if (lFirst.isEmpty()) {
+                        // suffix range - the last n bytes
+                        long lSuffix = Long.parseLong(lLast);
+                        if (lSuffix <= 0) {
+                            continue;
+                        }
+                        lStart = Math.max(0, pLength - lSuffix);
+                        lEnd = pLength - 1;
+                    } else {
+                        lStart = Long.parseLong(lFirst);
+                        lEnd = lLast.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lLast);
+                        if (lEnd < lStart) {
+                            // syntactically invalid
+                            return null;
+                        }
+                        lEnd = Math.min(lEnd, pLength - 1);
+                    }
+                    if (lStart < pLength && lStart <= lEnd) {
+                        lRanges.add(new ByteRange(lStart, lEnd));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            return lRanges;
         }
 
-        public void setContentType(String contentType) {
-            this.contentType = contentType;
+        protected long length() {
+            return end - start + 1;
         }
 
-        public byte[] getData() {
-            return data;
+        protected String toContentRange(long pTotal) {
+            return new StringBuilder(FieldValue.BYTES).append(" ").append(start).append("-").append(end)
+                    .append("/").append(pTotal).toString();
         }
+    }
 
-        public void setData(byte[] data) {
-            this.data = data;
+    /**
+     * <pre>
+     * A multipart/byteranges body for multiple ranges of a WebFile.
+     * </pre>
+     */
+    protected static class MultipartRanges {
+        protected static final String CRLF = "\r\n";
+
+        protected WebFile webFile;
+        protected List<ByteRange> ranges;
+        protected String boundary;
+        protected List<byte[]> partHeader = new ArrayList<>();
+        protected byte[] endMark;
+        protected long length = 0;
+
+        protected MultipartRanges(WebFile pWebFile, List<ByteRange> pRanges) {
+            webFile = pWebFile;
+            ranges = pRanges;
+            boundary = "JAMN_BYTERANGES_" + Long.toHexString(System.nanoTime());
+
+            for (int i = 0; i < ranges.size(); i++) {
+                String lHeader = new StringBuilder(i > 0 ? CRLF : "")
+                        .append("--").append(boundary).append(CRLF)
+                        .append(Field.CONTENT_TYPE).append(": ").append(webFile.getContentType()).append(CRLF)
+                        .append(Field.CONTENT_RANGE).append(": ")
+                        .append(ranges.get(i).toContentRange(webFile.getLength())).append(CRLF)
+                        .append(CRLF).toString();
+                byte[] lBytes = lHeader.getBytes(StandardCharsets.US_ASCII);
+                partHeader.add(lBytes);
+                length += lBytes.length + ranges.get(i).length();
+            }
+            endMark = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+            length += endMark.length;
         }
 
-        public boolean isTextFormat() {
-            return isTextFormat;
+        protected String getContentType() {
+            return FieldValue.MULTIPART_BYTERANGES + "; boundary=" + boundary;
         }
 
-        public void setTextFormat(boolean isTextFormat) {
-            this.isTextFormat = isTextFormat;
+        protected long getLength() {
+            return length;
+        }
+
+        protected void writeTo(OutputStream pOut) throws IOException {
+            for (int i = 0; i < ranges.size(); i++) {
+                pOut.write(partHeader.get(i));
+                webFile.writeTo(pOut, ranges.get(i).start, ranges.get(i).length());
+            }
+            pOut.write(endMark);
         }
     }
 
@@ -403,15 +3856,34 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
     private static class WebContentException extends Exception {
         private static final long serialVersionUID = 1L;
         protected final String httpStatus;
+        // the resolved file of a not found result
+        protected transient Path missingFile = null;
 
         public WebContentException(String pHttpStatus, String pMsg, Throwable pCause) {
             super(pMsg, pCause);
             httpStatus = pHttpStatus;
         }
 
+        /**
+         * A cheap exception without stack trace for expected results like a known missing file.
+         */
+        public WebContentException(String pHttpStatus, String pMsg) {
+            super(pMsg, null, false, false);
+            httpStatus = pHttpStatus;
+        }
+
         public String getHttpStatus() {
             return httpStatus;
         }
+
+        public WebContentException setMissingFile(Path pFile) {
+            missingFile = pFile;
+            return this;
+        }
+
+        public Path getMissingFile() {
+            return missingFile;
+        }
     }
 
     /**
@@ -419,8 +3891,8 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
      * The FileEnricher is the interface used by a FileProvider to preprocess requested files.
      * 
      * This Default enricher first looks for a TemplateMarker at the head/top of the file.
-     * If such a marker is present an ExprString is used that calls a ValueProvider
-     * for all expressions like ${valuekey}.
+     * If such a marker is present the file is compiled to a CompiledTemplate 
+     * that calls a ValueProvider for all expressions like ${valuekey}.
      * </pre>
      */
     public static class DefaultFileEnricher implements FileEnricher {
@@ -435,6 +3907,9 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
         // the ValueProvider for expressions like "${valuekey}"
         protected ValueProvider valueProvider = null;
 
+        // compiled templates by file path
+        protected Map<String, CompiledTemplate> templateCache = new ConcurrentHashMap<>();
+
         protected DefaultFileEnricher() {
         }
 
@@ -444,29 +3919,488 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
 
         @Override
         public void enrich(WebFile pFile) {
-            String lContent = "";
             // only process if file has text format and a TEMPLATE_MARKER
             if (pFile.isTextFormat() && hasTemplateMarker(pFile)) {
-                lContent = new String(pFile.getData(), Encoding);
-                lContent = ExprString.applyValues(lContent, valueProvider, pFile);
-                pFile.setData(lContent.getBytes(Encoding));
+                pFile.setData(getCompiledTemplate(pFile).render(valueProvider, pFile));
             }
         }
 
+        /**
+         * <pre>
+         * Get the compiled template for a file.
+         * A cached template is reused as long as modification time and size of the file are unchanged.
+         * </pre>
+         */
+        protected CompiledTemplate getCompiledTemplate(WebFile pFile) {
+            if (pFile.getLastModified() <= 0) {
+                // no reliable validator
+                return CompiledTemplate.compile(pFile.getData(), valueProvider, pFile);
+            }
+            CompiledTemplate lTemplate = templateCache.get(pFile.filePath);
+            if (lTemplate == null || lTemplate.lastModified != pFile.getLastModified()
+                    || lTemplate.sourceLength != pFile.getData().length) {
+                lTemplate = CompiledTemplate.compile(pFile.getData(), valueProvider, pFile);
+                lTemplate.lastModified = pFile.getLastModified();
+                templateCache.put(pFile.filePath, lTemplate);
+            }
+            return lTemplate;
+        }
+
         /**
          * Read the first MarkLen bytes of a file and ckeck for the template marker.
          */
         protected boolean hasTemplateMarker(WebFile pFile) {
+            return isTemplate(pFile.getData());
+        }
+
+        /**
+         */
+        public static boolean isTemplate(byte[] pData) {
             String lHead = "";
             byte[] lBuffer = new byte[MarkLen];
-            if (pFile.getData() != null && pFile.getData().length > MarkLen) {
-                System.arraycopy(pFile.getData(), 0, lBuffer, 0, MarkLen);
+            if (pData != null && pData.length > MarkLen) {
+                System.arraycopy(pData, 0, lBuffer, 0, MarkLen);
                 lHead = new String(lBuffer, Encoding);
             }
             return lHead.contains(TemplateMarker);
         }
     }
 
+    /**
+     * <pre>
+     * A template compiled into a list of literal byte segments and expression slots.
+     * 
+     * The expression syntax is the same as ExprString: ${ name } with optional whitespace.
+     * Expressions whose value is constant for the ValueProvider are folded into 
+     * the literals at compile time - so rendering only evaluates the dynamic slots
+     * and writes bytes without any String conversion of the template.
+     * </pre>
+     */
+    public static class CompiledTemplate {
+        protected static Charset Encoding = StandardCharsets.UTF_8;
+
+        // literals[i] is followed by slots[i] - the last literal has no slot
+        protected final List<byte[]> literals = new ArrayList<>();
+        protected final List<String> slots = new ArrayList<>();
+        protected int literalLength = 0;
+        protected int sourceLength = 0;
+        protected long lastModified = 0;
+
+        protected CompiledTemplate() {
+        }
+
+        /**
+         */
+        public static CompiledTemplate compile(byte[] pSource, ValueProvider pProvider, Object pCtx) {
+            CompiledTemplate lTemplate = new CompiledTemplate();
+            ByteArrayOutputStream lLiteral = new ByteArrayOutputStream(pSource.length);
+            int lPos = 0;
+            int lLiteralStart = 0;
+
+            lTemplate.sourceLength = pSource.length;
+            while (lPos < pSource.length) {
+                int lExprEnd = -1;
+                if (pSource[lPos] == '$' && lPos + 1 < pSource.length && pSource[lPos + 1] == '{') {
+                    lExprEnd = findExpressionEnd(pSource, lPos + 2);
+                }
+                if (lExprEnd < 0) {
+                    lPos++;
+                    continue;
+                }
+
+                String lName = new String(pSource, lPos + 2, lExprEnd - lPos - 2, Encoding).trim();
+                lLiteral.write(pSource, lLiteralStart, lPos - lLiteralStart);
+                if (pProvider.isConstant(lName)) {
+                    // fold constant values into the literal
+                    lLiteral.writeBytes(pProvider.getValueFor(lName, pCtx).getBytes(Encoding));
+                } else {
+                    lTemplate.addSegment(lLiteral.toByteArray(), lName);
+                    lLiteral.reset();
+                }
+                lPos = lExprEnd + 1;
+                lLiteralStart = lPos;
+            }
+            lLiteral.write(pSource, lLiteralStart, pSource.length - lLiteralStart);
+            lTemplate.addSegment(lLiteral.toByteArray(), null);
+            return lTemplate;
+        }
+
+        /**
+         * <pre>
+         * Return the position of the closing brace of an expression
+         * starting behind "${" or -1 if there is no valid expression.
+         * Valid is: optional whitespace, a name without whitespace, optional whitespace, "}"
+         * </pre>
+         */
+        protected static int findExpressionEnd(byte[] pSource, int pStart) {
+            int lPos = skipWhitespace(pSource, pStart);
+            int lNameStart = lPos;
+            while (lPos < pSource.length && pSource[lPos] != '}' && !isWhitespace(pSource[lPos])) {
+                lPos++;
+            }
+            if (lPos == lNameStart) {
+                return -1;
+            }
+            lPos = skipWhitespace(pSource, lPos);
+            return lPos < pSource.length && pSource[lPos] == '}' ? lPos : -1;
+        }
+
+        protected static int skipWhitespace(byte[] pSource, int pPos) {
+            while (pPos < pSource.length && isWhitespace(pSource[pPos])) {
+                pPos++;
+            }
+            return pPos;
+        }
+
+        // the regex \s characters
+        protected static boolean isWhitespace(byte pByte) {
+            return pByte == ' ' || pByte == '\t' || pByte == '\n' || pByte == 0x0B || pByte == '\f' || pByte == '\r';
+        }
+
+        protected void addSegment(byte[] pLiteral, String pSlot) {
+            literals.add(pLiteral);
+            literalLength += pLiteral.length;
+            if (pSlot != null) {
+                slots.add(pSlot);
+            }
+        }
+
+        /**
+         */
+        public boolean isStatic() {
+            return slots.isEmpty();
+        }
+
+        /**
+         */
+        public byte[] render(ValueProvider pProvider, Object pCtx) {
+            if (isStatic()) {
+                return literals.get(0);
+            }
+            ByteArrayOutputStream lOut = new ByteArrayOutputStream(literalLength + slots.size() * 64);
+            for (int i = 0; i < slots.size(); i++) {
+                lOut.writeBytes(literals.get(i));
+                lOut.writeBytes(pProvider.getValueFor(slots.get(i), pCtx).getBytes(Encoding));
+            }
+            lOut.writeBytes(literals.get(slots.size()));
+            return lOut.toByteArray();
+        }
+    }
+
+    /**
+     * <pre>
+     * A conservative JS/CSS minifier stage that strips comments and redundant whitespace.
+     * 
+     * - strings, template literals and regex literals are kept untouched
+     * - /*! license comments are kept
+     * - JS line breaks are kept where they could matter for automatic semicolon insertion
+     * - already minified files (*.min.*) are skipped
+     * - on any error the file is served unchanged
+     * 
+     * The saved bytes are recorded per request path.
+     * </pre>
+     */
+    public static class Minifier implements FileEnricher {
+        protected static final String JsRegexPrefix = "(,=:[!&|?{};+-*%<>~^";
+        protected static final Set<String> JsRegexKeywords = Set.of("return", "typeof", "case", "do", "else", "in",
+                "of", "new", "delete", "void", "throw", "yield", "await", "instanceof");
+        protected static final String JsTightChars = "{}()[];,:=<>!?&|*%^~";
+        protected static final String CssTightChars = "{};,>";
+
+        protected final Map<String, Long> savedBytes = new ConcurrentHashMap<>();
+        protected final LongAdder files = new LongAdder();
+        protected final LongAdder bytesIn = new LongAdder();
+        protected final LongAdder bytesOut = new LongAdder();
+
+        @Override
+        public void enrich(WebFile pFile) {
+            String lFilePath = pFile.filePath.isEmpty() ? pFile.getRequestPath() : pFile.filePath;
+            boolean lIsCss = lFilePath.endsWith(".css");
+            boolean lIsJs = lFilePath.endsWith(".js") || lFilePath.endsWith(".mjs");
+            if (!(lIsCss || lIsJs) || lFilePath.contains(".min.") || pFile.hasFileBody()) {
+                return;
+            }
+            byte[] lData = pFile.getData();
+            try {
+                String lSource = new String(lData, StandardCharsets.UTF_8);
+                byte[] lMinified = (lIsCss ? minifyCss(lSource) : minifyJs(lSource)).getBytes(StandardCharsets.UTF_8);
+                if (lMinified.length < lData.length) {
+                    pFile.setData(lMinified);
+                    files.increment();
+                    bytesIn.add(lData.length);
+                    bytesOut.add(lMinified.length);
+                    savedBytes.put(pFile.getRequestPath(), (long) lData.length - lMinified.length);
+                    LOG.fine(() -> String.format("WebContentProvider minified [%s] bytes [%s -> %s]",
+                            pFile.getRequestPath(), lData.length, lMinified.length));
+                }
+            } catch (RuntimeException e) {
+                LOG.warning(() -> String.format("WebContentProvider minification failed [%s] [%s]",
+                        pFile.getRequestPath(), e));
+            }
+        }
+
+        /**
+         * The saved bytes per request path.
+         */
+        public Map<String, Long> getSavedBytes() {
+            return Collections.unmodifiableMap(savedBytes);
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            return String.format("files [%s] bytes [%s -> %s] saved [%s]", files.sum(), bytesIn.sum(),
+                    bytesOut.sum(), bytesIn.sum() - bytesOut.sum());
+        }
+
+        /**
+         */
+        public static String minifyJs(String pSource) {
+            StringBuilder lOut = new StringBuilder(pSource.length());
+            // open template literal ${ brace depths
+            List<Integer> lTemplateDepth = new ArrayList<>();
+            boolean lSpace = false;
+            boolean lNewLine = false;
+            int i = 0;
+            int lLength = pSource.length();
+
+            while (i < lLength) {
+                char c = pSource.charAt(i);
+                char lNext = i + 1 < lLength ? pSource.charAt(i + 1) : 0;
+
+                if (c == '\n' || c == '\r') {
+                    lNewLine = true;
+                    i++;
+                } else if (Character.isWhitespace(c)) {
+                    lSpace = true;
+                    i++;
+                } else if (c == '/' && lNext == '/') {
+                    i = skipTo(pSource, i, "\n");
+                    lNewLine = true;
+                } else if (c == '/' && lNext == '*' && (i + 2 >= lLength || pSource.charAt(i + 2) != '!')) {
+                    int lEnd = skipTo(pSource, i + 2, "*/") + 2;
+                    if (pSource.substring(i, Math.min(lEnd, lLength)).indexOf('\n') > -1) {
+                        lNewLine = true;
+                    } else {
+                        lSpace = true;
+                    }
+                    i = lEnd;
+                } else {
+                    appendSeparator(lOut, c, lSpace, lNewLine, JsTightChars);
+                    lSpace = false;
+                    lNewLine = false;
+
+                    if (c == '/' && lNext == '*') {
+                        // a kept license comment
+                        int lEnd = Math.min(skipTo(pSource, i + 2, "*/") + 2, lLength);
+                        lOut.append(pSource, i, lEnd);
+                        i = lEnd;
+                    } else if (c == '"' || c == '\'') {
+                        i = copyQuoted(pSource, i, c, lOut);
+                    } else if (c == '`') {
+                        i = copyTemplate(pSource, i + 1, lOut.append(c), lTemplateDepth);
+                    } else if (c == '/' && isJsRegexStart(lOut)) {
+                        i = copyRegex(pSource, i, lOut);
+                    } else if (c == '}' && !lTemplateDepth.isEmpty() && lTemplateDepth.get(lTemplateDepth.size() - 1) == 0) {
+                        // the end of a template literal expression
+                        lTemplateDepth.remove(lTemplateDepth.size() - 1);
+                        i = copyTemplate(pSource, i + 1, lOut.append(c), lTemplateDepth);
+                    } else {
+                        if (!lTemplateDepth.isEmpty() && (c == '{' || c == '}')) {
+                            int lLast = lTemplateDepth.size() - 1;
+                            lTemplateDepth.set(lLast, lTemplateDepth.get(lLast) + (c == '{' ? 1 : -1));
+                        }
+                        lOut.append(c);
+                        i++;
+                    }
+                }
+            }
+            return lOut.toString();
+        }
+
+        /**
+         */
+        public static String minifyCss(String pSource) {
+            StringBuilder lOut = new StringBuilder(pSource.length());
+            boolean lSpace = false;
+            int i = 0;
+            int lLength = pSource.length();
+
+            while (i < lLength) {
+                char c = pSource.charAt(i);
+                char lNext = i + 1 < lLength ? pSource.charAt(i + 1) : 0;
+
+                if (Character.isWhitespace(c)) {
+                    lSpace = true;
+                    i++;
+                } else if (c == '/' && lNext == '*' && (i + 2 >= lLength || pSource.charAt(i + 2) != '!')) {
+                    i = skipTo(pSource, i + 2, "*/") + 2;
+                    lSpace = true;
+                } else {
+                    if (c == '}' && lOut.length() > 0 && lOut.charAt(lOut.length() - 1) == ';') {
+                        lOut.setLength(lOut.length() - 1);
+                    }
+                    // a space before a selector colon is a descendant combinator
+                    // a space before a declaration colon or after any colon is never needed
+                    boolean lAfterColon = lOut.length() > 0 && lOut.charAt(lOut.length() - 1) == ':';
+                    boolean lDeclarationColon = c == ':' && lSpace && isDeclarationColon(pSource, i + 1);
+                    appendSeparator(lOut, c, lSpace && !lAfterColon && !lDeclarationColon, false, CssTightChars);
+                    lSpace = false;
+
+                    if (c == '/' && lNext == '*') {
+                        int lEnd = Math.min(skipTo(pSource, i + 2, "*/") + 2, lLength);
+                        lOut.append(pSource, i, lEnd);
+                        i = lEnd;
+                    } else if (c == '"' || c == '\'') {
+                        i = copyQuoted(pSource, i, c, lOut);
+                    } else {
+                        lOut.append(c);
+                        i++;
+                    }
+                }
+            }
+            return lOut.toString();
+        }
+
+        /**
+         * A colon is part of a declaration if the statement ends with ; or } - not with a block {
+         */
+        protected static boolean isDeclarationColon(String pSource, int pFrom) {
+            int i = pFrom;
+            while (i < pSource.length()) {
+                char c = pSource.charAt(i);
+                if (c == '{') {
+                    return false;
+                } else if (c == ';' || c == '}') {
+                    return true;
+                } else if (c == '"' || c == '\'') {
+                    i = copyQuoted(pSource, i, c, new StringBuilder());
+                } else {
+                    i++;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Write a pending line break or space before the next char - if needed.
+         */
+        protected static void appendSeparator(StringBuilder pOut, char pNext, boolean pSpace, boolean pNewLine,
+                String pTightChars) {
+            if (pOut.length() == 0 || !(pSpace || pNewLine)) {
+                return;
+            }
+            char lLast = pOut.charAt(pOut.length() - 1);
+            if (pNewLine && "{(,;".indexOf(lLast) == -1) {
+                pOut.append('\n');
+            } else if (pTightChars.indexOf(lLast) == -1 && pTightChars.indexOf(pNext) == -1) {
+                pOut.append(' ');
+            }
+        }
+
+        /**
+         * A slash starts a regex literal after an operator, an opening bracket or a keyword.
+         */
+        protected static boolean isJsRegexStart(StringBuilder pOut) {
+            int lEnd = pOut.length();
+            while (lEnd > 0 && Character.isWhitespace(pOut.charAt(lEnd - 1))) {
+                lEnd--;
+            }
+            if (lEnd == 0) {
+                return true;
+            }
+            char lLast = pOut.charAt(lEnd - 1);
+            if (JsRegexPrefix.indexOf(lLast) > -1) {
+                return true;
+            }
+            int lStart = lEnd;
+            while (lStart > 0 && Character.isJavaIdentifierPart(pOut.charAt(lStart - 1))) {
+                lStart--;
+            }
+            return JsRegexKeywords.contains(pOut.substring(lStart, lEnd));
+        }
+
+        /**
+         * Get the index behind the end mark - or the source length.
+         */
+        protected static int skipTo(String pSource, int pFrom, String pEnd) {
+            int lPos = pSource.indexOf(pEnd, pFrom);
+            return lPos == -1 ? pSource.length() : lPos;
+        }
+
+        /**
+         */
+        protected static int copyQuoted(String pSource, int pStart, char pQuote, StringBuilder pOut) {
+            int i = pStart + 1;
+            while (i < pSource.length()) {
+                char c = pSource.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                } else if (c == pQuote || c == '\n') {
+                    i++;
+                    break;
+                } else {
+                    i++;
+                }
+            }
+            i = Math.min(i, pSource.length());
+            pOut.append(pSource, pStart, i);
+            return i;
+        }
+
+        /**
+         * Copy a template literal up to its end or the start of an expression.
+         */
+        protected static int copyTemplate(String pSource, int pFrom, StringBuilder pOut, List<Integer> pDepth) {
+            int i = pFrom;
+            while (i < pSource.length()) {
+                char c = pSource.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                } else if (c == '`') {
+                    i++;
+                    break;
+                } else if (c == '$' && i + 1 < pSource.length() && pSource.charAt(i + 1) == '{') {
+                    i += 2;
+                    pDepth.add(0);
+                    break;
+                } else {
+                    i++;
+                }
+            }
+            i = Math.min(i, pSource.length());
+            pOut.append(pSource, pFrom, i);
+            return i;
+        }
+
+        /**
+         */
+        protected static int copyRegex(String pSource, int pStart, StringBuilder pOut) {
+            int i = pStart + 1;
+            boolean lInClass = false;
+            while (i < pSource.length()) {
+                char c = pSource.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                } else if (c == '\n') {
+                    break;
+                } else {
+                    i++;
+                    if (c == '[') {
+                        lInClass = true;
+                    } else if (c == ']') {
+                        lInClass = false;
+                    } else if (c == '/' && !lInClass) {
+                        break;
+                    }
+                }
+            }
+            i = Math.min(i, pSource.length());
+            pOut.append(pSource, pStart, i);
+            return i;
+        }
+    }
+
 
     /*********************************************************
      *********************************************************/
@@ -479,4 +4413,27 @@ public class JamnWebContentProvider implements JamnServer.ContentProvider {
     protected static String getStackTraceFrom(Throwable t) {
         return JamnServer.getStackTraceFrom(t);
     }
+
+    /**
+     * Parse a http date to epoch seconds - returns -1 if unparsable.
+     */
+    protected static long parseHttpDate(String pDate) {
+        try {
+            return ZonedDateTime.parse(pDate.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     */
+    protected static String stripWeakPrefix(String pTag) {
+        return pTag.startsWith("W/") ? pTag.substring(2) : pTag;
+    }
+
+    /**
+     */
+    protected static Path normalize(Path pPath) {
+        return pPath.toAbsolutePath().normalize();
+    }
 }
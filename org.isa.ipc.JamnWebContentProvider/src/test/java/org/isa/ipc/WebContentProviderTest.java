@@ -2,20 +2,48 @@
 package org.isa.ipc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import org.isa.ipc.JamnWebContentProvider.ArchiveFileProvider;
+import org.isa.ipc.JamnWebContentProvider.DefaultFileCache;
 import org.isa.ipc.JamnWebContentProvider.DefaultFileEnricher;
+import org.isa.ipc.JamnWebContentProvider.FileWatcher;
+import org.isa.ipc.JamnWebContentProvider.Fingerprinter;
+import org.isa.ipc.JamnWebContentProvider.Minifier;
+import org.isa.ipc.JamnWebContentProvider.ModuleGraph;
+import org.isa.ipc.JamnWebContentProvider.NegativeCache;
+import org.isa.ipc.JamnWebContentProvider.OffHeapFileCache;
+import org.isa.ipc.JamnWebContentProvider.WebFile;
 import org.isa.ipc.sample.FileEnricherValueProvider;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * JamnWebContentProvider Unit test.
@@ -42,6 +70,9 @@ class WebContentProviderTest {
         // no leading slash because relative path
         JamnWebContentProvider lWebContentProvider = new JamnWebContentProvider("src/test/resources/http/sample")
                 .setConfig(Server.getConfig())
+                // transfer the sample images as file bodies
+                .setLargeFileThreshold(512)
+                .addCacheControlPolicies("/images/*:max-age=86400;/**:no-cache")
                 .setFileEnricher(new DefaultFileEnricher(new FileEnricherValueProvider()));
         // add to server
         Server.addContentProvider("WebContentProvider", lWebContentProvider);
@@ -66,4 +97,584 @@ class WebContentProviderTest {
         assertEquals(200, lResponse.statusCode(), "Error HTTP Status");
     }
 
+    @Test
+    void testRangeRequests() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/images/github.png"))
+                .headers("Range", "bytes=0-99").GET().build();
+        HttpResponse<byte[]> lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+        assertEquals(206, lResponse.statusCode(), "Error HTTP Status single range");
+        assertEquals(100, lResponse.body().length, "Error single range length");
+        assertEquals("bytes 0-99/733", lResponse.headers().firstValue("Content-Range").orElse(""));
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/images/github.png"))
+                .headers("Range", "bytes=0-9, -10").GET().build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+        assertEquals(206, lResponse.statusCode(), "Error HTTP Status multiple ranges");
+        assertTrue(lResponse.headers().firstValue("Content-Type").orElse("").startsWith("multipart/byteranges"));
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/images/github.png"))
+                .headers("Range", "bytes=5000-").GET().build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+        assertEquals(416, lResponse.statusCode(), "Error HTTP Status unsatisfiable range");
+        assertEquals("bytes */733", lResponse.headers().firstValue("Content-Range").orElse(""));
+    }
+
+    @Test
+    void testConditionalRequests() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/jsmod/sample-app.mjs")).GET().build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+
+        assertEquals(200, lResponse.statusCode(), "Error HTTP Status");
+        String lETag = lResponse.headers().firstValue("ETag").orElse("");
+        assertTrue(lETag.startsWith("\""), "Error missing ETag");
+        assertEquals("no-cache", lResponse.headers().firstValue("Cache-Control").orElse(""));
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/jsmod/sample-app.mjs"))
+                .headers("If-None-Match", lETag).GET().build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofString());
+
+        assertEquals(304, lResponse.statusCode(), "Error HTTP Status not modified");
+        assertTrue(lResponse.body().isEmpty());
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/jsmod/sample-app.mjs"))
+                .headers("If-None-Match", "\"other\"").GET().build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofString());
+
+        assertEquals(200, lResponse.statusCode(), "Error HTTP Status modified");
+
+        // an enriched template has no Last-Modified validator - a plain file has
+        assertTrue(lResponse.headers().firstValue("Last-Modified").isEmpty(), "Error enriched Last-Modified");
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/css/app.css")).GET().build();
+        assertTrue(Client.send(lRequest, BodyHandlers.ofString()).headers().firstValue("Last-Modified").isPresent(),
+                "Error missing Last-Modified");
+    }
+
+    @Test
+    void testPrecompressedFiles(@TempDir Path pRoot) throws Exception {
+        Files.writeString(pRoot.resolve("style.css"), "body { margin: 0; }\n".repeat(200));
+        assertEquals(1, new JamnWebContentProvider.Precompressor().run(pRoot).getCompressedCount());
+        assertTrue(Files.exists(pRoot.resolve("style.css.gz")));
+
+        JamnServer lServer = new JamnServer(8097);
+        lServer.addContentProvider("WebContentProvider",
+                new JamnWebContentProvider(pRoot.toString()).setConfig(lServer.getConfig()));
+        lServer.start();
+        try {
+            HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI("http://localhost:8097/style.css"))
+                    .headers("Accept-Encoding", "gzip").GET().build();
+            HttpResponse<byte[]> lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+            assertEquals(200, lResponse.statusCode(), "Error HTTP Status");
+            assertEquals("gzip", lResponse.headers().firstValue("Content-Encoding").orElse(""));
+            assertEquals("Accept-Encoding", lResponse.headers().firstValue("Vary").orElse(""));
+            assertEquals(Files.size(pRoot.resolve("style.css.gz")), lResponse.body().length);
+
+            lRequest = HttpRequest.newBuilder().uri(new URI("http://localhost:8097/style.css")).GET().build();
+            lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+            assertTrue(lResponse.headers().firstValue("Content-Encoding").isEmpty());
+            assertEquals(Files.size(pRoot.resolve("style.css")), lResponse.body().length);
+        } finally {
+            lServer.stop();
+        }
+    }
+
+    @Test
+    void testFingerprints(@TempDir Path pRoot) throws Exception {
+        Files.createDirectories(pRoot.resolve("css"));
+        Files.writeString(pRoot.resolve("index.html"),
+                "<link rel=\"stylesheet\" href=\"css/app.css\"><a href=\"/index.html\">home</a>");
+        Files.writeString(pRoot.resolve("css/app.css"), "@import \"base.css\";\nbody { background: url(/css/a.css); }");
+        Files.writeString(pRoot.resolve("css/base.css"), "p { margin: 0; }");
+        // a cycle keeps the plain url
+        Files.writeString(pRoot.resolve("css/a.css"), "@import \"b.css\";");
+        Files.writeString(pRoot.resolve("css/b.css"), "@import \"a.css\";");
+
+        JamnServer lServer = new JamnServer(8098);
+        JamnWebContentProvider lProvider = new JamnWebContentProvider(pRoot.toString())
+                .setConfig(lServer.getConfig()).setDevelopmentMode(false).setFingerprintEnabled(true, false);
+        lServer.addContentProvider("WebContentProvider", lProvider);
+        lServer.start();
+        try {
+            String lHtml = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8098/index.html"))
+                    .GET().build(), BodyHandlers.ofString()).body();
+            String lAppRef = lHtml.substring(lHtml.indexOf("css/app."), lHtml.indexOf(".css\"") + 4);
+            assertTrue(lAppRef.matches("css/app\\.[0-9a-f]{8}\\.css"), lAppRef);
+            assertTrue(lHtml.contains("href=\"/index.html\""));
+
+            HttpResponse<String> lResponse = Client.send(HttpRequest.newBuilder()
+                    .uri(new URI("http://localhost:8098/" + lAppRef)).GET().build(), BodyHandlers.ofString());
+            assertEquals(200, lResponse.statusCode());
+            assertEquals(Fingerprinter.ImmutableCacheControl,
+                    lResponse.headers().firstValue("Cache-Control").orElse(""));
+            assertTrue(lResponse.body().matches("(?s)@import \"base\\.[0-9a-f]{8}\\.css\";.*url\\(/css/a\\.css\\).*"),
+                    lResponse.body());
+
+            // a failed fingerprint is not remembered
+            Fingerprinter lFingerprinter = lProvider.getFingerprinter();
+            assertEquals(null, lFingerprinter.fingerprintOf("/css/missing.css"));
+            assertFalse(lFingerprinter.fingerprints.containsKey("/css/missing.css"));
+            Files.writeString(pRoot.resolve("css/other.css"), "p { padding: 0; }");
+            assertTrue(lFingerprinter.fingerprintOf("/css/other.css") != null);
+
+            // a changed dependency changes the fingerprint of the referencing files
+            Files.writeString(pRoot.resolve("css/base.css"), "p { margin: 1px; }");
+            lProvider.invalidate(pRoot.resolve("css/base.css"));
+            assertFalse(lFingerprinter.fingerprints.containsKey("/css/app.css"));
+            assertTrue(lFingerprinter.fingerprints.containsKey("/css/other.css"), "Error unrelated fingerprint reset");
+
+            // concurrent computations of a reference cycle do not dead lock
+            lFingerprinter.reset();
+            ExecutorService lExecutor = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 8; i++) {
+                String lPath = i % 2 == 0 ? "/css/a.css" : "/css/b.css";
+                lExecutor.execute(() -> lFingerprinter.fingerprintOf(lPath));
+            }
+            lExecutor.shutdown();
+            assertTrue(lExecutor.awaitTermination(5, TimeUnit.SECONDS), "Error fingerprint cycle dead lock");
+            String lNewHtml = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8098/index.html"))
+                    .GET().build(), BodyHandlers.ofString()).body();
+            assertFalse(lNewHtml.contains(lAppRef));
+
+            // an outdated fingerprint is still served but not as immutable
+            lResponse = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8098/" + lAppRef)).GET()
+                    .build(), BodyHandlers.ofString());
+            assertEquals(200, lResponse.statusCode());
+            assertFalse(lResponse.headers().firstValue("Cache-Control").orElse("").contains("immutable"));
+        } finally {
+            lServer.stop();
+        }
+    }
+
+    @Test
+    void testArchiveFileProvider(@TempDir Path pDir) throws Exception {
+        byte[] lImage = new byte[2000];
+        lImage[7] = 7;
+        String lScript = "console.log('archive');\n".repeat(100);
+        Path lArchive = pDir.resolve("web.zip");
+        try (ZipOutputStream lZip = new ZipOutputStream(Files.newOutputStream(lArchive))) {
+            ZipEntry lEntry = new ZipEntry("http/img/a.png");
+            CRC32 lCrc = new CRC32();
+            lCrc.update(lImage);
+            lEntry.setMethod(ZipEntry.STORED);
+            lEntry.setSize(lImage.length);
+            lEntry.setCrc(lCrc.getValue());
+            lZip.putNextEntry(lEntry);
+            lZip.write(lImage);
+            lZip.putNextEntry(new ZipEntry("http/app.js"));
+            lZip.write(lScript.getBytes(StandardCharsets.UTF_8));
+        }
+
+        JamnServer lServer = new JamnServer(8096);
+        String lWebroot = pDir.resolve("webroot").toString();
+        lServer.addContentProvider("WebContentProvider", new JamnWebContentProvider(lWebroot)
+                .setConfig(lServer.getConfig()).setFileProvider(new ArchiveFileProvider(lArchive, lWebroot, "http/")));
+        lServer.start();
+        try {
+            HttpResponse<byte[]> lResponse = Client.send(HttpRequest.newBuilder()
+                    .uri(new URI("http://localhost:8096/img/a.png")).GET().build(), BodyHandlers.ofByteArray());
+            assertEquals(200, lResponse.statusCode());
+            assertTrue(Arrays.equals(lImage, lResponse.body()));
+
+            // the deflated entry passes through as gzip
+            lResponse = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8096/app.js"))
+                    .headers("Accept-Encoding", "gzip").GET().build(), BodyHandlers.ofByteArray());
+            assertEquals("gzip", lResponse.headers().firstValue("Content-Encoding").orElse(""));
+            try (GZIPInputStream lIn = new GZIPInputStream(new ByteArrayInputStream(lResponse.body()))) {
+                assertEquals(lScript, new String(lIn.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            lResponse = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8096/app.js")).GET()
+                    .build(), BodyHandlers.ofByteArray());
+            assertEquals(lScript, new String(lResponse.body(), StandardCharsets.UTF_8));
+
+            lResponse = Client.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8096/none.js")).GET()
+                    .build(), BodyHandlers.ofByteArray());
+            assertEquals(404, lResponse.statusCode());
+        } finally {
+            lServer.stop();
+        }
+    }
+
+    @Test
+    void testWarmUp() throws Exception {
+        JamnWebContentProvider lProvider = new JamnWebContentProvider("src/test/resources/http/sample")
+                .setDevelopmentMode(false);
+        JamnWebContentProvider.WarmUpState lState = lProvider.startWarmUp(512, 2).get(10, TimeUnit.SECONDS);
+
+        assertTrue(lState.getFileCount() > 0, "Error no files indexed");
+        assertEquals(lState.getFileCount(), lProvider.getContentIndex().size());
+        assertTrue(lProvider.getContentIndex().containsKey("/images/github.png"));
+        // github.png is larger than the preload size
+        assertTrue(lState.getPreloadedCount() < lState.getFileCount());
+    }
+
+    @Test
+    void testCompiledTemplate() throws Exception {
+        String lTemplate = "<!--jamn.web.template-->\n<h1>${ title }</h1>${count}${ not valid}$${count}${}${a b}ä";
+        AtomicInteger lCounter = new AtomicInteger();
+        JamnServer.ExprString.ValueProvider lProvider = new JamnServer.ExprString.ValueProvider() {
+            @Override
+            public String getValueFor(String pKey, Object pCtx) {
+                return "title".equals(pKey) ? "Tätle" : String.valueOf(lCounter.incrementAndGet());
+            }
+
+            @Override
+            public boolean isConstant(String pKey) {
+                return "title".equals(pKey);
+            }
+        };
+
+        JamnWebContentProvider.CompiledTemplate lCompiled = JamnWebContentProvider.CompiledTemplate
+                .compile(lTemplate.getBytes(StandardCharsets.UTF_8), lProvider, null);
+        lCounter.set(0);
+        String lExpected = JamnServer.ExprString.applyValues(lTemplate, lProvider);
+        lCounter.set(0);
+
+        assertEquals(lExpected, new String(lCompiled.render(lProvider, null), StandardCharsets.UTF_8));
+        assertFalse(lCompiled.isStatic());
+    }
+
+    @Test
+    void testContentTypes() throws Exception {
+        JamnWebContentProvider.ContentTypeRegistry lTypes = new JamnWebContentProvider.ContentTypeRegistry();
+
+        assertEquals("text/javascript", lTypes.getFor("/jsmod/app.mjs").getMimeType());
+        assertEquals("font/woff2", lTypes.getFor("/fonts/Font.WOFF2").getMimeType());
+        assertEquals("application/octet-stream", lTypes.getFor("/v1.0/data").getMimeType());
+        assertTrue(lTypes.getFor("/css/app.css").isCompressible());
+        assertFalse(lTypes.getFor("/images/github.png").isText());
+
+        Properties lOverrides = new Properties();
+        lOverrides.setProperty("md", "text/x-markdown;text;nocache");
+        lTypes.load(lOverrides);
+
+        assertEquals("text/x-markdown", lTypes.getFor("/docs/readme.md").getMimeType());
+        assertFalse(lTypes.getFor("/docs/readme.md").isCacheable());
+
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/css/app.css")).GET().build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals("text/css", lResponse.headers().firstValue("Content-Type").orElse(""));
+    }
+
+    @Test
+    void testLargeFileTransfer() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/images/github.png")).GET().build();
+        HttpResponse<byte[]> lResponse = Client.send(lRequest, BodyHandlers.ofByteArray());
+
+        assertEquals(200, lResponse.statusCode(), "Error HTTP Status");
+        assertEquals(Files.size(Path.of("src/test/resources/http/sample/images/github.png")), lResponse.body().length);
+        assertEquals("image/png", lResponse.headers().firstValue("Content-Type").orElse(""));
+    }
+
+    @Test
+    void testFileCache() throws Exception {
+        DefaultFileCache lCache = new DefaultFileCache(100, 0);
+        lCache.put("/a", newWebFile("/a", 40));
+        lCache.put("/b", newWebFile("/b", 40));
+        // a hit protects /a from eviction
+        lCache.get("/a");
+        lCache.put("/c", newWebFile("/c", 40));
+
+        assertTrue(lCache.contains("/a"), "Error protected entry evicted");
+        assertFalse(lCache.contains("/b"), "Error probation entry NOT evicted");
+        assertEquals(1, lCache.getEvictionCount());
+        assertTrue(lCache.getWeightedSize() <= 100);
+
+        // concurrent misses load only once
+        AtomicInteger lLoadCount = new AtomicInteger();
+        CountDownLatch lStart = new CountDownLatch(1);
+        ExecutorService lExecutor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            lExecutor.execute(() -> {
+                try {
+                    lStart.await();
+                    lCache.getOrLoad("/d", () -> {
+                        lLoadCount.incrementAndGet();
+                        Thread.sleep(50);
+                        return newWebFile("/d", 10);
+                    }, file -> true);
+                } catch (Exception e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        lStart.countDown();
+        lExecutor.shutdown();
+        assertTrue(lExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, lLoadCount.get(), "Error concurrent loads");
+        assertTrue(lCache.contains("/d"));
+
+        // a file invalidated while loading is returned but not cached
+        WebFile lStale = lCache.getOrLoad("/e", () -> {
+            lCache.remove("/e");
+            return newWebFile("/e", 10);
+        }, file -> true);
+        assertEquals(10, lStale.getLength());
+        assertFalse(lCache.contains("/e"), "Error stale load cached");
+
+        // clear notifies the removal hook like remove and evict
+        AtomicInteger lRemovals = new AtomicInteger();
+        DefaultFileCache lHooked = new DefaultFileCache(100, 0) {
+            @Override
+            protected void onRemoval(String pKey, WebFile pFile, boolean pEvicted) {
+                lRemovals.incrementAndGet();
+            }
+        };
+        lHooked.put("/a", newWebFile("/a", 10));
+        lHooked.put("/b", newWebFile("/b", 10));
+        lHooked.clear();
+        assertEquals(2, lRemovals.get(), "Error clear without removal hook");
+        assertEquals(0, lHooked.getWeightedSize());
+    }
+
+    @Test
+    void testOffHeapFileCache() throws Exception {
+        // 2 slabs of 8KB with 4KB chunks and no grace period
+        OffHeapFileCache lCache = new OffHeapFileCache(16 * 1024, 0, 8 * 1024, 0);
+        WebFile lFile = newWebFile("/a", 3000);
+        lFile.getData()[10] = 42;
+        lCache.put("/a", lFile);
+
+        WebFile lCached = lCache.get("/a");
+        assertTrue(lCached.hasBufferBody());
+        assertEquals(3000, lCached.getLength());
+        ByteArrayOutputStream lOut = new ByteArrayOutputStream();
+        lCached.writeTo(lOut, 10, 5);
+        assertEquals(42, lOut.toByteArray()[0]);
+
+        // too large for a slab
+        lCache.put("/b", newWebFile("/b", 9000));
+        assertFalse(lCache.contains("/b"));
+        assertEquals(1, lCache.getRejectedCount());
+
+        // removed chunks are recycled without new slabs
+        for (int i = 0; i < 10; i++) {
+            lCache.put("/c" + i, newWebFile("/c" + i, 4000));
+            lCache.remove("/c" + i);
+        }
+        assertTrue(lCache.getSlabBytes() <= 16 * 1024);
+        assertEquals(42, lCache.get("/a").getData()[10]);
+
+        // after a warm-up with small files a file of another size still finds space
+        for (int i = 0; i < 4; i++) {
+            lCache.put("/d" + i, newWebFile("/d" + i, 4000));
+        }
+        for (int i = 0; i < 3; i++) {
+            lCache.put("/e" + i, newWebFile("/e" + i, 8000));
+            assertTrue(lCache.contains("/e" + i), "Error file of another size NOT cached");
+        }
+        assertEquals(16 * 1024, lCache.getSlabBytes());
+        assertEquals(1, lCache.getRejectedCount());
+    }
+
+    @Test
+    void testModuleGraph(@TempDir Path pRoot) throws Exception {
+        Files.createDirectories(pRoot.resolve("jsmod/lib"));
+        Files.writeString(pRoot.resolve("jsmod/app.mjs"),
+                "import { a } from './lib/a.mjs';\nimport * as B from \"/jsmod/lib/b.mjs\";\nconst c = import('./lazy.mjs');");
+        Files.writeString(pRoot.resolve("jsmod/lib/a.mjs"), "export {\n x,\n y } from './b.mjs';");
+        Files.writeString(pRoot.resolve("jsmod/lib/b.mjs"), "export const b = 'import \"none\"';");
+
+        ModuleGraph lGraph = new ModuleGraph(path -> {
+            WebFile lFile = new WebFile(path);
+            lFile.filePath = pRoot.resolve(path.substring(1)).toString();
+            lFile.setData(Files.readAllBytes(Paths.get(lFile.filePath)));
+            lFile.setLastModified(Files.getLastModifiedTime(Paths.get(lFile.filePath)).toMillis());
+            return lFile;
+        });
+        WebFile lPage = new WebFile("/index.html");
+        lPage.setData(("<script type=\"importmap\">{ \"imports\": { \"app\": \"/jsmod/app.mjs\" } }</script>"
+                + "<script type=\"module\">import { run } from 'app'; run();</script>").getBytes());
+
+        String lLinks = lGraph.getPreloadLinks(lPage, false);
+        assertEquals("</jsmod/app.mjs>; rel=modulepreload, </jsmod/lib/a.mjs>; rel=modulepreload, "
+                + "</jsmod/lib/b.mjs>; rel=modulepreload", lLinks);
+
+        // a changed module invalidates the graph
+        Files.writeString(pRoot.resolve("jsmod/lib/b.mjs"), "import '../extra.mjs';");
+        Files.writeString(pRoot.resolve("jsmod/extra.mjs"), "");
+        lGraph.invalidate(pRoot.resolve("jsmod/lib/b.mjs").toAbsolutePath().normalize());
+        assertTrue(lGraph.getPreloadLinks(lPage, false).endsWith("</jsmod/extra.mjs>; rel=modulepreload"));
+
+        // a page version is scanned once - also when validating in development mode
+        AtomicInteger lReads = new AtomicInteger();
+        WebFile lVersioned = new WebFile("/versioned.html") {
+            @Override
+            public byte[] getData() {
+                lReads.incrementAndGet();
+                return super.getData();
+            }
+        };
+        lVersioned.setData("<script type=\"module\" src=\"/jsmod/app.mjs\"></script>".getBytes());
+        lVersioned.setETag("\"v1\"");
+        lGraph.getPreloadLinks(lVersioned, true);
+        lGraph.getPreloadLinks(lVersioned, true);
+        assertEquals(1, lReads.get(), "Error unchanged page scanned again");
+    }
+
+    @Test
+    void testMinifier() throws Exception {
+        String lJs = "/*! license */\nimport { a } from './a.mjs'; // comment\n\n"
+                + "const s = \"// no comment\";  /* block */\n"
+                + "const r = /[/*]+\\//g;\n"
+                + "const t = `line 1\n   ${ a({ x: 1 }) } /* kept */`;\n"
+                + "let x = a - -1;\n"
+                + "return x\n++x";
+        assertEquals("/*! license */\nimport{a}from './a.mjs';"
+                + "const s=\"// no comment\";"
+                + "const r=/[/*]+\\//g;"
+                + "const t=`line 1\n   ${a({x:1})} /* kept */`;"
+                + "let x=a - -1;"
+                + "return x\n++x", Minifier.minifyJs(lJs));
+
+        String lCss = "/* head */\n.a > .b:hover ,\n .c {\n  color : red;\n  content: \" ; \";\n}\n";
+        assertEquals(".a>.b:hover,.c{color:red;content:\" ; \"}", Minifier.minifyCss(lCss));
+        // the space of a descendant pseudo class selector is kept
+        assertEquals("@media print{.a :hover{color:red}}",
+                Minifier.minifyCss("@media print {\n .a :hover { color : red }\n}"));
+
+        Minifier lMinifier = new Minifier();
+        WebFile lFile = new WebFile("/x.css");
+        lFile.setData(lCss.getBytes(StandardCharsets.UTF_8));
+        lMinifier.enrich(lFile);
+        assertEquals((long) lCss.length() - lFile.getData().length, lMinifier.getSavedBytes().get("/x.css"));
+    }
+
+    @Test
+    void testNegativeCache(@TempDir Path pDir) throws Exception {
+        NegativeCache lCache = new NegativeCache(3, 60000);
+        lCache.put("/a/x.js", pDir.resolve("a/x.js"));
+        lCache.put("/b.js", pDir.resolve("b.js"));
+        assertTrue(lCache.contains("/a/x.js"));
+
+        // a created parent folder invalidates
+        lCache.invalidate(pDir.resolve("a"));
+        assertFalse(lCache.contains("/a/x.js"));
+        assertTrue(lCache.contains("/b.js"));
+
+        // bounded
+        for (int i = 0; i < 10; i++) {
+            lCache.put("/" + i, pDir.resolve(String.valueOf(i)));
+        }
+        assertTrue(lCache.entries.size() <= 3);
+
+        NegativeCache lExpired = new NegativeCache(3, -1);
+        lExpired.put("/c.js", pDir.resolve("c.js"));
+        assertFalse(lExpired.contains("/c.js"));
+    }
+
+    @Test
+    void testNegativeCacheProvider(@TempDir Path pRoot) throws Exception {
+        JamnServer lServer = new JamnServer(8094);
+        JamnWebContentProvider lProvider = new JamnWebContentProvider(pRoot.toString())
+                .setConfig(lServer.getConfig()).setDevelopmentMode(false).startFileWatcher();
+        lServer.addContentProvider("WebContentProvider", lProvider);
+        lServer.start();
+        try {
+            URI lUri = new URI("http://localhost:8094/later.html");
+            HttpRequest lRequest = HttpRequest.newBuilder().uri(lUri).GET().build();
+            assertEquals(404, Client.send(lRequest, BodyHandlers.ofString()).statusCode());
+            assertEquals(404, Client.send(lRequest, BodyHandlers.ofString()).statusCode());
+            // the repeated 404 is served from the negative cache
+            assertEquals(1, lProvider.missingFiles.hits.sum());
+
+            // creating the file clears the entry through the watcher
+            Files.writeString(pRoot.resolve("later.html"), "<p>created</p>");
+            assertEquals("<p>created</p>", awaitBodyOf(lUri, "created"));
+            assertEquals(0, lProvider.missingFiles.entries.size());
+        } finally {
+            lServer.stop();
+            lProvider.stopFileWatcher();
+        }
+    }
+
+    @Test
+    void testFileWatcher(@TempDir Path pDir) throws Exception {
+        Path lSubDir = Files.createDirectories(pDir.resolve("components"));
+        Path lFile = Files.writeString(lSubDir.resolve("header.html"), "<div></div>");
+        CountDownLatch lChanged = new CountDownLatch(1);
+
+        FileWatcher lWatcher = new FileWatcher(path -> {
+            if (path.equals(lFile)) {
+                lChanged.countDown();
+            }
+        }, () -> {
+        });
+        lWatcher.register(pDir);
+        lWatcher.start();
+        try {
+            Files.writeString(lFile, "<div>changed</div>");
+            assertTrue(lChanged.await(10, TimeUnit.SECONDS), "Error file change NOT detected");
+        } finally {
+            lWatcher.stop();
+        }
+    }
+
+    @Test
+    void testProductionCacheInvalidation(@TempDir Path pDir) throws Exception {
+        Path lRoot = Files.createDirectories(pDir.resolve("web"));
+        Path lComponents = Files.createDirectories(pDir.resolve("components"));
+        Path lPage = Files.writeString(lRoot.resolve("page.html"), "<!--jamn.web.template-->\n<p>v1</p>${header.html}");
+        Path lHeader = Files.writeString(lComponents.resolve("header.html"), "<h1>header v1</h1>");
+
+        JamnServer lServer = new JamnServer(8096);
+        JamnWebContentProvider lProvider = new JamnWebContentProvider(lRoot.toString())
+                .setConfig(lServer.getConfig()).setDevelopmentMode(false)
+                .setFileEnricher(new DefaultFileEnricher((key, ctx) -> {
+                    // include a component and record it as a dependency of the page
+                    Path lComponent = lComponents.resolve(key);
+                    ((WebFile) ctx).addDependency(lComponent);
+                    try {
+                        return Files.readString(lComponent);
+                    } catch (Exception e) {
+                        return "";
+                    }
+                }))
+                .addWatchRoot(lComponents.toString()).startFileWatcher();
+        lServer.addContentProvider("WebContentProvider", lProvider);
+        lServer.start();
+        try {
+            URI lUri = new URI("http://localhost:8096/page.html");
+            assertTrue(getBodyOf(lUri).endsWith("<p>v1</p><h1>header v1</h1>"));
+            assertTrue(getBodyOf(lUri).endsWith("<p>v1</p><h1>header v1</h1>"));
+            assertTrue(lProvider.fileCache.contains("/page.html"), "Error page NOT cached");
+
+            // a modified page evicts the cached page
+            Files.writeString(lPage, "<!--jamn.web.template-->\n<p>version 2</p>${header.html}");
+            assertTrue(awaitBodyOf(lUri, "version 2").endsWith("<p>version 2</p><h1>header v1</h1>"));
+
+            // a modified component include evicts the cached page too
+            Files.writeString(lHeader, "<h1>header version 2</h1>");
+            assertTrue(awaitBodyOf(lUri, "header version 2").endsWith("<p>version 2</p><h1>header version 2</h1>"));
+        } finally {
+            lServer.stop();
+            lProvider.stopFileWatcher();
+        }
+    }
+
+    private static String getBodyOf(URI pUri) throws Exception {
+        return Client.send(HttpRequest.newBuilder().uri(pUri).GET().build(), BodyHandlers.ofString()).body();
+    }
+
+    private static String awaitBodyOf(URI pUri, String pExpected) throws Exception {
+        String lBody = getBodyOf(pUri);
+        long lEnd = System.currentTimeMillis() + 10000;
+        while (!lBody.contains(pExpected) && System.currentTimeMillis() < lEnd) {
+            Thread.sleep(50);
+            lBody = getBodyOf(pUri);
+        }
+        return lBody;
+    }
+
+    private static WebFile newWebFile(String pPath, int pSize) {
+        WebFile lFile = new WebFile(pPath);
+        lFile.setData(new byte[pSize]);
+        return lFile;
+    }
+
 }
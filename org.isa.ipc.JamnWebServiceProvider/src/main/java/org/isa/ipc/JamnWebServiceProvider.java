@@ -2,24 +2,71 @@
 
 package org.isa.ipc;
 
+import org.isa.ipc.JamnServer.HttpHeader.Field;
 import org.isa.ipc.JamnServer.HttpHeader.FieldValue;
 import org.isa.ipc.JamnServer.HttpHeader.Status;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
+import org.isa.ipc.JamnServer.AsyncResponse;
+import org.isa.ipc.JamnServer.JsonReader;
 import org.isa.ipc.JamnServer.JsonToolWrapper;
+import org.isa.ipc.JamnServer.JsonWriter;
 import org.isa.ipc.JamnServer.RequestMessage;
 import org.isa.ipc.JamnServer.ResponseMessage;
 
@@ -58,6 +105,10 @@ import org.isa.ipc.JamnServer.ResponseMessage;
  * 				return MyConverter.getAsString(pObj);
  * 			}
  * 		});
+ *
+ * Each service creates a type bound reader/writer once by JsonToolWrapper.readerFor/writerFor
+ * and serializes its result directly into the response buffer.
+ * So a converter with native byte support (e.g. a jackson ObjectReader/ObjectWriter) should override these.
  * </pre>
  */
 public class JamnWebServiceProvider implements JamnServer.ContentProvider {
@@ -69,14 +120,32 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
     protected String urlRoot = "";
 
     /**
-     * A map holding all registered services.
+     * A map holding all registered services by their (template) path.
      */
     protected Map<String, ServiceObject> serviceRegistry = new HashMap<>();
 
+    /**
+     * The segment trie resolving request paths - including path templates.
+     */
+    protected ServiceRouter serviceRouter = new ServiceRouter();
+
+    // calls taking longer are logged in the slow-call buffer of their service
+    protected long slowCallThresholdMillis = ServiceMetrics.DefaultSlowCallThresholdMillis;
+
     /**
      */
     public JamnWebServiceProvider setJsonTool(JsonToolWrapper pTool) {
         jsonTool = pTool;
+        // rebind the type specific readers/writers of already registered services
+        serviceRegistry.values().forEach(service -> service.setJsonTool(jsonTool));
+        return this;
+    }
+
+    /**
+     */
+    public JamnWebServiceProvider setSlowCallThreshold(long pMillis) {
+        slowCallThresholdMillis = pMillis;
+        serviceRegistry.values().forEach(service -> service.metrics.setSlowCallThreshold(pMillis));
         return this;
     }
 
@@ -125,13 +194,17 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
                 lReponseClass = getServiceResponseClassFrom(serviceMethod);
 
                 lServiceObj = new ServiceObject(lServiceAnno, lInstance, lRequestClass, lReponseClass, serviceMethod,
-                        () -> jsonTool);
+                        jsonTool);
 
                 if (!urlRoot.isEmpty()) {
                     lServiceObj.path = new StringBuilder(urlRoot).append(lServiceObj.path).toString();
+                    lServiceObj.invalidates.replaceAll(path -> urlRoot + path);
                 }
+                lServiceObj.initPathTemplate();
+                lServiceObj.metrics.setSlowCallThreshold(slowCallThresholdMillis);
 
                 if (!serviceRegistry.containsKey(lServiceObj.path)) {
+                    serviceRouter.add(lServiceObj);
                     serviceRegistry.put(lServiceObj.path, lServiceObj);
                     final String info = String.format("WebService installed [%s] at [%s]",
                             lServiceObj.getName(),
@@ -147,10 +220,86 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
         return this;
     }
 
+    /**
+     * <pre>
+     * Register the built-in batch service at [urlRoot]/batch.
+     * It executes the calls of a batch request in parallel on a pool of pParallelism threads.
+     * </pre>
+     */
+    public JamnWebServiceProvider enableBatchService(int pParallelism) throws WebServiceDefinitionException {
+        return registerServices(new BatchService(this, pParallelism));
+    }
+
+    /**
+     * <pre>
+     * Register the built-in metrics service at [urlRoot]/metrics.
+     * It answers the call metrics of all services.
+     * </pre>
+     */
+    public JamnWebServiceProvider enableMetricsService() throws WebServiceDefinitionException {
+        return registerServices(new MetricsService(this));
+    }
+
+    /**
+     * The call metrics of all services ordered by path.
+     */
+    public MetricsResponse getMetrics() {
+        MetricsResponse lResponse = new MetricsResponse();
+        serviceRegistry.values().stream().sorted((s1, s2) -> s1.path.compareTo(s2.path))
+                .forEach(service -> lResponse.services.add(service.metrics.getInfo(service)));
+        return lResponse;
+    }
+
+    /**
+     */
+    public void resetMetrics() {
+        serviceRegistry.values().forEach(service -> service.metrics.reset());
+    }
+
+    /**
+     * Invalidate the cached responses of the service at pPath.
+     */
+    public void invalidateCache(String pPath) {
+        ServiceObject lService = findService(pPath);
+        if (lService != null && lService.responseCache != null) {
+            lService.responseCache.clear();
+        }
+    }
+
+    /**
+     */
+    public void invalidateAllCaches() {
+        serviceRegistry.values().stream().filter(service -> service.responseCache != null)
+                .forEach(service -> service.responseCache.clear());
+    }
+
+    /**
+     * The bulkhead gauges of all services with a concurrency limit.
+     */
+    public List<String> getBulkheadInfos() {
+        return serviceRegistry.values().stream().filter(service -> service.bulkhead != null)
+                .map(service -> service.path + " " + service.bulkhead.getStatistics()).sorted().toList();
+    }
+
     /**
      */
     public boolean isServicePath(String pPath) {
-        return serviceRegistry.containsKey(pPath);
+        return findService(pPath) != null;
+    }
+
+    /**
+     * <pre>
+     * Find the service for a request path - ignoring a query string.
+     * Exact paths are found directly, templates like "/doc/{name}" by the router.
+     * </pre>
+     */
+    protected ServiceObject findService(String pPath) {
+        String lPath = stripQuery(pPath);
+        ServiceObject lService = serviceRegistry.get(lPath);
+        if (lService != null && !lService.isTemplate()) {
+            return lService;
+        }
+        return serviceRouter.find(splitPath(lPath));
     }
 
     /**
@@ -165,21 +314,16 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
      * Calling a WebService internally from java bypassing the http layer.
      */
     public String doDirectCall(String pPath, String pRequestBody) throws WebServiceException {
-        ServiceObject lService = null;
-        if (serviceRegistry.containsKey(pPath)) {
+        ServiceObject lService = findService(pPath);
+        if (lService != null) {
             try {
-                lService = serviceRegistry.get(pPath);
-                Object lResult = lService.callWith(pRequestBody);
-                if (lResult instanceof String result) {
-                    return result;
-                }
+                return callService(lService, pRequestBody, splitPath(stripQuery(pPath)));
             } catch (Exception e) {
                 throw new WebServiceException("WebService direct call failure", e);
             }
         } else {
             throw new WebServiceException(String.format("WebService direct call to unknown [%s]", pPath));
         }
-        return "";
     }
 
     /*********************************************************
@@ -193,6 +337,54 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
         public String[] methods() default { "GET, POST" };
 
         public String contentType() default FieldValue.APPLICATION_JSON;
+
+        /**
+         * Cache the serialized response per request for the given time - 0 = no caching.
+         */
+        public long cacheTtlMs() default 0;
+
+        /**
+         * Paths of cached services whose responses are invalidated by a successful call of this service.
+         */
+        public String[] invalidates() default {};
+
+        /**
+         * The time to wait for the result of an asynchronous service returning a CompletionStage.
+         * 0 means no timeout.
+         */
+        public long asyncTimeoutMs() default 60000;
+
+        /**
+         * The max number of concurrent calls of this service - 0 = unlimited.
+         */
+        public int maxConcurrent() default 0;
+
+        /**
+         * The max number of calls waiting for a free slot if maxConcurrent is reached.
+         * Further calls are rejected with 429.
+         */
+        public int queue() default 0;
+
+        /**
+         * The max time a queued call waits for a free slot - else it is rejected with 503.
+         */
+        public long queueTimeoutMs() default 5000;
+    }
+
+    /**
+     * <pre>
+     * Binds a service method parameter to a path template segment e.g.
+     * 
+     * WebService(path = "/doc/{name}", methods = { "GET" })
+     * public DocResponse getDoc(PathParam("name") String pName)
+     * 
+     * Supported types are String, primitives and their wrappers and enums.
+     * </pre>
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public static @interface PathParam {
+        public String value();
     }
 
     /*********************************************************
@@ -222,17 +414,87 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
             throw new WebServiceDefinitionException(
                     String.format("No WebService methods attribute found for [%s]", getServiceMethodName(pMeth)));
         }
+        if (pServiceAnno.maxConcurrent() < 0 || pServiceAnno.queue() < 0) {
+            throw new WebServiceDefinitionException(
+                    String.format("Invalid WebService maxConcurrent/queue attribute for [%s]",
+                            getServiceMethodName(pMeth)));
+        }
+        if (isAsyncServiceMethod(pMeth) && pServiceAnno.cacheTtlMs() > 0) {
+            throw new WebServiceDefinitionException(
+                    String.format("WebService response caching not supported for async [%s]",
+                            getServiceMethodName(pMeth)));
+        }
+        if (isAsyncServiceMethod(pMeth) && isStreamedType(getServiceResponseClassFrom(pMeth))) {
+            throw new WebServiceDefinitionException(
+                    String.format("WebService async streamed results not supported [%s]",
+                            getServiceMethodName(pMeth)));
+        }
+        if (isStreamedServiceMethod(pMeth) && (pServiceAnno.cacheTtlMs() > 0
+                || !pServiceAnno.contentType().trim().equalsIgnoreCase(FieldValue.APPLICATION_JSON))) {
+            throw new WebServiceDefinitionException(
+                    String.format("WebService streamed results require json without caching [%s]",
+                            getServiceMethodName(pMeth)));
+        }
     }
 
     /**
      */
     protected static Class<?> getServiceRequestClassFrom(Method pMeth) throws WebServiceDefinitionException {
-        Class<?>[] lClasses = pMeth.getParameterTypes();
-        if (lClasses.length == 1) {
-            return lClasses[0];
-        } else if (lClasses.length > 1) {
-            throw new WebServiceDefinitionException(
-                    String.format("WebService method must declare 0 or 1 parameter [%s]", getServiceMethodName(pMeth)));
+        Class<?> lRequestClass = null;
+        for (Parameter param : pMeth.getParameters()) {
+            if (!param.isAnnotationPresent(PathParam.class)) {
+                if (lRequestClass != null) {
+                    throw new WebServiceDefinitionException(String.format(
+                            "WebService method must declare 0 or 1 request parameter [%s]", getServiceMethodName(pMeth)));
+                }
+                lRequestClass = param.getType();
+            }
+        }
+        return lRequestClass;
+    }
+
+    /**
+     */
+    protected static String stripQuery(String pPath) {
+        int lPos = pPath.indexOf('?');
+        return lPos < 0 ? pPath : pPath.substring(0, lPos);
+    }
+
+    /**
+     * Split a path into its segments without the leading "/".
+     */
+    protected static String[] splitPath(String pPath) {
+        return (pPath.startsWith("/") ? pPath.substring(1) : pPath).split("/", -1);
+    }
+
+    /**
+     */
+    protected static boolean isTemplateSegment(String pSegment) {
+        return pSegment.length() > 2 && pSegment.startsWith("{") && pSegment.endsWith("}");
+    }
+
+    /**
+     * Create a converter from a path segment String to a parameter type - or null if not supported.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected static Function<String, Object> createPathParamConverter(Class<?> pType) {
+        if (pType == String.class) {
+            return value -> value;
+        } else if (pType == int.class || pType == Integer.class) {
+            return Integer::valueOf;
+        } else if (pType == long.class || pType == Long.class) {
+            return Long::valueOf;
+        } else if (pType == double.class || pType == Double.class) {
+            return Double::valueOf;
+        } else if (pType == boolean.class || pType == Boolean.class) {
+            return value -> {
+                if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw new IllegalArgumentException("Not a boolean [" + value + "]");
+                }
+                return Boolean.valueOf(value);
+            };
+        } else if (pType.isEnum()) {
+            return value -> Enum.valueOf((Class<Enum>) pType, value);
         }
         return null;
     }
@@ -240,9 +502,47 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
     /**
      */
     protected static Class<?> getServiceResponseClassFrom(Method pMeth) {
+        if (isAsyncServiceMethod(pMeth) || isStreamedServiceMethod(pMeth)) {
+            // the result type of a CompletionStage<T> or the element type of a Stream<T> etc.
+            return getTypeArgumentFrom(pMeth.getGenericReturnType());
+        }
         return pMeth.getReturnType();
     }
 
+    /**
+     */
+    protected static Class<?> getTypeArgumentFrom(Type pType) {
+        if (pType instanceof ParameterizedType lType && lType.getActualTypeArguments().length == 1) {
+            Type lArgType = lType.getActualTypeArguments()[0];
+            if (lArgType instanceof Class<?> lClass) {
+                return lClass;
+            } else if (lArgType instanceof ParameterizedType lParamType
+                    && lParamType.getRawType() instanceof Class<?> lClass) {
+                return lClass;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     */
+    protected static boolean isAsyncServiceMethod(Method pMeth) {
+        return CompletionStage.class.isAssignableFrom(pMeth.getReturnType());
+    }
+
+    /**
+     */
+    protected static boolean isStreamedType(Class<?> pType) {
+        return Stream.class.isAssignableFrom(pType) || Iterator.class.isAssignableFrom(pType)
+                || Flow.Publisher.class.isAssignableFrom(pType);
+    }
+
+    /**
+     */
+    protected static boolean isStreamedServiceMethod(Method pMeth) {
+        return isStreamedType(pMeth.getReturnType());
+    }
+
     /*********************************************************
      * The internal classes for loading and providing WebService objects.
      *********************************************************/
@@ -258,11 +558,31 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
         protected Class<?> responseClass = null;
         protected Method serviceMethod = null;
 
-        protected Supplier<JsonToolWrapper> json;
+        protected JsonToolWrapper json;
+        // created once per json tool for the request/response class
+        protected JsonReader<?> requestReader;
+        protected JsonWriter responseWriter;
+
+        // resolved once at creation
+        protected ServiceInvoker invoker;
+        protected RequestDecoder requestDecoder;
+        protected ResultEncoder resultEncoder;
+        // services returning a CompletionStage
+        protected boolean async = false;
+        protected long asyncTimeoutMillis = 0;
+        // services returning a Stream, Iterator or Flow.Publisher of elements
+        protected boolean streamed = false;
+        // for path templates - builds the method arguments from the body value and the path segments
+        protected ArgumentBinder argumentBinder;
+        // optional response memoization
+        protected ResponseCache responseCache;
+        protected List<String> invalidates = new ArrayList<>();
+        // optional concurrency limit
+        protected Bulkhead bulkhead;
+        protected ServiceMetrics metrics = new ServiceMetrics();
 
         protected ServiceObject(WebService pServiceAnno, Object pInstance, Class<?> pRequestClass,
-                Class<?> pResponseClass, Method pServiceMethod, Supplier<JsonToolWrapper> pJson) {
-            json = pJson;
+                Class<?> pResponseClass, Method pServiceMethod, JsonToolWrapper pJson) {
             instance = pInstance;
             path = pServiceAnno.path().trim();
             contentType = pServiceAnno.contentType().trim();
@@ -273,6 +593,35 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
             for (String meth : pServiceAnno.methods()) {
                 httpMethods.put(meth.toUpperCase(), meth.toUpperCase());
             }
+
+            if (pServiceAnno.cacheTtlMs() > 0) {
+                responseCache = new ResponseCache(pServiceAnno.cacheTtlMs(), ResponseCache.DefaultMaxEntries);
+            }
+            invalidates.addAll(Arrays.asList(pServiceAnno.invalidates()));
+            async = isAsyncServiceMethod(pServiceMethod);
+            streamed = isStreamedServiceMethod(pServiceMethod);
+            asyncTimeoutMillis = pServiceAnno.asyncTimeoutMs();
+            if (pServiceAnno.maxConcurrent() > 0) {
+                bulkhead = new Bulkhead(pServiceAnno.maxConcurrent(), pServiceAnno.queue(),
+                        pServiceAnno.queueTimeoutMs());
+            }
+
+            setJsonTool(pJson);
+            invoker = createInvoker(pInstance, pServiceMethod);
+            createCodec();
+        }
+
+        /**
+         */
+        protected void setJsonTool(JsonToolWrapper pJson) {
+            json = pJson;
+            if (responseCache != null) {
+                responseCache.clear();
+            }
+            if (json != null) {
+                requestReader = requestClass != null ? json.readerFor(requestClass) : null;
+                responseWriter = json.writerFor(responseClass);
+            }
         }
 
         /**
@@ -319,139 +668,1606 @@ public class JamnWebServiceProvider implements JamnServer.ContentProvider {
         }
 
         /**
-         * @throws InvocationTargetException
-         * @throws IllegalArgumentException
-         * @throws IllegalAccessException
          */
-        protected Object callWith(String pRequestData)
-                throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-            Object lRet = null;
-            Object lParam = null;
+        public boolean isTemplate() {
+            return argumentBinder != null;
+        }
 
-            if (getContentType().equalsIgnoreCase(FieldValue.APPLICATION_JSON)) {
-                if (hasParameter()) {
-                    lParam = json.get().toObject(pRequestData, requestClass);
-                    lRet = serviceMethod.invoke(instance, lParam);
-                } else {
-                    lRet = serviceMethod.invoke(instance);
-                }
-                lRet = json.get().toString(lRet);
-            } else if (getContentType().equalsIgnoreCase(FieldValue.TEXT_PLAIN)) {
-                if (hasParameter() && requestClass == String.class) {
-                    lRet = serviceMethod.invoke(instance, pRequestData);
-                } else {
-                    lRet = serviceMethod.invoke(instance);
-                }
-                if (responseClass == String.class) {
-                    // if string defined return directly
-                    return lRet;
+        /**
+         */
+        public boolean isAsync() {
+            return async;
+        }
+
+        /**
+         */
+        public boolean isStreamed() {
+            return streamed;
+        }
+
+        /**
+         * <pre>
+         * Bind the PathParam method parameters to the "{name}" segments of the final path.
+         * Every template segment needs exactly one parameter and vice versa.
+         * </pre>
+         */
+        protected void initPathTemplate() throws WebServiceDefinitionException {
+            String[] lSegments = splitPath(path);
+            Map<String, Integer> lPositions = new HashMap<>();
+            for (int i = 0; i < lSegments.length; i++) {
+                if (isTemplateSegment(lSegments[i])
+                        && lPositions.put(lSegments[i].substring(1, lSegments[i].length() - 1), i) != null) {
+                    throw new WebServiceDefinitionException(
+                            String.format("Duplicate WebService path parameter [%s] [%s]", lSegments[i], getName()));
                 }
-                // this surrounds a blank string with ""
-                lRet = json.get().toString(lRet);
             }
 
-            return lRet;
+            Parameter[] lParams = serviceMethod.getParameters();
+            int[] lPositionOf = new int[lParams.length];
+            List<Function<String, Object>> lConverters = new ArrayList<>();
+            int lBound = 0;
+            for (int i = 0; i < lParams.length; i++) {
+                PathParam lAnno = lParams[i].getAnnotation(PathParam.class);
+                lPositionOf[i] = -1;
+                lConverters.add(null);
+                if (lAnno != null) {
+                    if (!lPositions.containsKey(lAnno.value())) {
+                        throw new WebServiceDefinitionException(String.format(
+                                "WebService path parameter [%s] not in path [%s] [%s]", lAnno.value(), path, getName()));
+                    }
+                    Function<String, Object> lConverter = createPathParamConverter(lParams[i].getType());
+                    if (lConverter == null) {
+                        throw new WebServiceDefinitionException(String.format(
+                                "Unsupported WebService path parameter type [%s] [%s]", lParams[i].getType(),
+                                getName()));
+                    }
+                    lPositionOf[i] = lPositions.get(lAnno.value());
+                    lConverters.set(i, lConverter);
+                    lBound++;
+                }
+            }
+            if (lBound != lPositions.size()) {
+                throw new WebServiceDefinitionException(
+                        String.format("WebService path template parameters without PathParam [%s] [%s]", path,
+                                getName()));
+            }
+            if (lBound > 0) {
+                argumentBinder = (body, segments) -> {
+                    Object[] lArgs = new Object[lParams.length];
+                    for (int i = 0; i < lArgs.length; i++) {
+                        if (lPositionOf[i] < 0) {
+                            lArgs[i] = body;
+                        } else {
+                            try {
+                                lArgs[i] = lConverters.get(i).apply(
+                                        URLDecoder.decode(segments[lPositionOf[i]].replace("+", "%2B"),
+                                                StandardCharsets.UTF_8));
+                            } catch (IllegalArgumentException e) {
+                                throw new WebServiceException(Status.SC_400_BAD_REQUEST,
+                                        String.format("Invalid WebService path parameter [%s] [%s]",
+                                                segments[lPositionOf[i]], getName()));
+                            }
+                        }
+                    }
+                    // a single parameter is passed directly - else spread by the invoker
+                    return lArgs.length == 1 ? lArgs[0] : lArgs;
+                };
+            }
         }
-    }
 
-    /**
-     * Exceptions thrown during Service execution.
-     */
-    protected static class WebServiceException extends Exception {
-        private static final long serialVersionUID = 1L;
-        private final String httpStatus;
+        /**
+         * <pre>
+         * Call the service with the raw request data and write the result to pOut.
+         * Returns the ETag of a cached response - else an empty string.
+         * </pre>
+         */
+        protected String callWith(byte[] pRequestData, Charset pEncoding, String[] pSegments, OutputStream pOut)
+                throws IOException, InvocationTargetException, WebServiceException {
+            if (responseCache == null) {
+                callSync(pRequestData, pEncoding, pSegments, pOut);
+                return "";
+            }
 
-        WebServiceException(String pHttpStatus, String pMsg) {
-            super(pMsg);
-            httpStatus = pHttpStatus;
+            // template services are keyed by their actual path segments
+            CallTiming lTiming = new CallTiming();
+            CacheKey lKey = new CacheKey(argumentBinder != null ? pSegments : null, pRequestData);
+            CachedResponse lCached = responseCache.get(lKey);
+            if (lCached == null) {
+                // a clear by an invalidating call during this call drops the (possibly stale) result
+                long lGeneration = responseCache.getGeneration();
+                ByteArrayOutputStream lBuffer = new ByteArrayOutputStream();
+                callSync(pRequestData, pEncoding, pSegments, lBuffer);
+                lCached = responseCache.put(lKey, lBuffer.toByteArray(), lGeneration);
+                pOut.write(lCached.data);
+            } else {
+                pOut.write(lCached.data);
+                metrics.recordCacheHit(lTiming);
+            }
+            return lCached.etag;
         }
 
-        WebServiceException(String pMsg, Throwable pCause) {
-            super(pMsg, pCause);
-            httpStatus = "direct call";
+        /**
+         * Call the service and write the result - an async result is awaited.
+         */
+        protected void callSync(byte[] pRequestData, Charset pEncoding, String[] pSegments, OutputStream pOut)
+                throws IOException, InvocationTargetException, WebServiceException {
+            enter();
+            CallTiming lTiming = new CallTiming();
+            boolean lDone = false;
+            try {
+                Object lResult = invokeWith(pRequestData, pEncoding, pSegments, lTiming);
+                if (async) {
+                    lResult = awaitResult(lResult);
+                    lTiming.invoked();
+                }
+                resultEncoder.encode(lResult, pOut);
+                lDone = true;
+            } finally {
+                metrics.record(lTiming, lDone, pRequestData, pEncoding);
+                leave();
+            }
         }
 
-        WebServiceException(String pMsg) {
-            super(pMsg);
-            httpStatus = "direct call";
+        /**
+         * Acquire a slot of the bulkhead if any - a rejected call is recorded as error.
+         */
+        protected void enter() throws WebServiceException {
+            if (bulkhead != null) {
+                CallTiming lTiming = new CallTiming();
+                try {
+                    bulkhead.acquire(getName());
+                } catch (WebServiceException e) {
+                    metrics.recordRejected(lTiming);
+                    throw e;
+                }
+            }
         }
 
-        public String getHttpStatus() {
-            return httpStatus;
+        /**
+         */
+        protected void leave() {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
         }
-    }
-
-    /*********************************************************
-     * The public classes.
-     *********************************************************/
-    /**
-     * Exceptions thrown during Service initialization/creation.
-     */
-    public static class WebServiceDefinitionException extends Exception {
-        private static final long serialVersionUID = 1L;
 
-        public WebServiceDefinitionException(String pMsg) {
-            super(pMsg);
+        /**
+         * Decode the request data and invoke the service method.
+         */
+        protected Object invokeWith(byte[] pRequestData, Charset pEncoding, String[] pSegments, CallTiming pTiming)
+                throws InvocationTargetException, WebServiceException {
+            Object lBody = requestDecoder.decode(pRequestData, pEncoding);
+            pTiming.decoded();
+            Object lResult = invoke(lBody, pSegments);
+            pTiming.invoked();
+            return lResult;
         }
 
-        public WebServiceDefinitionException(String pMsg, Throwable pCause) {
-            super(pMsg, pCause);
+        /**
+         */
+        protected Object awaitResult(Object pStage) throws InvocationTargetException, WebServiceException {
+            CompletableFuture<?> lFuture = toFuture(pStage);
+            try {
+                return asyncTimeoutMillis > 0 ? lFuture.get(asyncTimeoutMillis, TimeUnit.MILLISECONDS)
+                        : lFuture.get();
+            } catch (TimeoutException e) {
+                lFuture.cancel(true);
+                throw new WebServiceException(Status.SC_503_SERVICE_UNAVAILABLE,
+                        String.format("WebService async timeout [%s]", getName()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lFuture.cancel(true);
+                throw new WebServiceException(Status.SC_503_SERVICE_UNAVAILABLE,
+                        String.format("WebService async interrupted [%s]", getName()));
+            } catch (ExecutionException | CancellationException e) {
+                throw new InvocationTargetException(e.getCause() != null ? e.getCause() : e);
+            }
         }
-    }
-
-    /*********************************************************
-     * The actual JamnServer.ContentProvider Interface Implementation.
-     *********************************************************/
-    @Override
-    public void handleContentProcessing(RequestMessage pRequest, ResponseMessage pResponse) {
 
-        ServiceObject lService = null;
-        Object lResult = null;
-        byte[] lData = null;
-
-        try {
-            if (pRequest.isMethod("GET") || pRequest.isMethod("POST")) {
-                lService = getServiceInstanceFor(pRequest.getPath(), pRequest.getMethod(),
-                        pRequest.getContentType());
+        /**
+         */
+        protected CompletableFuture<?> toFuture(Object pStage) throws WebServiceException {
+            if (pStage instanceof CompletionStage<?> stage) {
+                return stage.toCompletableFuture();
+            }
+            throw new WebServiceException(Status.SC_500_INTERNAL_ERROR,
+                    String.format("WebService async method returned no CompletionStage [%s]", getName()));
+        }
 
-                lResult = lService.callWith(pRequest.body());
+        /**
+         * Invoke the service method - any exception of the method is wrapped like by Method.invoke.
+         */
+        protected Object invoke(Object pBody, String[] pSegments)
+                throws InvocationTargetException, WebServiceException {
+            Object lParam = argumentBinder == null ? pBody : argumentBinder.bind(pBody, pSegments);
+            try {
+                return invoker.invoke(lParam);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
 
-                if (lResult instanceof String result) {
-                    lData = result.getBytes();
-                    pResponse.setContentType(lService.getContentType());
-                    pResponse.writeToContent(lData);
+        /**
+         * <pre>
+         * Resolve the content type specific request decoding and result encoding once at creation:
+         * - json: parameter and return value are read/written as bytes by the type bound json reader/writer
+         * - text: a String parameter gets the request data, a String return value is written directly
+         * - else: unsupported
+         * </pre>
+         */
+        protected void createCodec() {
+            if (contentType.equalsIgnoreCase(FieldValue.APPLICATION_JSON)) {
+                requestDecoder = hasParameter() ? (data, encoding) -> requestReader.read(data)
+                        : (data, encoding) -> null;
+                // the elements of a streamed result are written as json array e.g. for direct calls
+                if (streamed) {
+                    resultEncoder = (result, out) -> writeElements(result, false, out);
+                } else if (JsonContent.class.isAssignableFrom(responseClass)) {
+                    resultEncoder = (result, out) -> ((JsonContent) result).writeJsonTo(out);
                 } else {
-                    throw new WebServiceException(Status.SC_500_INTERNAL_ERROR,
-                            String.format("Unsupported WebService API Return Type [%s] [%s]", lResult.getClass(),
-                                    lService.getName()));
+                    resultEncoder = (result, out) -> responseWriter.write(result, out);
                 }
-                pResponse.setStatus(Status.SC_200_OK);
-            } else if (pRequest.isMethod("OPTIONS")) {
-                pResponse.setStatus(Status.SC_204_NO_CONTENT);
+            } else if (contentType.equalsIgnoreCase(FieldValue.TEXT_PLAIN)) {
+                requestDecoder = hasParameter() && requestClass == String.class
+                        ? (data, encoding) -> new String(data, encoding)
+                        : (data, encoding) -> null;
+                // a json written String result is surrounded with ""
+                resultEncoder = responseClass == String.class ? this::writeText
+                        : (result, out) -> responseWriter.write(result, out);
             } else {
-                pResponse.setStatus(Status.SC_405_METHOD_NOT_ALLOWED);
+                requestDecoder = (data, encoding) -> {
+                    throw new WebServiceException(Status.SC_500_INTERNAL_ERROR,
+                            String.format("Unsupported WebService ContentType [%s] [%s]", contentType, getName()));
+                };
+                resultEncoder = (result, out) -> {
+                };
             }
-        } catch (WebServiceException wse) {
-            LOG.fine(() -> String.format("WebService API Error: [%s]", wse.getMessage()));
-            pResponse.setStatus(wse.getHttpStatus());
-        } catch (Exception e) {
-            String info = lService != null ? lService.getName() : "";
-            info = info + LS + getStackTraceFrom(e);
-            LOG.severe(
-                    String.format("WebService Request Handling internal/runtime ERROR: %s %s %s", e.toString(), LS,
-                            info));
-            pResponse.setStatus(Status.SC_500_INTERNAL_ERROR);
         }
-    }
 
-    /**
-     */
-    protected ServiceObject getServiceInstanceFor(String pPath, String pMethod, String pContentType)
-            throws WebServiceException {
-        ServiceObject lService = null;
-        if (serviceRegistry.containsKey(pPath)) {
-            lService = serviceRegistry.get(pPath);
+        /**
+         * <pre>
+         * Write the elements of a streamed result one by one - as json array or as NDJSON lines.
+         * The first element is flushed immediately to get it to the client early.
+         * A Stream is closed and a Publisher subscription cancelled at the end.
+         * </pre>
+         */
+        protected void writeElements(Object pResult, boolean pNdJson, OutputStream pOut)
+                throws IOException, WebServiceException {
+            // the element writer must not close the target stream
+            OutputStream lOut = new FilterOutputStream(pOut) {
+                @Override
+                public void write(byte[] pData, int pOffset, int pLength) throws IOException {
+                    out.write(pData, pOffset, pLength);
+                }
 
+                @Override
+                public void close() {
+                    // keep the target open
+                }
+            };
+            try (ElementIterator lElements = toElementIterator(pResult)) {
+                boolean lFirst = true;
+                if (!pNdJson) {
+                    pOut.write('[');
+                }
+                while (lElements.hasNext()) {
+                    if (!lFirst && !pNdJson) {
+                        pOut.write(',');
+                    }
+                    responseWriter.write(lElements.next(), lOut);
+                    if (pNdJson) {
+                        pOut.write('\n');
+                    }
+                    if (lFirst) {
+                        lFirst = false;
+                        pOut.flush();
+                    }
+                }
+                if (!pNdJson) {
+                    pOut.write(']');
+                }
+            }
+        }
+
+        /**
+         * Close a streamed result that is not written - a not subscribed Publisher has nothing to cancel.
+         */
+        protected void closeResult(Object pResult) {
+            if (pResult instanceof Stream<?> stream) {
+                stream.close();
+            }
+        }
+
+        /**
+         */
+        protected ElementIterator toElementIterator(Object pResult) throws WebServiceException {
+            if (pResult instanceof Stream<?> stream) {
+                return new ElementIterator(stream.iterator(), stream::close);
+            } else if (pResult instanceof Iterator<?> iterator) {
+                return new ElementIterator(iterator, () -> {
+                });
+            } else if (pResult instanceof Flow.Publisher<?> publisher) {
+                PublisherIterator lIterator = new PublisherIterator(asyncTimeoutMillis);
+                publisher.subscribe(lIterator);
+                return new ElementIterator(lIterator, lIterator::cancel);
+            } else if (pResult == null) {
+                return new ElementIterator(Collections.emptyIterator(), () -> {
+                });
+            }
+            throw new WebServiceException(Status.SC_500_INTERNAL_ERROR,
+                    String.format("WebService streamed method returned no Stream/Iterator/Publisher [%s]", getName()));
+        }
+
+        /**
+         */
+        protected void writeText(Object pResult, OutputStream pOut) throws IOException, WebServiceException {
+            if (pResult instanceof String result) {
+                pOut.write(result.getBytes(StandardCharsets.UTF_8));
+            } else {
+                throw new WebServiceException(Status.SC_500_INTERNAL_ERROR,
+                        String.format("Unsupported WebService API Return Type [%s] [%s]", pResult, getName()));
+            }
+        }
+    }
+
+    /**
+     * The content type specific conversion of the request data to the service parameter.
+     */
+    @FunctionalInterface
+    protected static interface RequestDecoder {
+        Object decode(byte[] pRequestData, Charset pEncoding) throws WebServiceException;
+    }
+
+    /**
+     * The content type specific writing of the service result.
+     */
+    @FunctionalInterface
+    protected static interface ResultEncoder {
+        void encode(Object pResult, OutputStream pOut) throws IOException, WebServiceException;
+    }
+
+    /**
+     * Builds the invoker parameter from the request body value and the path segments.
+     */
+    @FunctionalInterface
+    protected static interface ArgumentBinder {
+        Object bind(Object pBody, String[] pSegments) throws WebServiceException;
+    }
+
+    /**
+     * An element iterator with a close action releasing the source.
+     */
+    protected static class ElementIterator implements Iterator<Object>, AutoCloseable {
+        protected Iterator<?> source;
+        protected Runnable closeAction;
+
+        protected ElementIterator(Iterator<?> pSource, Runnable pCloseAction) {
+            source = pSource;
+            closeAction = pCloseAction;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            return source.next();
+        }
+
+        @Override
+        public void close() {
+            closeAction.run();
+        }
+    }
+
+    /**
+     * <pre>
+     * A Flow.Subscriber bridging a Publisher to a blocking Iterator.
+     * Elements are requested in batches into a bounded buffer,
+     * the wait for an element is limited by the timeout.
+     * </pre>
+     */
+    protected static class PublisherIterator implements Iterator<Object>, Flow.Subscriber<Object> {
+        protected static final int BatchSize = 16;
+        protected static final Object Completed = new Object();
+
+        protected final BlockingQueue<Object> buffer = new LinkedBlockingQueue<>();
+        protected final long timeoutMillis;
+        protected volatile Flow.Subscription subscription;
+        protected volatile Throwable error;
+        protected Object nextElement;
+        protected int consumed = 0;
+
+        protected PublisherIterator(long pTimeoutMillis) {
+            timeoutMillis = pTimeoutMillis;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription pSubscription) {
+            subscription = pSubscription;
+            pSubscription.request(BatchSize);
+        }
+
+        @Override
+        public void onNext(Object pItem) {
+            buffer.add(pItem);
+        }
+
+        @Override
+        public void onError(Throwable pError) {
+            error = pError;
+            buffer.add(Completed);
+        }
+
+        @Override
+        public void onComplete() {
+            buffer.add(Completed);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextElement == null) {
+                try {
+                    nextElement = timeoutMillis > 0 ? buffer.poll(timeoutMillis, TimeUnit.MILLISECONDS)
+                            : buffer.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new IllegalStateException("WebService publisher wait interrupted", e);
+                }
+                if (nextElement == null) {
+                    cancel();
+                    throw new IllegalStateException("WebService publisher timeout");
+                }
+            }
+            if (nextElement == Completed) {
+                if (error != null) {
+                    throw new IllegalStateException("WebService publisher error", error);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object lElement = nextElement;
+            nextElement = null;
+            // request the next batch when the current one is consumed
+            if (++consumed == BatchSize) {
+                consumed = 0;
+                subscription.request(BatchSize);
+            }
+            return lElement;
+        }
+
+        /**
+         */
+        protected void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * A segment trie resolving a request path in O(segments).
+     * - a literal segment takes precedence over a template segment "{name}"
+     * - two paths of the same shape e.g. "/doc/{name}" and "/doc/{id}" are a conflict
+     * </pre>
+     */
+    protected static class ServiceRouter {
+        protected RouteNode root = new RouteNode();
+
+        /**
+         */
+        protected void add(ServiceObject pService) throws WebServiceDefinitionException {
+            RouteNode lNode = root;
+            for (String segment : splitPath(pService.path)) {
+                if (isTemplateSegment(segment)) {
+                    if (lNode.param == null) {
+                        lNode.param = new RouteNode();
+                    }
+                    lNode = lNode.param;
+                } else {
+                    lNode = lNode.literals.computeIfAbsent(segment, key -> new RouteNode());
+                }
+            }
+            if (lNode.service != null) {
+                throw new WebServiceDefinitionException(
+                        String.format("WebService Path [%s] of [%s] conflicts with [%s] of [%s]", pService.path,
+                                pService.getName(), lNode.service.path, lNode.service.getName()));
+            }
+            lNode.service = pService;
+        }
+
+        /**
+         */
+        protected ServiceObject find(String[] pSegments) {
+            return find(root, pSegments, 0);
+        }
+
+        /**
+         */
+        protected ServiceObject find(RouteNode pNode, String[] pSegments, int pIndex) {
+            if (pIndex == pSegments.length) {
+                return pNode.service;
+            }
+            ServiceObject lService = null;
+            RouteNode lLiteral = pNode.literals.get(pSegments[pIndex]);
+            if (lLiteral != null) {
+                lService = find(lLiteral, pSegments, pIndex + 1);
+            }
+            if (lService == null && pNode.param != null && !pSegments[pIndex].isEmpty()) {
+                lService = find(pNode.param, pSegments, pIndex + 1);
+            }
+            return lService;
+        }
+    }
+
+    /**
+     */
+    protected static class RouteNode {
+        protected Map<String, RouteNode> literals = new HashMap<>(4);
+        protected RouteNode param;
+        protected ServiceObject service;
+    }
+
+    /**
+     * <pre>
+     * A per service LRU cache of serialized responses with a time to live.
+     * </pre>
+     */
+    protected static class ResponseCache {
+        public static final int DefaultMaxEntries = 256;
+
+        protected long ttlMillis;
+        protected Map<CacheKey, CachedResponse> entries;
+        protected AtomicLong hits = new AtomicLong(0);
+        protected AtomicLong misses = new AtomicLong(0);
+        // incremented by every clear
+        protected AtomicLong generation = new AtomicLong(0);
+
+        protected ResponseCache(long pTtlMillis, int pMaxEntries) {
+            ttlMillis = pTtlMillis;
+            entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> pEldest) {
+                    return size() > pMaxEntries;
+                }
+            });
+        }
+
+        /**
+         */
+        protected CachedResponse get(CacheKey pKey) {
+            CachedResponse lCached = entries.get(pKey);
+            if (lCached != null && lCached.expires > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return lCached;
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        /**
+         */
+        protected long getGeneration() {
+            return generation.get();
+        }
+
+        /**
+         * Put a response computed in pGeneration - it is returned but not cached if the cache was cleared meanwhile.
+         */
+        protected CachedResponse put(CacheKey pKey, byte[] pData, long pGeneration) {
+            CachedResponse lCached = new CachedResponse(pData, System.currentTimeMillis() + ttlMillis);
+            synchronized (entries) {
+                if (generation.get() == pGeneration) {
+                    entries.put(pKey, lCached);
+                }
+            }
+            return lCached;
+        }
+
+        /**
+         */
+        protected void clear() {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.clear();
+            }
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            return String.format("entries [%s] hits [%s] misses [%s] ttl [%s ms]", entries.size(), hits.get(),
+                    misses.get(), ttlMillis);
+        }
+    }
+
+    /**
+     * The request identity of a cached response - the path segments of templates and the body.
+     */
+    protected static class CacheKey {
+        protected final String[] segments;
+        protected final byte[] body;
+        protected final int hash;
+
+        protected CacheKey(String[] pSegments, byte[] pBody) {
+            segments = pSegments;
+            body = pBody;
+            hash = 31 * Arrays.hashCode(segments) + Arrays.hashCode(body);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object pObj) {
+            return pObj instanceof CacheKey key && hash == key.hash && Arrays.equals(segments, key.segments)
+                    && Arrays.equals(body, key.body);
+        }
+    }
+
+    /**
+     */
+    protected static class CachedResponse {
+        protected final byte[] data;
+        protected final String etag;
+        protected final long expires;
+
+        protected CachedResponse(byte[] pData, long pExpires) {
+            CRC32 lCrc = new CRC32();
+            lCrc.update(pData);
+            data = pData;
+            etag = "\"" + Integer.toHexString(pData.length) + "-" + Long.toHexString(lCrc.getValue()) + "\"";
+            expires = pExpires;
+        }
+    }
+
+    /**
+     * <pre>
+     * A semaphore bulkhead limiting the concurrent calls of one service.
+     * Calls exceeding maxConcurrent wait up to waitMillis in a bounded queue,
+     * a full queue is answered with 429 and a wait timeout with 503.
+     * Queued calls still hold their request worker - so the queue should be small.
+     * </pre>
+     */
+    protected static class Bulkhead {
+        protected final int maxConcurrent;
+        protected final int maxQueued;
+        protected final long waitMillis;
+        protected final Semaphore permits;
+        protected final AtomicInteger inFlight = new AtomicInteger(0);
+        protected final AtomicInteger queued = new AtomicInteger(0);
+        protected final AtomicLong rejected = new AtomicLong(0);
+        protected final AtomicLong timedOut = new AtomicLong(0);
+
+        protected Bulkhead(int pMaxConcurrent, int pMaxQueued, long pWaitMillis) {
+            maxConcurrent = pMaxConcurrent;
+            maxQueued = pMaxQueued;
+            waitMillis = pWaitMillis;
+            permits = new Semaphore(pMaxConcurrent, true);
+        }
+
+        /**
+         */
+        protected void acquire(String pName) throws WebServiceException {
+            try {
+                // the timed try keeps the fairness - an untimed tryAcquire barges past the queued waiters
+                if (!permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                    if (queued.incrementAndGet() > maxQueued) {
+                        queued.decrementAndGet();
+                        rejected.incrementAndGet();
+                        throw new WebServiceException(Status.SC_429_TOO_MANY_REQUESTS,
+                                String.format("WebService concurrency limit reached [%s]", pName));
+                    }
+                    try {
+                        if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                            timedOut.incrementAndGet();
+                            throw new WebServiceException(Status.SC_503_SERVICE_UNAVAILABLE,
+                                    String.format("WebService concurrency wait timeout [%s]", pName));
+                        }
+                    } finally {
+                        queued.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebServiceException(Status.SC_503_SERVICE_UNAVAILABLE,
+                        String.format("WebService concurrency wait interrupted [%s]", pName));
+            }
+            inFlight.incrementAndGet();
+        }
+
+        /**
+         */
+        protected void release() {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+
+        /**
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         */
+        public int getQueued() {
+            return queued.get();
+        }
+
+        /**
+         */
+        public String getStatistics() {
+            return String.format("in-flight [%s/%s] queued [%s/%s] rejected [%s] timed out [%s]", inFlight.get(),
+                    maxConcurrent, queued.get(), maxQueued, rejected.get(), timedOut.get());
+        }
+    }
+
+    /**
+     * The phase timestamps of one service call.
+     */
+    protected static class CallTiming {
+        protected final long start = System.nanoTime();
+        protected long decoded = start;
+        protected long invoked = start;
+
+        /**
+         */
+        protected void decoded() {
+            decoded = System.nanoTime();
+        }
+
+        /**
+         */
+        protected void invoked() {
+            invoked = System.nanoTime();
+        }
+    }
+
+    /**
+     * <pre>
+     * The call metrics of one service:
+     * - call, error and response cache hit count and a latency histogram
+     * - the time spent in request decoding, method invocation and result encoding (successful calls only)
+     * - a ring buffer of the most recent calls exceeding the slow-call threshold
+     *   with a truncated snippet of the request payload
+     * </pre>
+     */
+    protected static class ServiceMetrics {
+        public static final long DefaultSlowCallThresholdMillis = 1000;
+        public static final int SlowCallBufferSize = 16;
+        public static final int SnippetLength = 200;
+        // the upper bounds of the histogram buckets - plus an overflow bucket
+        protected static final long[] HistogramBoundsMillis = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+        protected final AtomicLong calls = new AtomicLong(0);
+        protected final AtomicLong errors = new AtomicLong(0);
+        protected final AtomicLong cacheHits = new AtomicLong(0);
+        protected final AtomicLong totalNanos = new AtomicLong(0);
+        protected final AtomicLong maxNanos = new AtomicLong(0);
+        protected final AtomicLong decodeNanos = new AtomicLong(0);
+        protected final AtomicLong invokeNanos = new AtomicLong(0);
+        protected final AtomicLong encodeNanos = new AtomicLong(0);
+        protected final AtomicLongArray histogram = new AtomicLongArray(HistogramBoundsMillis.length + 1);
+
+        protected volatile long slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DefaultSlowCallThresholdMillis);
+        protected final SlowCall[] slowCalls = new SlowCall[SlowCallBufferSize];
+        protected int slowCallIndex = 0;
+
+        /**
+         */
+        protected void setSlowCallThreshold(long pMillis) {
+            slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(pMillis);
+        }
+
+        /**
+         */
+        protected void record(CallTiming pTiming, boolean pSuccess, byte[] pRequestData, Charset pEncoding) {
+            long lEnd = System.nanoTime();
+            long lTotal = lEnd - pTiming.start;
+
+            calls.incrementAndGet();
+            totalNanos.addAndGet(lTotal);
+            maxNanos.accumulateAndGet(lTotal, Math::max);
+            histogram.incrementAndGet(bucketOf(lTotal));
+            if (pSuccess) {
+                decodeNanos.addAndGet(pTiming.decoded - pTiming.start);
+                invokeNanos.addAndGet(pTiming.invoked - pTiming.decoded);
+                encodeNanos.addAndGet(lEnd - pTiming.invoked);
+            } else {
+                errors.incrementAndGet();
+            }
+
+            if (lTotal >= slowCallThresholdNanos) {
+                SlowCall lCall = new SlowCall();
+                lCall.timestamp = System.currentTimeMillis();
+                lCall.durationMs = toMillis(lTotal);
+                lCall.decodeMs = toMillis(pTiming.decoded - pTiming.start);
+                lCall.invokeMs = toMillis(pTiming.invoked - pTiming.decoded);
+                lCall.encodeMs = toMillis(lEnd - pTiming.invoked);
+                lCall.success = pSuccess;
+                lCall.request = createSnippet(pRequestData, pEncoding);
+                synchronized (slowCalls) {
+                    slowCalls[slowCallIndex] = lCall;
+                    slowCallIndex = (slowCallIndex + 1) % slowCalls.length;
+                }
+            }
+        }
+
+        /**
+         * A call answered from the response cache - counted as call without phase times.
+         */
+        protected void recordCacheHit(CallTiming pTiming) {
+            long lTotal = System.nanoTime() - pTiming.start;
+
+            calls.incrementAndGet();
+            cacheHits.incrementAndGet();
+            totalNanos.addAndGet(lTotal);
+            maxNanos.accumulateAndGet(lTotal, Math::max);
+            histogram.incrementAndGet(bucketOf(lTotal));
+        }
+
+        /**
+         * A call rejected by the bulkhead - counted as error without phase times.
+         */
+        protected void recordRejected(CallTiming pTiming) {
+            long lTotal = System.nanoTime() - pTiming.start;
+
+            calls.incrementAndGet();
+            errors.incrementAndGet();
+            totalNanos.addAndGet(lTotal);
+            maxNanos.accumulateAndGet(lTotal, Math::max);
+            histogram.incrementAndGet(bucketOf(lTotal));
+        }
+
+        /**
+         */
+        protected static int bucketOf(long pNanos) {
+            long lMillis = TimeUnit.NANOSECONDS.toMillis(pNanos);
+            for (int i = 0; i < HistogramBoundsMillis.length; i++) {
+                if (lMillis < HistogramBoundsMillis[i]) {
+                    return i;
+                }
+            }
+            return HistogramBoundsMillis.length;
+        }
+
+        /**
+         */
+        protected static double toMillis(long pNanos) {
+            return Math.round(pNanos / 1000.0) / 1000.0;
+        }
+
+        /**
+         */
+        protected static String createSnippet(byte[] pData, Charset pEncoding) {
+            if (pData == null || pData.length == 0) {
+                return "";
+            }
+            String lSnippet = new String(pData, 0, Math.min(pData.length, SnippetLength), pEncoding);
+            return pData.length > SnippetLength ? lSnippet + " ..." : lSnippet;
+        }
+
+        /**
+         */
+        protected void reset() {
+            calls.set(0);
+            errors.set(0);
+            cacheHits.set(0);
+            totalNanos.set(0);
+            maxNanos.set(0);
+            decodeNanos.set(0);
+            invokeNanos.set(0);
+            encodeNanos.set(0);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+            synchronized (slowCalls) {
+                Arrays.fill(slowCalls, null);
+                slowCallIndex = 0;
+            }
+        }
+
+        /**
+         */
+        protected ServiceMetricsInfo getInfo(ServiceObject pService) {
+            ServiceMetricsInfo lInfo = new ServiceMetricsInfo();
+            long lCalls = calls.get();
+            // the phase times are recorded for invoked successful calls only
+            long lSuccessful = Math.max(1, lCalls - errors.get() - cacheHits.get());
+
+            lInfo.path = pService.path;
+            lInfo.calls = lCalls;
+            lInfo.errors = errors.get();
+            lInfo.cacheHits = cacheHits.get();
+            lInfo.avgMs = toMillis(totalNanos.get() / Math.max(1, lCalls));
+            lInfo.maxMs = toMillis(maxNanos.get());
+            lInfo.decodeAvgMs = toMillis(decodeNanos.get() / lSuccessful);
+            lInfo.invokeAvgMs = toMillis(invokeNanos.get() / lSuccessful);
+            lInfo.encodeAvgMs = toMillis(encodeNanos.get() / lSuccessful);
+            for (int i = 0; i < histogram.length(); i++) {
+                String lBucket = i < HistogramBoundsMillis.length ? "<" + HistogramBoundsMillis[i] + "ms"
+                        : ">=" + HistogramBoundsMillis[i - 1] + "ms";
+                lInfo.histogram.put(lBucket, histogram.get(i));
+            }
+            if (pService.bulkhead != null) {
+                lInfo.inFlight = pService.bulkhead.getInFlight();
+                lInfo.queued = pService.bulkhead.getQueued();
+            }
+            synchronized (slowCalls) {
+                Arrays.stream(slowCalls).filter(call -> call != null).forEach(lInfo.slowCalls::add);
+            }
+            // slowest first
+            lInfo.slowCalls.sort((c1, c2) -> Double.compare(c2.durationMs, c1.durationMs));
+            return lInfo;
+        }
+    }
+
+    /*********************************************************
+     * The built-in services.
+     *********************************************************/
+    /**
+     * <pre>
+     * The batch service executes several service calls of one http request
+     * in parallel by in-process dispatch - like doDirectCall - on a bounded executor.
+     * 
+     * Request:  {"calls":[{"path":"/webapi/system/get-infos", "body":"{}"}, ...]}
+     * Response: {"results":[{"status":"200", "body":{...}}, ...]}
+     * 
+     * The results are in the order of the calls. The json output of a service is embedded
+     * as is - not as escaped string - a text output as json string and a failed call has a null body.
+     * A full pool runs further calls in the requesting thread.
+     * </pre>
+     */
+    public static class BatchService {
+        public static final String PATH = "/batch";
+        public static final int MaxCalls = 64;
+
+        protected JamnWebServiceProvider provider;
+        protected ExecutorService executor;
+        protected long timeoutMillis = 30000;
+
+        public BatchService(JamnWebServiceProvider pProvider, int pParallelism) {
+            AtomicInteger lCount = new AtomicInteger(0);
+            int lThreads = Math.max(1, pParallelism);
+            provider = pProvider;
+            executor = new ThreadPoolExecutor(lThreads, lThreads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(lThreads * 4), runnable -> {
+                        Thread lThread = new Thread(runnable, "JamnWebService-Batch-" + lCount.incrementAndGet());
+                        lThread.setDaemon(true);
+                        return lThread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        }
+
+        /**
+         */
+        public BatchService setTimeoutMillis(long pMillis) {
+            timeoutMillis = pMillis;
+            return this;
+        }
+
+        /**
+         */
+        @WebService(path = PATH, methods = { "POST" }, contentType = FieldValue.APPLICATION_JSON)
+        public BatchResponse runBatch(BatchRequest pRequest) throws WebServiceException {
+            BatchResponse lResponse = new BatchResponse();
+            if (pRequest.calls.size() > MaxCalls) {
+                throw new WebServiceException(Status.SC_400_BAD_REQUEST,
+                        String.format("WebService batch exceeds [%s] calls", MaxCalls));
+            }
+
+            List<Future<BatchResult>> lFutures = new ArrayList<>(pRequest.calls.size());
+            for (BatchCall call : pRequest.calls) {
+                lFutures.add(executor.submit(() -> execute(call)));
+            }
+
+            long lDeadline = System.currentTimeMillis() + timeoutMillis;
+            for (Future<BatchResult> future : lFutures) {
+                lResponse.results.add(await(future, lDeadline));
+            }
+            return lResponse;
+        }
+
+        /**
+         */
+        protected BatchResult await(Future<BatchResult> pFuture, long pDeadline) {
+            try {
+                return pFuture.get(Math.max(0, pDeadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                pFuture.cancel(true);
+                return new BatchResult(Status.SC_408_TIMEOUT, "");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pFuture.cancel(true);
+                return new BatchResult(Status.SC_500_INTERNAL_ERROR, "");
+            } catch (ExecutionException e) {
+                return new BatchResult(Status.SC_500_INTERNAL_ERROR, "");
+            }
+        }
+
+        /**
+         */
+        protected BatchResult execute(BatchCall pCall) {
+            String lPath = pCall.path == null ? "" : pCall.path;
+            ServiceObject lService = provider.findService(lPath);
+            if (lService == null) {
+                return new BatchResult(Status.SC_404_NOT_FOUND, "");
+            } else if (lService.getServiceClass() == BatchService.class) {
+                // no nested batches
+                return new BatchResult(Status.SC_400_BAD_REQUEST, "");
+            }
+            try {
+                String lBody = provider.callService(lService, pCall.body == null ? "" : pCall.body,
+                        splitPath(stripQuery(lPath)));
+                if (!lService.contentType.equalsIgnoreCase(FieldValue.APPLICATION_JSON)) {
+                    lBody = provider.jsonTool.toString(lBody);
+                }
+                return new BatchResult(Status.SC_200_OK, lBody);
+            } catch (WebServiceException e) {
+                return new BatchResult(e.getHttpStatus(), "");
+            } catch (InvocationTargetException ite) {
+                // a service method may answer with a http status by a WebServiceException
+                if (ite.getCause() instanceof WebServiceException wse) {
+                    LOG.fine(() -> String.format("WebService batch call Error: [%s] [%s]", lPath, wse.getMessage()));
+                    return new BatchResult(wse.getHttpStatus(), "");
+                }
+                return internalError(lPath, ite);
+            } catch (Exception e) {
+                return internalError(lPath, e);
+            }
+        }
+
+        /**
+         */
+        protected BatchResult internalError(String pPath, Exception pError) {
+            LOG.severe(() -> String.format("WebService batch call ERROR [%s] [%s]%s%s", pPath, pError, LS,
+                    getStackTraceFrom(pError)));
+            return new BatchResult(Status.SC_500_INTERNAL_ERROR, "");
+        }
+    }
+
+    /**
+     * <pre>
+     * The metrics service answers the call metrics of all services.
+     * Request:  -
+     * Response: {"services":[{"path":"...", "calls":0, "errors":0, "histogram":{...}, "slowCalls":[...]}, ...]}
+     * </pre>
+     */
+    public static class MetricsService {
+        public static final String PATH = "/metrics";
+
+        protected JamnWebServiceProvider provider;
+
+        public MetricsService(JamnWebServiceProvider pProvider) {
+            provider = pProvider;
+        }
+
+        /**
+         */
+        @WebService(path = PATH, methods = { "GET", "POST" }, contentType = FieldValue.APPLICATION_JSON)
+        public MetricsResponse getMetrics() {
+            return provider.getMetrics();
+        }
+    }
+
+    /**
+     */
+    public static class MetricsResponse {
+        public List<ServiceMetricsInfo> services = new ArrayList<>();
+    }
+
+    /**
+     */
+    public static class ServiceMetricsInfo {
+        public String path = "";
+        public long calls = 0;
+        public long errors = 0;
+        public long cacheHits = 0;
+        public double avgMs = 0;
+        public double maxMs = 0;
+        public double decodeAvgMs = 0;
+        public double invokeAvgMs = 0;
+        public double encodeAvgMs = 0;
+        public Map<String, Long> histogram = new LinkedHashMap<>();
+        public int inFlight = 0;
+        public int queued = 0;
+        public List<SlowCall> slowCalls = new ArrayList<>();
+    }
+
+    /**
+     */
+    public static class SlowCall {
+        public long timestamp = 0;
+        public double durationMs = 0;
+        public double decodeMs = 0;
+        public double invokeMs = 0;
+        public double encodeMs = 0;
+        public boolean success = false;
+        public String request = "";
+    }
+
+    /**
+     */
+    public static class BatchRequest {
+        public List<BatchCall> calls = new ArrayList<>();
+    }
+
+    /**
+     */
+    public static class BatchCall {
+        public String path = "";
+        public String body = "";
+
+        public BatchCall() {
+        }
+
+        public BatchCall(String pPath, String pBody) {
+            path = pPath;
+            body = pBody;
+        }
+    }
+
+    /**
+     * The batch response writes its json itself to embed the json bodies of the results unescaped.
+     */
+    public static class BatchResponse implements JsonContent {
+        public List<BatchResult> results = new ArrayList<>();
+
+        @Override
+        public void writeJsonTo(OutputStream pOut) throws IOException {
+            StringBuilder lJson = new StringBuilder("{\"results\":[");
+            for (int i = 0; i < results.size(); i++) {
+                BatchResult lResult = results.get(i);
+                lJson.append(i > 0 ? "," : "").append("{\"status\":\"").append(lResult.status)
+                        .append("\",\"body\":").append(lResult.body.isEmpty() ? "null" : lResult.body).append("}");
+            }
+            pOut.write(lJson.append("]}").toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The status and the raw json body of a batch call.
+     */
+    public static class BatchResult {
+        public String status = "";
+        public String body = "";
+
+        public BatchResult() {
+        }
+
+        public BatchResult(String pStatus, String pBody) {
+            status = pStatus;
+            body = pBody;
+        }
+    }
+
+    /**
+     * A json service result that writes its json itself instead of the json tool.
+     */
+    public static interface JsonContent {
+        void writeJsonTo(OutputStream pOut) throws IOException;
+    }
+
+    /**
+     * A specialized invoker of one service method - the parameter is ignored for methods without parameter
+     * and an Object[] for methods with several parameters.
+     */
+    @FunctionalInterface
+    public static interface ServiceInvoker {
+        Object invoke(Object pParam) throws Throwable;
+    }
+
+    /**
+     * <pre>
+     * Create a specialized invoker for a service method.
+     * - a LambdaMetafactory generated class calling the method directly
+     *   for methods with a return value
+     * - else or if the lookup has no full access e.g. for a class from another class loader
+     *   a bound MethodHandle adapted to (Object)Object
+     *   - with several (path template) parameters spread from an Object[]
+     * - else as last resort Method.invoke
+     * </pre>
+     */
+    protected static ServiceInvoker createInvoker(Object pInstance, Method pMethod) {
+        boolean lStatic = Modifier.isStatic(pMethod.getModifiers());
+        int lParamCount = pMethod.getParameterCount();
+        boolean lNoParam = lParamCount == 0;
+        MethodHandle lHandle;
+        MethodHandles.Lookup lLookup;
+        try {
+            lLookup = MethodHandles.privateLookupIn(pMethod.getDeclaringClass(), MethodHandles.lookup());
+            lHandle = lLookup.unreflect(pMethod);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOG.fine(() -> String.format("WebService reflective invoker for [%s] [%s]", getServiceMethodName(pMethod), e));
+            pMethod.setAccessible(true);
+            if (lParamCount > 1) {
+                return param -> invokeReflective(pInstance, pMethod, (Object[]) param);
+            }
+            return lNoParam ? param -> invokeReflective(pInstance, pMethod, new Object[0])
+                    : param -> invokeReflective(pInstance, pMethod, new Object[] { param });
+        }
+
+        if (pMethod.getReturnType() != void.class && lParamCount <= 1 && lLookup.hasFullPrivilegeAccess()) {
+            try {
+                return createLambdaInvoker(lLookup, lHandle, pInstance, lStatic, lNoParam);
+            } catch (Throwable e) {
+                LOG.fine(() -> String.format("WebService MethodHandle invoker for [%s] [%s]",
+                        getServiceMethodName(pMethod), e));
+            }
+        }
+
+        MethodHandle lBound = lStatic ? lHandle : lHandle.bindTo(pInstance);
+        if (lParamCount > 1) {
+            // several parameters are passed as Object[]
+            lBound = lBound.asSpreader(Object[].class, lParamCount);
+        }
+        if (lNoParam) {
+            MethodHandle lCall = lBound.asType(MethodType.methodType(Object.class));
+            return param -> lCall.invokeExact();
+        }
+        MethodHandle lCall = lBound.asType(MethodType.methodType(Object.class, Object.class));
+        return param -> lCall.invokeExact(param);
+    }
+
+    /**
+     * Method.invoke unwrapped like the other invokers - the method's own exception is thrown as is.
+     */
+    protected static Object invokeReflective(Object pInstance, Method pMethod, Object[] pArgs) throws Throwable {
+        try {
+            return pMethod.invoke(pInstance, pArgs);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    /**
+     */
+    @SuppressWarnings("unchecked")
+    protected static ServiceInvoker createLambdaInvoker(MethodHandles.Lookup pLookup, MethodHandle pHandle,
+            Object pInstance, boolean pStatic, boolean pNoParam) throws Throwable {
+        MethodType lImplType = pHandle.type();
+        Class<?> lReturnType = lImplType.returnType();
+        // the captured instance is the leading receiver parameter
+        MethodType lCapturedType = pStatic ? MethodType.methodType(Object.class)
+                : MethodType.methodType(Object.class, lImplType.parameterType(0));
+        MethodType lInstantiatedType = (pStatic ? lImplType : lImplType.dropParameterTypes(0, 1)).wrap();
+
+        if (pNoParam) {
+            CallSite lSite = LambdaMetafactory.metafactory(pLookup, "get",
+                    lCapturedType.changeReturnType(Supplier.class), MethodType.methodType(Object.class), pHandle,
+                    MethodType.methodType(lReturnType).wrap());
+            Supplier<Object> lSupplier = (Supplier<Object>) (pStatic ? lSite.getTarget().invoke()
+                    : lSite.getTarget().invoke(pInstance));
+            return param -> lSupplier.get();
+        }
+        CallSite lSite = LambdaMetafactory.metafactory(pLookup, "invoke",
+                lCapturedType.changeReturnType(ServiceInvoker.class),
+                MethodType.methodType(Object.class, Object.class), pHandle, lInstantiatedType);
+        return (ServiceInvoker) (pStatic ? lSite.getTarget().invoke() : lSite.getTarget().invoke(pInstance));
+    }
+
+    /**
+     * Exceptions thrown during Service execution.
+     */
+    public static class WebServiceException extends Exception {
+        private static final long serialVersionUID = 1L;
+        private final String httpStatus;
+
+        /**
+         * A service method may throw this exception to answer with a specific http status.
+         */
+        public WebServiceException(String pHttpStatus, String pMsg) {
+            super(pMsg);
+            httpStatus = pHttpStatus;
+        }
+
+        WebServiceException(String pMsg, Throwable pCause) {
+            super(pMsg, pCause);
+            httpStatus = "direct call";
+        }
+
+        WebServiceException(String pMsg) {
+            super(pMsg);
+            httpStatus = "direct call";
+        }
+
+        public String getHttpStatus() {
+            return httpStatus;
+        }
+    }
+
+    /*********************************************************
+     * The public classes.
+     *********************************************************/
+    /**
+     * Exceptions thrown during Service initialization/creation.
+     */
+    public static class WebServiceDefinitionException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public WebServiceDefinitionException(String pMsg) {
+            super(pMsg);
+        }
+
+        public WebServiceDefinitionException(String pMsg, Throwable pCause) {
+            super(pMsg, pCause);
+        }
+    }
+
+    /*********************************************************
+     * The actual JamnServer.ContentProvider Interface Implementation.
+     *********************************************************/
+    @Override
+    public void handleContentProcessing(RequestMessage pRequest, ResponseMessage pResponse) {
+
+        ServiceObject lService = null;
+
+        try {
+            if (pRequest.isMethod("GET") || pRequest.isMethod("POST")) {
+                lService = getServiceInstanceFor(pRequest.getPath(), pRequest.getMethod(),
+                        pRequest.getContentType());
+
+                if (lService.isAsync()) {
+                    handleAsyncCall(lService, pRequest, pResponse);
+                    return;
+                } else if (lService.isStreamed() && Field.HTTP_1_1
+                        .equals(Field.HTTP_VERSION_MARK + pRequest.header().get(Field.HTTP_VERSION))) {
+                    handleStreamedCall(lService, pRequest, pResponse);
+                    return;
+                }
+
+                // the result is serialized straight into the response content buffer
+                String lETag = callService(lService, pRequest.bodyBytes(), Charset.forName(pRequest.getEncoding()),
+                        lService.isTemplate() ? splitPath(stripQuery(pRequest.getPath())) : null,
+                        pResponse.getContentStream());
+                pResponse.setContentType(lService.getContentType());
+                pResponse.setStatus(Status.SC_200_OK);
+
+                if (!lETag.isEmpty() && pRequest.isMethod("GET")) {
+                    pResponse.header().set(Field.ETAG, lETag);
+                    if (isNotModified(pRequest, lETag)) {
+                        pResponse.resetContent();
+                        pResponse.setStatus(Status.SC_304_NOT_MODIFIED);
+                    }
+                }
+            } else if (pRequest.isMethod("OPTIONS")) {
+                pResponse.setStatus(Status.SC_204_NO_CONTENT);
+            } else {
+                pResponse.setStatus(Status.SC_405_METHOD_NOT_ALLOWED);
+            }
+        } catch (WebServiceException wse) {
+            LOG.fine(() -> String.format("WebService API Error: [%s]", wse.getMessage()));
+            pResponse.resetContent();
+            pResponse.setStatus(wse.getHttpStatus());
+        } catch (InvocationTargetException ite) {
+            // a service method may answer with a http status by a WebServiceException
+            if (ite.getCause() instanceof WebServiceException wse) {
+                LOG.fine(() -> String.format("WebService API Error: [%s]", wse.getMessage()));
+                pResponse.resetContent();
+                pResponse.setStatus(wse.getHttpStatus());
+            } else {
+                handleInternalError(lService, ite, pResponse);
+            }
+        } catch (Exception e) {
+            handleInternalError(lService, e, pResponse);
+        }
+    }
+
+    /**
+     * <pre>
+     * Call an async service and release the request worker.
+     * The response is completed when the CompletionStage completes,
+     * after a timeout with 503 - and a timeout or a lost connection cancels the future.
+     * The bulkhead slot is held until the future of the service itself completes
+     * - so a future whose work can not stop at once should complete when its work has ended.
+     * </pre>
+     */
+    protected void handleAsyncCall(ServiceObject pService, RequestMessage pRequest, ResponseMessage pResponse)
+            throws InvocationTargetException, WebServiceException {
+        CompletableFuture<?> lFuture;
+        byte[] lData = pRequest.bodyBytes();
+        Charset lEncoding = Charset.forName(pRequest.getEncoding());
+        pService.enter();
+        CallTiming lTiming = new CallTiming();
+        try {
+            Object lStage = pService.invokeWith(lData, lEncoding,
+                    pService.isTemplate() ? splitPath(stripQuery(pRequest.getPath())) : null, lTiming);
+            lFuture = pService.toFuture(lStage);
+        } catch (InvocationTargetException | WebServiceException | RuntimeException e) {
+            pService.metrics.record(lTiming, false, lData, lEncoding);
+            pService.leave();
+            throw e;
+        }
+
+        lFuture.whenComplete((result, error) -> pService.leave());
+        // the response is driven by a copy - a timeout does not complete the service future
+        CompletableFuture<?> lResult = lFuture.copy();
+        AsyncResponse lAsync = pResponse.startAsync();
+        lAsync.onDisconnect(() -> lFuture.cancel(true));
+        if (pService.asyncTimeoutMillis > 0) {
+            lResult.orTimeout(pService.asyncTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        // completed on a server request worker - not on the thread that completes the future
+        // e.g. the timeout scheduler or the common pool
+        lResult.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                lFuture.cancel(true);
+            }
+            lTiming.invoked();
+            boolean lDone = completeAsyncCall(pService, lAsync, result, error);
+            // recorded before the response is sent
+            pService.metrics.record(lTiming, lDone, lData, lEncoding);
+            lAsync.complete();
+        }, lAsync.getExecutor());
+    }
+
+    /**
+     * <pre>
+     * Call a service with a streamed result and send the elements with chunked transfer encoding
+     * while they are produced - as json array or as NDJSON if the client accepts application/x-ndjson.
+     * The elements are written when the server sends the response - so the bulkhead slot is held
+     * and the metrics are recorded until then. If the response ends without the writer running
+     * - e.g. a failed header write - the slot is released and the result closed on completion.
+     * Declared caches are invalidated after a complete write only.
+     * HTTP/1.0 requests get the json array via the normal content buffer.
+     * </pre>
+     */
+    protected void handleStreamedCall(ServiceObject pService, RequestMessage pRequest, ResponseMessage pResponse)
+            throws InvocationTargetException, WebServiceException {
+        byte[] lData = pRequest.bodyBytes();
+        Charset lEncoding = Charset.forName(pRequest.getEncoding());
+        boolean lNdJson = pRequest.header().has(Field.ACCEPT, FieldValue.APPLICATION_NDJSON);
+        Object lResult;
+
+        pService.enter();
+        CallTiming lTiming = new CallTiming();
+        try {
+            lResult = pService.invokeWith(lData, lEncoding,
+                    pService.isTemplate() ? splitPath(stripQuery(pRequest.getPath())) : null, lTiming);
+        } catch (InvocationTargetException | WebServiceException | RuntimeException e) {
+            pService.metrics.record(lTiming, false, lData, lEncoding);
+            pService.leave();
+            throw e;
+        }
+
+        // finishes the call once - by the writer or when the response ends without running it
+        AtomicBoolean lFinished = new AtomicBoolean(false);
+        Consumer<Boolean> lFinish = done -> {
+            if (lFinished.compareAndSet(false, true)) {
+                if (!done) {
+                    pService.closeResult(lResult);
+                }
+                pService.metrics.record(lTiming, done, lData, lEncoding);
+                pService.leave();
+            }
+        };
+        pResponse.onComplete(() -> lFinish.accept(false));
+
+        pResponse.setContentType(lNdJson ? FieldValue.APPLICATION_NDJSON : pService.getContentType());
+        pResponse.setStatus(Status.SC_200_OK);
+        pResponse.setChunkedContentWriter(out -> {
+            boolean lDone = false;
+            try {
+                pService.writeElements(lResult, lNdJson, out);
+                lDone = true;
+            } catch (WebServiceException | RuntimeException e) {
+                throw new IOException(String.format("WebService streamed result failure [%s]", pService.getName()),
+                        e);
+            } finally {
+                lFinish.accept(lDone);
+            }
+            // only a completely written result invalidates
+            for (String path : pService.invalidates) {
+                invalidateCache(path);
+            }
+        });
+    }
+
+    /**
+     * Prepare the async response for completion - returns true for a successful call.
+     */
+    protected boolean completeAsyncCall(ServiceObject pService, AsyncResponse pAsync, Object pResult,
+            Throwable pError) {
+        boolean lDone = false;
+        ResponseMessage lResponse = pAsync.getResponse();
+        Throwable lError = pError instanceof CompletionException && pError.getCause() != null ? pError.getCause()
+                : pError;
+        try {
+            if (lError == null) {
+                pService.resultEncoder.encode(pResult, lResponse.getContentStream());
+                lResponse.setContentType(pService.getContentType());
+                lResponse.setStatus(Status.SC_200_OK);
+                for (String path : pService.invalidates) {
+                    invalidateCache(path);
+                }
+                lDone = true;
+            } else if (lError instanceof TimeoutException || lError instanceof CancellationException) {
+                LOG.fine(() -> String.format("WebService async call ended [%s] [%s]", pService.getName(), lError));
+                lResponse.setStatus(Status.SC_503_SERVICE_UNAVAILABLE);
+            } else if (lError instanceof WebServiceException wse) {
+                LOG.fine(() -> String.format("WebService API Error: [%s]", wse.getMessage()));
+                lResponse.setStatus(wse.getHttpStatus());
+            } else {
+                handleInternalError(pService, new InvocationTargetException(lError), lResponse);
+            }
+        } catch (Exception e) {
+            handleInternalError(pService, e, lResponse);
+        }
+        return lDone;
+    }
+
+    /**
+     * <pre>
+     * Call a service and apply its declared cache invalidations.
+     * Returns the ETag of a cached response - else an empty string.
+     * </pre>
+     */
+    protected String callService(ServiceObject pService, byte[] pRequestData, Charset pEncoding, String[] pSegments,
+            OutputStream pOut) throws IOException, InvocationTargetException, WebServiceException {
+        String lETag = pService.callWith(pRequestData, pEncoding, pSegments, pOut);
+        for (String path : pService.invalidates) {
+            invalidateCache(path);
+        }
+        return lETag;
+    }
+
+    /**
+     * Call a service with String data and return the String result - e.g. for direct calls.
+     */
+    protected String callService(ServiceObject pService, String pRequestData, String[] pSegments)
+            throws IOException, InvocationTargetException, WebServiceException {
+        ByteArrayOutputStream lOut = new ByteArrayOutputStream();
+        callService(pService, pRequestData.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, pSegments, lOut);
+        return lOut.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     */
+    protected boolean isNotModified(RequestMessage pRequest, String pETag) {
+        String lIfNoneMatch = pRequest.header().get(Field.IF_NONE_MATCH);
+        for (String tag : lIfNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(pETag) || tag.equals("W/" + pETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     */
+    protected void handleInternalError(ServiceObject pService, Exception pException, ResponseMessage pResponse) {
+        String info = pService != null ? pService.getName() : "";
+        info = info + LS + getStackTraceFrom(pException);
+        LOG.severe(
+                String.format("WebService Request Handling internal/runtime ERROR: %s %s %s", pException.toString(),
+                        LS, info));
+        pResponse.resetContent();
+        pResponse.setStatus(Status.SC_500_INTERNAL_ERROR);
+    }
+
+    /**
+     */
+    protected ServiceObject getServiceInstanceFor(String pPath, String pMethod, String pContentType)
+            throws WebServiceException {
+        ServiceObject lService = findService(pPath);
+        if (lService != null) {
             if (!lService.isMethodSupported(pMethod)) {
                 throw new WebServiceException(Status.SC_405_METHOD_NOT_ALLOWED,
                         String.format("Unsupported WebService Method [%s] [%s]", pMethod, lService.getName()));
@@ -0,0 +1,69 @@
+/* Authored by iqbserve.de */
+package org.isa.ipc;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.isa.ipc.JamnWebServiceProvider.ServiceInvoker;
+import org.isa.ipc.sample.web.api.SampleWebApiServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <pre>
+ * JMH benchmark of the WebService dispatch overhead
+ * - the former reflective Method.invoke path
+ * - the generated invoker
+ * 
+ * NOT a unit test - run e.g. from the IDE by the main method.
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebServiceDispatchBenchmark {
+
+    private SampleWebApiServices services;
+    private Method echoMethod;
+    private ServiceInvoker echoInvoker;
+    private String request = "benchmark";
+
+    @Setup
+    public void setup() throws Exception {
+        services = new SampleWebApiServices();
+        echoMethod = SampleWebApiServices.class.getMethod("sendEcho", String.class);
+        echoInvoker = JamnWebServiceProvider.createInvoker(services, echoMethod);
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        return echoMethod.invoke(services, request);
+    }
+
+    @Benchmark
+    public Object invoker() throws Throwable {
+        return echoInvoker.invoke(request);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return services.sendEcho(request);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(WebServiceDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
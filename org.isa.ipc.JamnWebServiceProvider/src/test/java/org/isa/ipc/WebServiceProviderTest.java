@@ -2,16 +2,54 @@
 package org.isa.ipc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.isa.ipc.JamnServer.HttpHeader;
+import org.isa.ipc.JamnServer.HttpHeader.Status;
+import org.isa.ipc.JamnServer.JsonReader;
 import org.isa.ipc.JamnServer.JsonToolWrapper;
+import org.isa.ipc.JamnServer.JsonWriter;
+import org.isa.ipc.JamnServer.RequestMessage;
+import org.isa.ipc.JamnServer.ResponseMessage;
 import org.isa.ipc.JamnServer.UncheckedJsonException;
+import org.isa.ipc.JamnWebServiceProvider.BatchCall;
+import org.isa.ipc.JamnWebServiceProvider.BatchRequest;
+import org.isa.ipc.JamnWebServiceProvider.BatchService;
+import org.isa.ipc.JamnWebServiceProvider.MetricsResponse;
+import org.isa.ipc.JamnWebServiceProvider.MetricsService;
+import org.isa.ipc.JamnWebServiceProvider.PathParam;
+import org.isa.ipc.JamnWebServiceProvider.ServiceInvoker;
+import org.isa.ipc.JamnWebServiceProvider.ServiceMetrics;
+import org.isa.ipc.JamnWebServiceProvider.ServiceMetricsInfo;
+import org.isa.ipc.JamnWebServiceProvider.WebService;
+import org.isa.ipc.JamnWebServiceProvider.WebServiceDefinitionException;
+import org.isa.ipc.JamnWebServiceProvider.WebServiceException;
 import org.isa.ipc.sample.web.api.SampleWebApiServices;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -21,7 +59,10 @@ import org.junit.jupiter.api.Test;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * JamnWebServiceProvider Unit test.
@@ -32,6 +73,7 @@ class WebServiceProviderTest {
     private static HttpClient Client;
     private static JamnServer Server;
     private static String ServerURL;
+    private static JamnWebServiceProvider WebServices;
 
     // JSON Tool
     private static JsonToolWrapper Jack = new JamnServer.JsonToolWrapper() {
@@ -56,6 +98,40 @@ class WebServiceProviderTest {
                 throw new UncheckedJsonException(UncheckedJsonException.TOJSON_ERROR, e);
             }
         }
+
+        @Override
+        public <T> T toObject(byte[] pSrc, Class<T> pType) throws UncheckedJsonException {
+            try {
+                return jack.readValue(pSrc, pType);
+            } catch (IOException e) {
+                throw new UncheckedJsonException(UncheckedJsonException.TOOBJ_ERROR, e);
+            }
+        }
+
+        @Override
+        public <T> JsonReader<T> readerFor(Class<T> pType) {
+            ObjectReader lReader = jack.readerFor(pType);
+            return src -> {
+                try {
+                    return lReader.readValue(src);
+                } catch (IOException e) {
+                    throw new UncheckedJsonException(UncheckedJsonException.TOOBJ_ERROR, e);
+                }
+            };
+        }
+
+        @Override
+        public JsonWriter writerFor(Class<?> pType) {
+            // a declared type writer would skip subclass fields
+            ObjectWriter lWriter = isFinalType(pType) ? jack.writerFor(pType) : jack.writer();
+            return (obj, out) -> {
+                try {
+                    lWriter.writeValue(out, obj);
+                } catch (IOException e) {
+                    throw new UncheckedJsonException(UncheckedJsonException.TOJSON_ERROR, e);
+                }
+            };
+        }
     };
 
     @BeforeAll
@@ -70,13 +146,20 @@ class WebServiceProviderTest {
         ServerURL = "http://localhost:" + Server.getConfig().getPort();
 
         // create the WebService provider
-        JamnWebServiceProvider lWebServiceProvider = new JamnWebServiceProvider()
+        WebServices = new JamnWebServiceProvider()
                 .setJsonTool(Jack)
                 // register the Web-API Services
-                .registerServices(SampleWebApiServices.class);
+                .registerServices(SampleWebApiServices.class)
+                .registerServices(new AsyncTestServices())
+                .registerServices(new LimitedTestServices())
+                .registerServices(new StreamTestServices())
+                .registerServices(new ErrorTestServices())
+                // the built-in batch and metrics service
+                .enableBatchService(2)
+                .enableMetricsService();
 
         // add the provider to the server
-        Server.addContentProvider("WebServiceProvider", lWebServiceProvider);
+        Server.addContentProvider("WebServiceProvider", WebServices);
         // start server
         Server.start();
         assertTrue(Server.isRunning(), "Test Server start FAILED");
@@ -113,6 +196,487 @@ class WebServiceProviderTest {
         assertEquals(404, lResponse.statusCode(), "HTTP Status");
     }
 
+    @Test
+    void testPOSTApiDetails() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/server/get-details"))
+                .headers("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"subjects\":[\"name\",\"provider\",\"größe\"]}"))
+                .build();
+
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        SampleWebApiServices.DetailsResponse lDetails = Jack.toObject(lResponse.body(),
+                SampleWebApiServices.DetailsResponse.class);
+        assertEquals("JamnServer", lDetails.details.get("name"));
+        assertEquals(2, lDetails.details.size());
+
+        // a broken request must not leave partial content
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/server/get-details"))
+                .headers("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"subjects\":")).build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(500, lResponse.statusCode(), "HTTP Status");
+        assertEquals("", lResponse.body());
+    }
+
+    @Test
+    void testPathTemplates() throws Exception {
+        SampleWebApiServices.DocResponse lDoc = getDoc("/api/doc/readme?lang=en", 200);
+        assertEquals("readme", lDoc.name);
+
+        lDoc = getDoc("/api/doc/my%20doc/section/3", 200);
+        assertEquals("my doc", lDoc.name);
+        assertEquals(3, lDoc.section);
+
+        // literal before template
+        assertEquals("index", getDoc("/api/doc/index", 200).name);
+
+        getDoc("/api/doc/readme/section/three", 400);
+        getDoc("/api/doc/readme/chapter/3", 404);
+
+        // conflicts are detected at registration
+        JamnWebServiceProvider lProvider = new JamnWebServiceProvider().registerServices(SampleWebApiServices.class);
+        assertThrows(WebServiceDefinitionException.class, () -> lProvider.registerServices(new ConflictingServices()));
+        assertThrows(WebServiceDefinitionException.class,
+                () -> new JamnWebServiceProvider().registerServices(new UnboundTemplateServices()));
+    }
+
+    private SampleWebApiServices.DocResponse getDoc(String pPath, int pStatus) throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + pPath))
+                .headers("Content-Type", "application/json").GET().build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(pStatus, lResponse.statusCode(), "HTTP Status " + pPath);
+        return pStatus == 200 ? Jack.toObject(lResponse.body(), SampleWebApiServices.DocResponse.class) : null;
+    }
+
+    public static class ConflictingServices {
+        @WebService(path = "/api/doc/{id}", methods = { "GET" })
+        public String getDoc(@PathParam("id") String pId) {
+            return pId;
+        }
+    }
+
+    public static class UnboundTemplateServices {
+        @WebService(path = "/api/item/{id}", methods = { "GET" })
+        public String getItem() {
+            return "";
+        }
+    }
+
+    @Test
+    void testBatchService() throws Exception {
+        BatchRequest lBatch = new BatchRequest();
+        lBatch.calls.add(new BatchCall("/api/about", ""));
+        lBatch.calls.add(new BatchCall("/api/echo", "batch"));
+        lBatch.calls.add(new BatchCall("/api/doc/readme/section/2", ""));
+        lBatch.calls.add(new BatchCall("/api/unknown", ""));
+        lBatch.calls.add(new BatchCall(BatchService.PATH, "{}"));
+        lBatch.calls.add(new BatchCall("/api/forbidden", ""));
+
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + BatchService.PATH))
+                .headers("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(Jack.toString(lBatch))).build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+
+        // json bodies are embedded as is, text bodies as json string
+        JsonNode lResults = new ObjectMapper().readTree(lResponse.body()).get("results");
+        assertEquals(6, lResults.size());
+        assertEquals("0.0.1", lResults.get(0).get("body").get("version").asText());
+        assertEquals("ECHO: batch", lResults.get(1).get("body").asText());
+        assertEquals(2, lResults.get(2).get("body").get("section").asInt());
+        assertEquals("404", lResults.get(3).get("status").asText());
+        assertEquals("400", lResults.get(4).get("status").asText());
+        // the status of a WebServiceException thrown by the service method
+        assertEquals("403", lResults.get(5).get("status").asText());
+        assertTrue(lResults.get(5).get("body").isNull());
+
+        // too many calls
+        lBatch.calls.clear();
+        for (int i = 0; i <= BatchService.MaxCalls; i++) {
+            lBatch.calls.add(new BatchCall("/api/about", ""));
+        }
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + BatchService.PATH))
+                .headers("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(Jack.toString(lBatch))).build();
+        assertEquals(400, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+    }
+
+    @Test
+    void testResponseCache() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter"))
+                .headers("Content-Type", "text/plain").GET().build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        String lValue = lResponse.body();
+        String lETag = lResponse.headers().firstValue("ETag").orElse("");
+        assertTrue(lETag.startsWith("\""), "ETag");
+
+        // cached
+        lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(lValue, lResponse.body());
+        assertEquals(lETag, lResponse.headers().firstValue("ETag").orElse(""));
+
+        HttpRequest lConditional = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter"))
+                .headers("Content-Type", "text/plain", "If-None-Match", lETag).GET().build();
+        lResponse = Client.send(lConditional, BodyHandlers.ofString());
+        assertEquals(304, lResponse.statusCode(), "HTTP Status");
+
+        // invalidated by another service
+        HttpRequest lIncrement = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter/increment"))
+                .headers("Content-Type", "text/plain").POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertEquals(200, Client.send(lIncrement, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+
+        lResponse = Client.send(lConditional, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        assertTrue(Integer.parseInt(lResponse.body()) > Integer.parseInt(lValue));
+
+        // a result computed before a clear is not cached
+        JamnWebServiceProvider.ResponseCache lCache = new JamnWebServiceProvider.ResponseCache(60000, 8);
+        JamnWebServiceProvider.CacheKey lKey = new JamnWebServiceProvider.CacheKey(null, new byte[0]);
+        long lGeneration = lCache.getGeneration();
+        lCache.clear();
+        lCache.put(lKey, "stale".getBytes(), lGeneration);
+        assertEquals(null, lCache.get(lKey));
+        lCache.put(lKey, "current".getBytes(), lCache.getGeneration());
+        assertEquals("current", new String(lCache.get(lKey).data));
+    }
+
+    @Test
+    void testAsyncServices() throws Exception {
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/async/echo"))
+                .headers("Content-Type", "text/plain").POST(HttpRequest.BodyPublishers.ofString("test")).build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        assertEquals("ASYNC ECHO: test", lResponse.body());
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/async/timeout")).GET().build();
+        assertEquals(503, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+
+        // more pending calls than server workers do not block the server
+        AsyncTestServices.Pending.clear();
+        HttpRequest lWaitRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/async/wait")).GET()
+                .build();
+        List<CompletableFuture<HttpResponse<String>>> lWaiting = new ArrayList<>();
+        for (int i = 0; i <= Server.getConfig().getWorkerNumber(); i++) {
+            lWaiting.add(Client.sendAsync(lWaitRequest, BodyHandlers.ofString()));
+        }
+        waitFor(() -> AsyncTestServices.Pending.size() == lWaiting.size());
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/about")).timeout(Duration.ofSeconds(5))
+                .GET().build();
+        assertEquals(200, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+
+        AsyncTestServices.Pending.forEach(future -> future.complete("done"));
+        for (CompletableFuture<HttpResponse<String>> waiting : lWaiting) {
+            assertEquals("done", waiting.get(5, TimeUnit.SECONDS).body());
+        }
+
+        // a client disconnect cancels the pending call
+        AsyncTestServices.Pending.clear();
+        try (Socket lSocket = new Socket("localhost", Server.getConfig().getPort())) {
+            lSocket.getOutputStream().write("GET /api/async/wait HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            lSocket.getOutputStream().flush();
+            waitFor(() -> AsyncTestServices.Pending.size() == 1);
+        }
+        waitFor(() -> AsyncTestServices.Pending.get(0).isCancelled());
+
+        // a server stop closes the pending connections and cancels the calls
+        AsyncTestServices.Pending.clear();
+        JamnServer lServer = new JamnServer(8098);
+        lServer.addContentProvider("WebServiceProvider",
+                new JamnWebServiceProvider().setJsonTool(Jack).registerServices(new AsyncTestServices()));
+        lServer.start();
+        try (Socket lSocket = new Socket("localhost", 8098)) {
+            lSocket.getOutputStream().write("GET /api/async/wait HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            lSocket.getOutputStream().flush();
+            waitFor(() -> AsyncTestServices.Pending.size() == 1);
+            lServer.stop();
+            assertTrue(AsyncTestServices.Pending.get(0).isCancelled(), "Error pending call NOT cancelled");
+            assertEquals(-1, lSocket.getInputStream().read());
+        } finally {
+            lServer.stop();
+        }
+    }
+
+    @Test
+    void testServiceBulkhead() throws Exception {
+        String lPath = "/api/limited/wait";
+        HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + lPath)).GET().build();
+        JamnWebServiceProvider.Bulkhead lBulkhead = WebServices.findService(lPath).bulkhead;
+
+        // the first call holds the single slot
+        CompletableFuture<HttpResponse<String>> lFirst = Client.sendAsync(lRequest, BodyHandlers.ofString());
+        waitFor(() -> lBulkhead.getInFlight() == 1);
+        // the second call is queued
+        CompletableFuture<HttpResponse<String>> lSecond = Client.sendAsync(lRequest, BodyHandlers.ofString());
+        waitFor(() -> lBulkhead.getQueued() == 1);
+        // the third call exceeds the queue
+        assertEquals(429, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+        // the queued call times out
+        assertEquals(503, lSecond.get(5, TimeUnit.SECONDS).statusCode(), "HTTP Status");
+        assertTrue(WebServices.getBulkheadInfos().get(0).startsWith(lPath + " in-flight [1/1] queued [0/1]"));
+        // the rejected calls are recorded as errors
+        assertEquals(2, WebServices.findService(lPath).metrics.errors.get());
+
+        LimitedTestServices.Gate.complete("done");
+        HttpResponse<String> lResponse = lFirst.get(5, TimeUnit.SECONDS);
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        assertEquals("done", lResponse.body());
+        waitFor(() -> lBulkhead.getInFlight() == 0);
+
+        // a timed out async call holds the slot until its work has ended
+        lPath = "/api/limited/work";
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + lPath)).GET().build();
+        JamnWebServiceProvider.Bulkhead lWorkBulkhead = WebServices.findService(lPath).bulkhead;
+        assertEquals(503, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+        assertEquals(1, lWorkBulkhead.getInFlight());
+        LimitedTestServices.Work.get(0).complete("late");
+        waitFor(() -> lWorkBulkhead.getInFlight() == 0);
+    }
+
+    @Test
+    void testServiceMetrics() throws Exception {
+        WebServices.resetMetrics();
+        WebServices.setSlowCallThreshold(0);
+        try {
+            String lLongMessage = "x".repeat(1000);
+            for (String message : new String[] { "one", "two", lLongMessage }) {
+                HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/echo"))
+                        .headers("Content-Type", "text/plain").POST(HttpRequest.BodyPublishers.ofString(message))
+                        .build();
+                assertEquals(200, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+            }
+            HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/async/timeout")).GET()
+                    .build();
+            assertEquals(503, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+            lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter")).GET().build();
+            for (int i = 0; i < 2; i++) {
+                assertEquals(200, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+            }
+
+            lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + MetricsService.PATH)).GET().build();
+            HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+            assertEquals(200, lResponse.statusCode(), "HTTP Status");
+            Map<String, ServiceMetricsInfo> lMetrics = Jack.toObject(lResponse.body(), MetricsResponse.class).services
+                    .stream().collect(Collectors.toMap(info -> info.path, info -> info));
+
+            ServiceMetricsInfo lEcho = lMetrics.get("/api/echo");
+            assertEquals(3, lEcho.calls);
+            assertEquals(0, lEcho.errors);
+            assertEquals(3, lEcho.histogram.values().stream().mapToLong(Long::longValue).sum());
+            assertEquals(3, lEcho.slowCalls.size());
+            assertTrue(lEcho.slowCalls.stream().anyMatch(call -> call.request.equals("one")));
+            assertTrue(lEcho.slowCalls.stream()
+                    .anyMatch(call -> call.request.length() < lLongMessage.length() && call.request.endsWith("...")));
+
+            ServiceMetricsInfo lTimeout = lMetrics.get("/api/async/timeout");
+            assertEquals(1, lTimeout.calls);
+            assertEquals(1, lTimeout.errors);
+            assertTrue(lTimeout.maxMs >= 200);
+
+            // response cache hits are recorded as calls
+            ServiceMetricsInfo lCounter = lMetrics.get("/api/counter");
+            assertEquals(2, lCounter.calls);
+            assertTrue(lCounter.cacheHits >= 1);
+        } finally {
+            WebServices.setSlowCallThreshold(ServiceMetrics.DefaultSlowCallThresholdMillis);
+        }
+    }
+
+    @Test
+    void testStreamedResults() throws Exception {
+        int lCount = 5000;
+        HttpRequest lRequest = HttpRequest.newBuilder()
+                .uri(new URI(ServerURL + "/api/doc/test/sections/" + lCount)).GET().build();
+        HttpResponse<String> lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        assertEquals("chunked", lResponse.headers().firstValue("Transfer-Encoding").orElse(""));
+        SampleWebApiServices.DocResponse[] lDocs = Jack.toObject(lResponse.body(),
+                SampleWebApiServices.DocResponse[].class);
+        assertEquals(lCount, lDocs.length);
+        assertEquals(lCount, lDocs[lCount - 1].section);
+
+        // NDJSON
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/doc/test/sections/3"))
+                .headers("Accept", "application/x-ndjson").GET().build();
+        lResponse = Client.send(lRequest, BodyHandlers.ofString());
+        assertEquals(200, lResponse.statusCode(), "HTTP Status");
+        assertEquals("application/x-ndjson", lResponse.headers().firstValue("Content-Type").orElse(""));
+        List<String> lLines = lResponse.body().lines().toList();
+        assertEquals(3, lLines.size());
+        assertEquals(2, Jack.toObject(lLines.get(1), SampleWebApiServices.DocResponse.class).section);
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/stream/iterator")).GET().build();
+        assertEquals("[\"a\",\"b\",\"c\"]", Client.send(lRequest, BodyHandlers.ofString()).body());
+
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/stream/publisher")).GET().build();
+        assertEquals(IntStream.rangeClosed(1, 100).boxed().toList().toString().replace(" ", ""),
+                Client.send(lRequest, BodyHandlers.ofString()).body());
+
+        // an error during streaming aborts the response
+        HttpRequest lFailing = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/stream/failing")).GET().build();
+        assertThrows(IOException.class, () -> Client.send(lFailing, BodyHandlers.ofString()));
+
+        // and does not invalidate the declared caches
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter")).GET().build();
+        String lETag = Client.send(lRequest, BodyHandlers.ofString()).headers().firstValue("ETag").orElse("");
+        assertThrows(IOException.class, () -> Client.send(lFailing, BodyHandlers.ofString()));
+        lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/counter"))
+                .headers("If-None-Match", lETag).GET().build();
+        assertEquals(304, Client.send(lRequest, BodyHandlers.ofString()).statusCode(), "HTTP Status");
+
+        // direct calls get the buffered json array
+        assertEquals("[\"a\",\"b\",\"c\"]", WebServices.doDirectCall("/api/stream/iterator", ""));
+
+        // a failing header write releases the slot and closes the stream
+        JamnWebServiceProvider.ServiceObject lService = WebServices.findService("/api/stream/limited");
+        ResponseMessage lBroken = new ResponseMessage(new OutputStream() {
+            @Override
+            public void write(int pByte) throws IOException {
+                throw new IOException("Broken connection");
+            }
+        });
+        WebServices.handleStreamedCall(lService, new RequestMessage(new HttpHeader()), lBroken);
+        assertEquals(1, lService.bulkhead.getInFlight());
+        assertThrows(IOException.class, lBroken::send);
+        assertEquals(0, lService.bulkhead.getInFlight());
+        assertTrue(StreamTestServices.Closed.get(), "Error stream NOT closed");
+    }
+
+    private static void waitFor(BooleanSupplier pCondition) throws InterruptedException {
+        long lEnd = System.currentTimeMillis() + 5000;
+        while (!pCondition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < lEnd, "Condition timeout");
+            Thread.sleep(20);
+        }
+    }
+
+    public static class LimitedTestServices {
+        static final CompletableFuture<String> Gate = new CompletableFuture<>();
+        static final List<CompletableFuture<String>> Work = new CopyOnWriteArrayList<>();
+
+        @WebService(path = "/api/limited/wait", methods = { "GET" }, contentType = "text/plain", maxConcurrent = 1,
+                queue = 1, queueTimeoutMs = 300)
+        public String waitForGate() throws Exception {
+            return Gate.get(10, TimeUnit.SECONDS);
+        }
+
+        @WebService(path = "/api/limited/work", methods = { "GET" }, contentType = "text/plain", maxConcurrent = 1,
+                asyncTimeoutMs = 200)
+        public CompletableFuture<String> startWork() {
+            // a work that does not stop at once when cancelled
+            CompletableFuture<String> lWork = new CompletableFuture<>() {
+                @Override
+                public boolean cancel(boolean pMayInterruptIfRunning) {
+                    return false;
+                }
+            };
+            Work.add(lWork);
+            return lWork;
+        }
+    }
+
+    public static class ErrorTestServices {
+
+        @WebService(path = "/api/forbidden", methods = { "GET", "POST" }, contentType = "text/plain")
+        public String forbidden() throws WebServiceException {
+            throw new WebServiceException(Status.SC_403_FORBIDDEN, "Forbidden test service");
+        }
+    }
+
+    public static class StreamTestServices {
+        static final AtomicBoolean Closed = new AtomicBoolean(false);
+
+        @WebService(path = "/api/stream/iterator", methods = { "GET" })
+        public Iterator<String> getIterator() {
+            return List.of("a", "b", "c").iterator();
+        }
+
+        @WebService(path = "/api/stream/publisher", methods = { "GET" })
+        public Flow.Publisher<Integer> getPublisher() {
+            return subscriber -> {
+                SubmissionPublisher<Integer> lPublisher = new SubmissionPublisher<>();
+                lPublisher.subscribe(subscriber);
+                CompletableFuture.runAsync(() -> {
+                    IntStream.rangeClosed(1, 100).forEach(lPublisher::submit);
+                    lPublisher.close();
+                });
+            };
+        }
+
+        @WebService(path = "/api/stream/limited", methods = { "GET" }, maxConcurrent = 1)
+        public Stream<Integer> getLimited() {
+            return Stream.of(1, 2, 3).onClose(() -> Closed.set(true));
+        }
+
+        @WebService(path = "/api/stream/failing", methods = { "GET" }, invalidates = { "/api/counter" })
+        public Stream<Integer> getFailing() {
+            return IntStream.rangeClosed(1, 100000).boxed().map(nr -> {
+                if (nr == 50000) {
+                    throw new IllegalStateException("Stream test failure");
+                }
+                return nr;
+            });
+        }
+    }
+
+    public static class AsyncTestServices {
+        static final List<CompletableFuture<String>> Pending = new CopyOnWriteArrayList<>();
+
+        @WebService(path = "/api/async/wait", methods = { "GET" }, contentType = "text/plain")
+        public CompletableFuture<String> waitForCompletion() {
+            CompletableFuture<String> lFuture = new CompletableFuture<>();
+            Pending.add(lFuture);
+            return lFuture;
+        }
+
+        @WebService(path = "/api/async/timeout", methods = { "GET" }, contentType = "text/plain", asyncTimeoutMs = 200)
+        public CompletableFuture<String> neverComplete() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    @Test
+    void testServiceInvokers() throws Throwable {
+        SampleWebApiServices lServices = new SampleWebApiServices();
+        ServiceInvoker lEcho = JamnWebServiceProvider
+                .createInvoker(lServices, SampleWebApiServices.class.getMethod("sendEcho", String.class));
+        assertEquals("ECHO: test", lEcho.invoke("test"));
+
+        // primitive, void and static methods
+        ServiceInvoker lLength = JamnWebServiceProvider.createInvoker(this,
+                WebServiceProviderTest.class.getDeclaredMethod("length", String.class));
+        assertEquals(4, lLength.invoke("test"));
+        assertEquals(null, JamnWebServiceProvider
+                .createInvoker(this, WebServiceProviderTest.class.getDeclaredMethod("doNothing")).invoke(null));
+        assertEquals("static", JamnWebServiceProvider
+                .createInvoker(null, WebServiceProviderTest.class.getDeclaredMethod("getStatic")).invoke(null));
+
+        // the reflective fallback throws the exception of the method - not a wrapping InvocationTargetException
+        assertThrows(IllegalStateException.class, () -> JamnWebServiceProvider.invokeReflective(this,
+                WebServiceProviderTest.class.getDeclaredMethod("failing"), new Object[0]));
+    }
+
+    String failing() {
+        throw new IllegalStateException("failing service");
+    }
+
+    private int length(String pValue) {
+        return pValue.length();
+    }
+
+    private void doNothing() {
+        // void service
+    }
+
+    private static String getStatic() {
+        return "static";
+    }
+
     @Test
     void testGETApiAbout() throws Exception {
         HttpRequest lRequest = HttpRequest.newBuilder().uri(new URI(ServerURL + "/api/about"))
@@ -9,7 +9,12 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.isa.ipc.JamnWebServiceProvider.PathParam;
 import org.isa.ipc.JamnWebServiceProvider.WebService;
 
 /**
@@ -121,6 +126,118 @@ public class SampleWebApiServices {
         }
     }
 
+    /***************************************************************************************
+     * WebService - Path templates
+     **************************************************************************************/
+    /**
+     * <pre>
+     * WebService - Doc
+     * with a path template parameter - accessible via get
+     * http://localhost:8099/api/doc/readme
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/doc/{name}", methods = { "GET" }, contentType = APPLICATION_JSON)
+    public DocResponse sendDoc(@PathParam("name") String pName) {
+        return new DocResponse(pName, 0);
+    }
+
+    /**
+     * <pre>
+     * WebService - Doc Section
+     * with typed path template parameters
+     * http://localhost:8099/api/doc/readme/section/2
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/doc/{name}/section/{nr}", methods = { "GET" }, contentType = APPLICATION_JSON)
+    public DocResponse sendDocSection(@PathParam("name") String pName, @PathParam("nr") int pNr) {
+        return new DocResponse(pName, pNr);
+    }
+
+    /**
+     * <pre>
+     * WebService - Doc Index
+     * a literal path takes precedence over a template
+     * http://localhost:8099/api/doc/index
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/doc/index", methods = { "GET" }, contentType = APPLICATION_JSON)
+    public DocResponse sendDocIndex() {
+        return new DocResponse("index", 0);
+    }
+
+    /**
+     * <pre>
+     * WebService - Doc Sections
+     * a streamed result - the sections are sent one by one while they are created
+     * as json array or as NDJSON for "Accept: application/x-ndjson"
+     * http://localhost:8099/api/doc/{name}/sections/{count}
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/doc/{name}/sections/{count}", methods = { "GET" }, contentType = APPLICATION_JSON)
+    public Stream<DocResponse> sendDocSections(@PathParam("name") String pName, @PathParam("count") int pCount) {
+        return IntStream.rangeClosed(1, pCount).mapToObj(nr -> new DocResponse(pName, nr));
+    }
+
+    /**
+     */
+    public static class DocResponse {
+        public String name = "";
+        public int section = 0;
+
+        public DocResponse() {
+        }
+
+        public DocResponse(String pName, int pSection) {
+            name = pName;
+            section = pSection;
+        }
+    }
+
+    /***************************************************************************************
+     * WebService - Async
+     **************************************************************************************/
+    /**
+     * <pre>
+     * WebService - Async Echo
+     * the result is provided by a CompletableFuture - the server worker is not blocked
+     * http://localhost:8099/api/async/echo
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/async/echo", methods = { "POST" }, contentType = TEXT_PLAIN)
+    public CompletableFuture<String> sendAsyncEcho(String pRequest) {
+        return CompletableFuture.supplyAsync(() -> "ASYNC ECHO: " + pRequest);
+    }
+
+    /***************************************************************************************
+     * WebService - Cached responses
+     **************************************************************************************/
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    /**
+     * <pre>
+     * WebService - Counter
+     * the response is cached for a minute - GET requests get an ETag
+     * http://localhost:8099/api/counter
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/counter", methods = { "GET", "POST" }, contentType = TEXT_PLAIN, cacheTtlMs = 60000)
+    public String sendCounter() {
+        return String.valueOf(counter.incrementAndGet());
+    }
+
+    /**
+     * <pre>
+     * WebService - Counter increment
+     * invalidates the cached counter response
+     * http://localhost:8099/api/counter/increment
+     * </pre>
+     */
+    @WebService(path = PATHBASE_API + "/counter/increment", methods = { "POST" }, contentType = TEXT_PLAIN, invalidates = {
+            PATHBASE_API + "/counter" })
+    public String incrementCounter() {
+        return String.valueOf(counter.incrementAndGet());
+    }
+
     /***************************************************************************************
      **************************************************************************************/
 }
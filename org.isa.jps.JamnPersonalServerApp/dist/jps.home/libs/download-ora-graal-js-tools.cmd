@@ -0,0 +1,5 @@
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/tools/chromeinspector/22.0.0/chromeinspector-22.0.0.jar
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/tools/profiler/22.0.0/profiler-22.0.0.jar
+
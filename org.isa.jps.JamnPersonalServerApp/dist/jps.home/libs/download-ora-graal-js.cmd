@@ -0,0 +1,15 @@
+
+
+curl -O https://repo.maven.apache.org/maven2/org/graalvm/js/js/22.0.0/js-22.0.0.jar 
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/js/js-scriptengine/22.0.0/js-scriptengine-22.0.0.jar
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/sdk/graal-sdk/22.0.0/graal-sdk-22.0.0.jar
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/truffle/truffle-api/22.0.0/truffle-api-22.0.0.jar
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/regex/regex/22.0.0/regex-22.0.0.jar 
+
+
+curl -O https://repo1.maven.org/maven2/org/graalvm/tools/chromeinspector/22.0.0/chromeinspector-22.0.0.jar
+
@@ -0,0 +1,4 @@
+/* Authored by iqbserve.de */
+
+// install js scripts as cli commands
+HostApp.createJSCliCommand("jsinfo", "js-info.js", "", "Show JavaScript Engine Infos");
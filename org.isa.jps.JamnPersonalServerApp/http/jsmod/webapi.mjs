@@ -1,4 +1,5 @@
 import { WbProperties } from '../jsmod/workbench-properties.mjs';
+import { callWebService } from '../jsmod/tools.mjs';
 
 /**
  * The module provides web service url name constants
@@ -22,3 +23,43 @@ export const service_shellcmd = get("/service/shell-cmd");
 export const service_get_dbconnections = get("/service/get-db-connections");
 export const service_save_dbconnections = get("/service/save-db-connections");
 export const service_delete_dbconnections = get("/service/delete-db-connections");
+
+export const service_batch = get("/batch");
+
+/**
+ * Calls issued in the same tick are coalesced
+ * into one request to the server side batch service.
+ * The returned promise resolves to the parsed json result of the single call.
+ */
+let pendingCalls = [];
+
+export function batchCall(endpoint, requestData = "{}") {
+	return new Promise((resolve, reject) => {
+		pendingCalls.push({ call: { path: endpoint, body: requestData }, resolve: resolve, reject: reject });
+		if (pendingCalls.length === 1) {
+			queueMicrotask(flushBatch);
+		}
+	});
+}
+
+function flushBatch() {
+	const calls = pendingCalls;
+	pendingCalls = [];
+
+	if (calls.length === 1) {
+		callWebService(calls[0].call.path, calls[0].call.body).then(calls[0].resolve, calls[0].reject);
+		return;
+	}
+
+	const request = JSON.stringify({ calls: calls.map((item) => item.call) });
+	callWebService(service_batch, request).then((response) => {
+		response.results.forEach((result, i) => {
+			if (result.status === "200") {
+				// the json result is embedded as is
+				calls[i].resolve(result.body);
+			} else {
+				calls[i].reject(new Error(`WebService batch call [${calls[i].call.path}] failed [${result.status}]`));
+			}
+		});
+	}).catch((error) => calls.forEach((item) => item.reject(error)));
+}
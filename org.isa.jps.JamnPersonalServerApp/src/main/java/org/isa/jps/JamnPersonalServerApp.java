@@ -6,6 +6,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -31,11 +32,17 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.isa.ipc.JamnServer;
+import org.isa.ipc.JamnServer.JsonReader;
+import org.isa.ipc.JamnServer.JsonWriter;
 import org.isa.ipc.JamnServer.RequestMessage;
 import org.isa.ipc.JamnServer.UncheckedJsonException;
 import org.isa.ipc.JamnWebContentProvider;
+import org.isa.ipc.JamnWebContentProvider.ArchiveFileProvider;
+import org.isa.ipc.JamnWebContentProvider.DefaultFileCache;
 import org.isa.ipc.JamnWebContentProvider.DefaultFileEnricher;
 import org.isa.ipc.JamnWebContentProvider.FileHelper;
+import org.isa.ipc.JamnWebContentProvider.Minifier;
+import org.isa.ipc.JamnWebContentProvider.OffHeapFileCache;
 import org.isa.ipc.JamnWebServiceProvider;
 import org.isa.ipc.JamnWebServiceProvider.WebServiceDefinitionException;
 import org.isa.ipc.JamnWebSocketProvider;
@@ -56,6 +63,8 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * <pre>
@@ -107,6 +116,14 @@ public class JamnPersonalServerApp {
     protected static final String PROPERTIES_NAME = "jps.properties";
     protected static final String LOGGING_PROPERTIES_NAME = "jps.logging.properties";
     protected static final String BUILD_INFO_PROPERTIES_NAME = "build.info.properties";
+    protected static final String CONTENT_TYPES_NAME = "content-types.properties";
+    protected static final String DEFAULT_CONTENT_TYPES = String.join(LF,
+            "##",
+            "## WebContentProvider content type overrides and additions by file extension",
+            "## extension=mime/type[;text][;compressible][;nocache]",
+            "##",
+            "#wasm=application/wasm;compressible",
+            "#md=text/markdown;text;compressible", "");
     protected static final String EXTENSION_AUTOLOAD_FILE = "extentions-auto-load.json";
     protected static final String DEV_LIBS_PATH = "dev.libs.path";
 
@@ -138,6 +155,7 @@ public class JamnPersonalServerApp {
     protected Config config;
     protected JamnServer server;
     protected JamnServer.JsonToolWrapper jsonTool;
+    protected JamnWebContentProvider webContentProvider;
     protected JamnWebServiceProvider webServiceProvider;
     protected JamnWebSocketProvider webSocketProvider;
 
@@ -300,6 +318,9 @@ public class JamnPersonalServerApp {
         if (server != null) {
             server.stop();
         }
+        if (webContentProvider != null) {
+            webContentProvider.stopFileWatcher();
+        }
         if (jpsCli != null) {
             jpsCli.stop();
         }
@@ -605,6 +626,40 @@ public class JamnPersonalServerApp {
                 }
             }
 
+            @Override
+            public <T> T toObject(byte[] pSrc, Class<T> pType) throws UncheckedJsonException {
+                try {
+                    return jack.readValue(pSrc, pType);
+                } catch (IOException e) {
+                    throw new UncheckedJsonException(UncheckedJsonException.TOOBJ_ERROR, e);
+                }
+            }
+
+            @Override
+            public <T> JsonReader<T> readerFor(Class<T> pType) {
+                ObjectReader lReader = jack.readerFor(pType);
+                return src -> {
+                    try {
+                        return lReader.readValue(src);
+                    } catch (IOException e) {
+                        throw new UncheckedJsonException(UncheckedJsonException.TOOBJ_ERROR, e);
+                    }
+                };
+            }
+
+            @Override
+            public JsonWriter writerFor(Class<?> pType) {
+                // a declared type writer would skip subclass fields
+                ObjectWriter lWriter = isFinalType(pType) ? jack.writerFor(pType) : jack.writer();
+                return (obj, out) -> {
+                    try {
+                        lWriter.writeValue(out, obj);
+                    } catch (IOException e) {
+                        throw new UncheckedJsonException(UncheckedJsonException.TOJSON_ERROR, e);
+                    }
+                };
+            }
+
             @Override
             public String prettify(String pJsonInput) {
                 try {
@@ -641,8 +696,13 @@ public class JamnPersonalServerApp {
             lRootPath = Tool.ensureSubDir(config.getWebFileRoot(), AppHome).toString();
         }
 
+        DefaultFileEnricherValueProvider lValueProvider = new DefaultFileEnricherValueProvider(AppHome, config)
+                // set the service url root as injectable value for web content
+                // e.g. javascript modules - see webapi.mjs
+                .addValue(WEBSERVICE_URL_ROOT, config.getWebServiceUrlRoot());
+
         // create the provider with a webroot
-        JamnWebContentProvider lWebContentProvider = new JamnWebContentProvider(lRootPath)
+        webContentProvider = new JamnWebContentProvider(lRootPath)
                 .setConfig(server.getConfig())
                 // extend a FileHelper method
                 .setFileHelper(new FileHelper() {
@@ -653,14 +713,51 @@ public class JamnPersonalServerApp {
                     }
                 })
                 // create and set a file enricher with a provider for template values
-                .setFileEnricher(new DefaultFileEnricher(
-                        new DefaultFileEnricherValueProvider(AppHome, config)
-                                // set the service url root as injectable value for web content
-                                // e.g. javascript modules - see webapi.mjs
-                                .addValue(WEBSERVICE_URL_ROOT, config.getWebServiceUrlRoot())));
+                .setFileEnricher(new DefaultFileEnricher(lValueProvider))
+                // Cache-Control header by path patterns
+                .addCacheControlPolicies(config.getWebContentCacheControl());
+
+        if (!config.getWebContentArchive().isEmpty()) {
+            // serve the webroot from a single zip/jar
+            webContentProvider.setFileProvider(new ArchiveFileProvider(Paths.get(config.getWebContentArchive()),
+                    lRootPath, config.getWebContentArchiveRoot()));
+        }
+
+        // content type overrides and additions
+        Properties lContentTypes = new Properties();
+        lContentTypes.load(new StringReader(loadOrCreateConfigFile(CONTENT_TYPES_NAME, DEFAULT_CONTENT_TYPES)));
+        webContentProvider.getContentTypes().load(lContentTypes);
+
+        if (config.isWebContentProductionMode()) {
+            // cache web files and invalidate them on file changes
+            // including the injected template components
+            if (config.isWebContentCacheOffHeap()) {
+                // keep the cached content out of the limited heap
+                webContentProvider.setFileCache(new OffHeapFileCache(config.getWebContentCacheMaxBytes(), 0));
+            } else {
+                webContentProvider.setFileCache(new DefaultFileCache(config.getWebContentCacheMaxBytes(), 0));
+            }
+            if (config.isWebContentMinify()) {
+                // serve minified js/css - development mode keeps them readable
+                webContentProvider.setMinifier(new Minifier());
+            }
+            // content hashed asset urls served as immutable
+            webContentProvider.setFingerprintEnabled(config.isWebContentFingerprint(),
+                    config.isWebContentFingerprintModules());
+            webContentProvider.setDevelopmentMode(false)
+                    .addWatchRoot(lValueProvider.getComponentsRootPath())
+                    .startFileWatcher();
+        }
 
         // add the provider to server
-        server.addContentProvider(CONTENT_PROVIDER_ID, lWebContentProvider);
+        server.addContentProvider(CONTENT_PROVIDER_ID, webContentProvider);
+        CLICommandInitializer.createWebContentProviderCliCommands(webContentProvider, config);
+
+        if (config.isWebContentWarmUpEnabled()) {
+            // index and preload the web files in the background
+            webContentProvider.startWarmUp(config.getWebContentWarmUpMaxFileSize(),
+                    config.getWebContentWarmUpParallelism());
+        }
         LOG.info(() -> String.format("%s content provider installed [%s] on [%s]", INIT_LOGPRFX,
                 JamnWebContentProvider.class.getSimpleName(), lRootPath));
 
@@ -675,7 +772,8 @@ public class JamnPersonalServerApp {
             // create the WebService provider
             webServiceProvider = new JamnWebServiceProvider()
                     .setJsonTool(jsonTool)
-                    .setUrlRoot(config.getWebServiceUrlRoot());
+                    .setUrlRoot(config.getWebServiceUrlRoot())
+                    .setSlowCallThreshold(config.getWebServiceSlowCallThreshold());
 
             server.addContentProvider(SERVICE_PROVIDER_ID, webServiceProvider);
 
@@ -684,6 +782,10 @@ public class JamnPersonalServerApp {
 
             // install app default web services
             registerWebServices(new DefaultWebServices(osIFace));
+            if (config.getWebServiceBatchParallelism() > 0) {
+                webServiceProvider.enableBatchService(config.getWebServiceBatchParallelism());
+            }
+            webServiceProvider.enableMetricsService();
 
             CLICommandInitializer.createWebServiceProviderCliCommands(webServiceProvider, getJsonTool());
         }
@@ -777,6 +879,23 @@ public class JamnPersonalServerApp {
                 "#JPS Profile", JPS_PROFILE + "=" + APP_PROFILE, "",
                 "#WebContentProvider files root folder", "web.file.root=" + WEB_FILE_ROOT, "",
                 "#Web File-Enricher root folder", "web.file.enricher.root=http/jsmod/html-components", "",
+                "#WebContentProvider production mode - caching with file change invalidation",
+                "web.content.production.mode=true", "",
+                "#WebContentProvider Cache-Control by path pattern - pattern:value;pattern:value",
+                "web.content.cache.control=/images/*:max-age=86400;/**:no-cache", "",
+                "#WebContentProvider max cache size in bytes", "web.content.cache.max.bytes=33554432", "",
+                "#WebContentProvider keep cached content off-heap in direct buffers",
+                "web.content.cache.offheap=false", "",
+                "#WebContentProvider minify js/css files in production mode", "web.content.minify=false", "",
+                "#WebContentProvider serve the web files from a zip/jar archive instead of the webroot folder",
+                "web.content.archive=", "",
+                "#WebContentProvider folder of the web files inside the archive", "web.content.archive.root=http/", "",
+                "#WebContentProvider content hashed asset urls in production mode", "web.content.fingerprint=false", "",
+                "#WebContentProvider content hashed js module urls - NOT for dynamically imported modules",
+                "web.content.fingerprint.modules=false", "",
+                "#WebContentProvider background warm-up at startup", "web.content.warmup.enabled=true", "",
+                "#WebContentProvider warm-up max preload file size", "web.content.warmup.max.file.size=262144", "",
+                "#WebContentProvider warm-up parallelism", "web.content.warmup.parallelism=2", "",
                 "#JPS extensions root folder name", "jps.extension.root=" + EXTENSION_ROOT, "",
                 "#JPS extensions bin folder name", "jps.extension.bin=" + EXTENSION_BIN, "",
                 "#JPS extensions data folder name", "jps.extension.data=" + EXTENSION_DATA, "",
@@ -798,6 +917,10 @@ public class JamnPersonalServerApp {
                 "#WebSocket url root", "websocket.url.root=/wsoapi", "",
                 "#WebSocket max upstream size", "websocket.max.upstream.size=65000", "",
                 "#WebService url root", "webservice.url.root=/webapi", "",
+                "#WebService batch service parallelism - 0 disables the batch service",
+                "webservice.batch.parallelism=4", "",
+                "#WebService calls taking longer (ms) are logged as slow calls",
+                "webservice.slowcall.threshold=1000", "",
                 "#Child WebSocket url root", "child.websocket.url.root=/childapi", "",
                 "#JVM debug option",
                 "jvm.debug.option=-agentlib:jdwp=transport=dt_socket,address=localhost:9009,server=y,suspend=y", "",
@@ -850,6 +973,54 @@ public class JamnPersonalServerApp {
             return props.getProperty("web.file.enricher.root", "http/jsmod/html-components");
         }
 
+        public boolean isWebContentProductionMode() {
+            return Boolean.parseBoolean(props.getProperty("web.content.production.mode", TRUE));
+        }
+
+        public String getWebContentCacheControl() {
+            return props.getProperty("web.content.cache.control", "/images/*:max-age=86400;/**:no-cache");
+        }
+
+        public long getWebContentCacheMaxBytes() {
+            return Long.valueOf(props.getProperty("web.content.cache.max.bytes", "33554432"));
+        }
+
+        public String getWebContentArchive() {
+            return props.getProperty("web.content.archive", "").trim();
+        }
+
+        public String getWebContentArchiveRoot() {
+            return props.getProperty("web.content.archive.root", "http/");
+        }
+
+        public boolean isWebContentFingerprint() {
+            return Boolean.parseBoolean(props.getProperty("web.content.fingerprint", FALSE));
+        }
+
+        public boolean isWebContentFingerprintModules() {
+            return Boolean.parseBoolean(props.getProperty("web.content.fingerprint.modules", FALSE));
+        }
+
+        public boolean isWebContentMinify() {
+            return Boolean.parseBoolean(props.getProperty("web.content.minify", FALSE));
+        }
+
+        public boolean isWebContentCacheOffHeap() {
+            return Boolean.parseBoolean(props.getProperty("web.content.cache.offheap", FALSE));
+        }
+
+        public boolean isWebContentWarmUpEnabled() {
+            return Boolean.parseBoolean(props.getProperty("web.content.warmup.enabled", TRUE));
+        }
+
+        public long getWebContentWarmUpMaxFileSize() {
+            return Long.valueOf(props.getProperty("web.content.warmup.max.file.size", "262144"));
+        }
+
+        public int getWebContentWarmUpParallelism() {
+            return Integer.valueOf(props.getProperty("web.content.warmup.parallelism", "2"));
+        }
+
         public String getDataRoot() {
             return props.getProperty("jps.data.root", DATA_ROOT);
         }
@@ -966,6 +1137,14 @@ public class JamnPersonalServerApp {
             return Boolean.parseBoolean(props.getProperty("webservice.enabled", TRUE));
         }
 
+        public int getWebServiceBatchParallelism() {
+            return Integer.valueOf(props.getProperty("webservice.batch.parallelism", "4"));
+        }
+
+        public long getWebServiceSlowCallThreshold() {
+            return Long.valueOf(props.getProperty("webservice.slowcall.threshold", "1000"));
+        }
+
         public boolean isWebSocketEnabled() {
             return Boolean.parseBoolean(props.getProperty("websocket.enabled", TRUE));
         }
@@ -1,6 +1,7 @@
 /* Authored by iqbserve.de */
 package org.isa.jps.comp;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -11,9 +12,12 @@ import java.util.stream.Collectors;
 
 import org.isa.ipc.JamnServer;
 import org.isa.ipc.JamnServer.JsonToolWrapper;
+import org.isa.ipc.JamnWebContentProvider;
 import org.isa.ipc.JamnWebServiceProvider;
+import org.isa.ipc.JamnWebServiceProvider.MetricsResponse;
 import org.isa.jps.JamnPersonalServerApp;
 import org.isa.jps.JamnPersonalServerApp.CommonHelper;
+import org.isa.jps.JamnPersonalServerApp.Config;
 import org.isa.jps.JamnPersonalServerApp.UncheckedJPSException;
 import org.isa.jps.JavaScriptProvider;
 import org.isa.jps.JavaScriptProvider.JsValue;
@@ -113,7 +117,7 @@ public class CLICommandInitializer {
     private static void createSystemListCommands(JamnPersonalServerApp pApp) {
         cli.newCommandBuilder()
                 .name("list")
-                .descr(name -> cli.newDefaultDescr(name, "[config, properties, webservices]",
+                .descr(name -> cli.newDefaultDescr(name, "[config, properties, webservices, bulkheads]",
                         "Info command to list internal informations"))
                 .function(ctx -> {
                     String lResult = "";
@@ -137,6 +141,11 @@ public class CLICommandInitializer {
                                 "All currently registered WebService endpoints:").append(LS)
                                 .append(String.join(LS, pApp.getWebServiceProvider().getAllServicePathNames()))
                                 .toString();
+                    } else if (ctx.hasArg("bulkheads")) {
+                        lResult = new StringBuffer(
+                                "All WebService concurrency limits:").append(LS)
+                                .append(String.join(LS, pApp.getWebServiceProvider().getBulkheadInfos()))
+                                .toString();
                     }
 
                     return lResult;
@@ -222,6 +231,39 @@ public class CLICommandInitializer {
                 .build();
     }
 
+    /**
+     */
+    public static void createWebContentProviderCliCommands(JamnWebContentProvider pProvider, Config pConfig) {
+        cli.newCommandBuilder()
+                .name("webcontent")
+                .descr(name -> cli.newDefaultDescr(name, "[precompress, warmup, status, minified]",
+                        "Web content tasks - create gzip sidecars, start a cache warm-up, show status, list minified files"))
+                .function(ctx -> {
+                    String lResult = "";
+                    if (ctx.hasArg(0, "status")) {
+                        lResult = pProvider.getStatusInfo();
+                    } else if (ctx.hasArg(0, "minified")) {
+                        lResult = pProvider.getMinifier() == null ? "minification is off"
+                                : pProvider.getMinifier().getSavedBytes().entrySet().stream()
+                                        .sorted(Map.Entry.comparingByKey())
+                                        .map(e -> e.getKey() + " saved bytes [" + e.getValue() + "]")
+                                        .collect(Collectors.joining(LS));
+                    } else if (ctx.hasArg(0, "warmup")) {
+                        pProvider.startWarmUp(pConfig.getWebContentWarmUpMaxFileSize(),
+                                pConfig.getWebContentWarmUpParallelism());
+                        lResult = "warm-up started - see: webcontent status";
+                    } else if (ctx.hasArg(0, "precompress")) {
+                        try {
+                            lResult = pProvider.precompress();
+                        } catch (IOException e) {
+                            throw new UncheckedJPSException("CLI Error precompressing web content", e);
+                        }
+                    }
+                    return lResult;
+                })
+                .build();
+    }
+
     /**
     */
     public static void createWebServiceProviderCliCommands(JamnWebServiceProvider pProvider, JsonToolWrapper pJson) {
@@ -247,6 +289,23 @@ public class CLICommandInitializer {
                     return "";
                 })
                 .build();
+
+        cli.newCommandBuilder()
+                .name("wsmetrics")
+                .descr(name -> cli.newDefaultDescr(name, "[<endpoint name>] [reset]",
+                        "Show WebService call metrics and slow calls, reset clears them"))
+                .function(ctx -> {
+                    if (ctx.hasArg("reset")) {
+                        pProvider.resetMetrics();
+                        return "metrics reset";
+                    }
+                    MetricsResponse lMetrics = pProvider.getMetrics();
+                    if (!ctx.get(0).isEmpty()) {
+                        lMetrics.services.removeIf(info -> !info.path.equals(ctx.get(0)));
+                    }
+                    return Tool.formatCommandReturn(pJson.prettify(pJson.toString(lMetrics)));
+                })
+                .build();
     }
 
 }
@@ -2,11 +2,20 @@
 package org.isa.jps.comp;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
 import org.isa.ipc.JamnServer.ExprString.ValueProvider;
+import org.isa.ipc.JamnWebContentProvider.CompiledTemplate;
+import org.isa.ipc.JamnWebContentProvider.DefaultFileEnricher;
 import org.isa.ipc.JamnWebContentProvider.WebFile;
 import org.isa.jps.JamnPersonalServerApp.Config;
 
@@ -16,16 +25,27 @@ import org.isa.jps.JamnPersonalServerApp.Config;
  * e.g. to do server side html code component injection.
  * see sample: http/jsmod/html-components and system-infos.html 
  * injecting header html
+ * 
+ * Components are cached and reloaded only when changed.
+ * A component marked as template may include other components.
+ * All included components are recorded as dependencies of the requested web file.
  * </pre>
  */
 public class DefaultFileEnricherValueProvider implements ValueProvider {
 
+    protected static Logger LOG = Logger.getLogger(DefaultFileEnricherValueProvider.class.getName());
+
     protected Path appHome;
     protected Config config;
     protected String componentsRootPath;
 
     protected Properties values = new Properties();
 
+    // compiled components by file path - validated by modification time and size
+    protected Map<Path, Component> componentCache = new ConcurrentHashMap<>();
+    // the components currently being included by a thread - to detect cyclic includes
+    protected ThreadLocal<Deque<Path>> includeStack = ThreadLocal.withInitial(ArrayDeque::new);
+
     /**
      */
     public DefaultFileEnricherValueProvider(Path pAppHome, Config pConfig) {
@@ -42,6 +62,13 @@ public class DefaultFileEnricherValueProvider implements ValueProvider {
         }
     }
 
+    /**
+     * Create a value provider for an absolute components root folder.
+     */
+    public DefaultFileEnricherValueProvider(String pComponentsRootPath) {
+        componentsRootPath = pComponentsRootPath;
+    }
+
     /**
      */
     @Override
@@ -54,7 +81,10 @@ public class DefaultFileEnricherValueProvider implements ValueProvider {
         // that gets injected into the requested file - see system-infos.html
         if (pKey.endsWith(".html")) {
             lFilePath = getComponentFilePathFor(pKey, lWebFile);
-            lValue = getFileContent(lFilePath);
+            // a changed component must invalidate the cached requested file
+            // nested components are recorded for the requested file too
+            lWebFile.addDependency(lFilePath);
+            lValue = includeComponent(lFilePath, pKey, lWebFile);
         } else if (values.containsKey(pKey)) {
             lValue = values.getProperty(pKey);
         }
@@ -62,6 +92,20 @@ public class DefaultFileEnricherValueProvider implements ValueProvider {
         return lValue;
     }
 
+    /**
+     * The added values are static - html components are always read at request time.
+     */
+    @Override
+    public boolean isConstant(String pKey) {
+        return !pKey.endsWith(".html") && values.containsKey(pKey);
+    }
+
+    /**
+     */
+    public String getComponentsRootPath() {
+        return componentsRootPath;
+    }
+
     /**
      */
     public DefaultFileEnricherValueProvider addValue(String pKey, String pValue) {
@@ -75,6 +119,52 @@ public class DefaultFileEnricherValueProvider implements ValueProvider {
         return Path.of(componentsRootPath, pName);
     }
 
+    /**
+     * <pre>
+     * Include a component from the component cache.
+     * A component marked as template may itself include components.
+     * </pre>
+     */
+    protected String includeComponent(Path pFile, String pKey, WebFile pWebFile) {
+        Deque<Path> lStack = includeStack.get();
+        if (lStack.contains(pFile)) {
+            LOG.warning(() -> String.format("Cyclic component include [%s] in [%s] via %s", pKey,
+                    pWebFile.getRequestPath(), lStack));
+            return "CYCLIC INCLUDE for: " + pKey;
+        }
+
+        Component lComponent = getComponent(pFile);
+        if (!lComponent.isTemplate) {
+            return lComponent.content;
+        }
+        lStack.push(pFile);
+        try {
+            return new String(lComponent.template.render(this, pWebFile), StandardCharsets.UTF_8);
+        } finally {
+            lStack.pop();
+        }
+    }
+
+    /**
+     * Get a cached component or (re)load it if new or changed.
+     */
+    protected Component getComponent(Path pFile) {
+        BasicFileAttributes lAttributes;
+        try {
+            lAttributes = Files.readAttributes(pFile, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("ERROR reading file enriching value [%s] [%s]", pFile, e));
+        }
+        long lModified = lAttributes.lastModifiedTime().toMillis();
+
+        Component lComponent = componentCache.get(pFile);
+        if (lComponent == null || lComponent.lastModified != lModified || lComponent.size != lAttributes.size()) {
+            lComponent = new Component(getFileContent(pFile), lModified, lAttributes.size(), this);
+            componentCache.put(pFile, lComponent);
+        }
+        return lComponent;
+    }
+
     /**
      */
     protected String getFileContent(Path pFile) {
@@ -82,10 +172,30 @@ public class DefaultFileEnricherValueProvider implements ValueProvider {
         byte[] lBytes;
         try {
             lBytes = Files.readAllBytes(pFile);
-            lContent = new String(lBytes);
+            lContent = new String(lBytes, StandardCharsets.UTF_8);
         } catch (IOException e) {
             throw new RuntimeException(String.format("ERROR reading file enriching value [%s] [%s]", pFile, e));
         }
         return lContent;
     }
+
+    /**
+     * A cached component.
+     */
+    protected static class Component {
+        protected final String content;
+        protected final long lastModified;
+        protected final long size;
+        protected final boolean isTemplate;
+        protected final CompiledTemplate template;
+
+        protected Component(String pContent, long pLastModified, long pSize, ValueProvider pProvider) {
+            content = pContent;
+            lastModified = pLastModified;
+            size = pSize;
+            byte[] lBytes = pContent.getBytes(StandardCharsets.UTF_8);
+            isTemplate = DefaultFileEnricher.isTemplate(lBytes);
+            template = isTemplate ? CompiledTemplate.compile(lBytes, pProvider, null) : null;
+        }
+    }
 }
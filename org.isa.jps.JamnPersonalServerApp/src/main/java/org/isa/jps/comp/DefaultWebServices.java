@@ -8,10 +8,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import org.isa.ipc.JamnWebServiceProvider.WebService;
 import org.isa.jps.JamnPersonalServerApp;
+import org.isa.jps.comp.OperatingSystemInterface.ShellProcess;
 
 /**
  * <pre>
@@ -27,6 +32,13 @@ public class DefaultWebServices {
 
     protected static final Logger LOG = Logger.getLogger(DefaultWebServices.class.getName());
     
+    // shell commands may run long - they are executed outside the server workers
+    protected static final ExecutorService ShellCmdExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread lThread = new Thread(r, "JPS-ShellCmd");
+        lThread.setDaemon(true);
+        return lThread;
+    });
+
     protected OperatingSystemInterface osIFace;
 
     /**
@@ -44,16 +56,60 @@ public class DefaultWebServices {
      * Web Service definitions
      **********************************************************************************/
     /**
+     * A command running longer than the async timeout
+     * or whose client disconnects is cancelled - the process is destroyed.
+     * A queued call blocks a request worker - so the queue is kept at one.
      */
-    @WebService(methods = { "POST" }, path = WSP_service_shellcmd, contentType = APPLICATION_JSON)
-    public ShellResponse runShellCommand(ShellRequest pRequest) {
-        ShellResponse lResponse = new ShellResponse();
-        String[] lCommand = pRequest.command.toArray(new String[0]);
+    @WebService(methods = { "POST" }, path = WSP_service_shellcmd, contentType = APPLICATION_JSON, maxConcurrent = 2,
+            queue = 1, asyncTimeoutMs = 120000)
+    public CompletableFuture<ShellResponse> runShellCommand(ShellRequest pRequest) {
+        ShellProcess lShell = osIFace.new ShellProcess(WSP_service_shellcmd)
+                .setCommand(pRequest.command.toArray(new String[0]))
+                .setWorkingDir(pRequest.workingDir);
+        ShellCmdFuture lFuture = new ShellCmdFuture(lShell);
+
+        ShellCmdExecutor.execute(() -> {
+            try {
+                lShell.start();
+            } catch (RuntimeException e) {
+                if (!lShell.isCancelled()) {
+                    lFuture.completeExceptionally(e);
+                    return;
+                }
+            }
+            if (lShell.isCancelled()) {
+                lFuture.completeExceptionally(new CancellationException("Shell command cancelled"));
+            } else {
+                ShellResponse lResponse = new ShellResponse();
+                lResponse.output.addAll(lShell.getOutput());
+                lFuture.complete(lResponse);
+            }
+        });
+        return lFuture;
+    }
 
-        List<String> lResult = osIFace.fnc().shellCmd(lCommand, pRequest.workingDir, false, null);
+    /**
+     * <pre>
+     * The future of a running shell command.
+     * A cancel destroys the process and the future completes
+     * with a CancellationException when the process has really ended.
+     * </pre>
+     */
+    protected static class ShellCmdFuture extends CompletableFuture<ShellResponse> {
+        protected final ShellProcess shell;
 
-        lResponse.output.addAll(lResult);
-        return lResponse;
+        protected ShellCmdFuture(ShellProcess pShell) {
+            shell = pShell;
+        }
+
+        @Override
+        public boolean cancel(boolean pMayInterruptIfRunning) {
+            if (isDone()) {
+                return false;
+            }
+            shell.cancel();
+            return true;
+        }
     }
 
     /**
@@ -100,7 +156,7 @@ public class DefaultWebServices {
      **********************************************************************************/
     /**
      */
-    @WebService(methods = { "POST" }, path = WSP_system_getinfos, contentType = APPLICATION_JSON)
+    @WebService(methods = { "POST" }, path = WSP_system_getinfos, contentType = APPLICATION_JSON, cacheTtlMs = 60000)
     public SystemInfoResponse getSystemInfo(SystemInfoRequest pRequest) {
         Properties lBuildProps = JamnPersonalServerApp.getInstance().getConfig().getBuildProperties();
         return new SystemInfoResponse()
@@ -116,7 +172,8 @@ public class DefaultWebServices {
 
     /**
      */
-    @WebService(methods = { "POST" }, path = WSP_system_updateinfos, contentType = APPLICATION_JSON)
+    @WebService(methods = { "POST" }, path = WSP_system_updateinfos, contentType = APPLICATION_JSON, invalidates = {
+            WSP_system_getinfos })
     public SystemInfoResponse updateSystemInfo(SystemInfoRequest pRequest) {
         //only demo purpose
         LOG.info(()-> String.format("Config changes: [%s]", pRequest.getConfigChanges()));
@@ -137,7 +137,8 @@ public class OperatingSystemInterface {
         protected String workingDir;
         protected boolean inherit = false;
 
-        protected Process process = null;
+        protected volatile Process process = null;
+        protected volatile boolean cancelled = false;
         protected List<String> outPut = new ArrayList<>();
 
         protected ShellProcess() {
@@ -225,7 +226,14 @@ public class OperatingSystemInterface {
                     Path lPath = Paths.get(workingDir);
                     builder.directory(lPath.toFile());
                 }
+                if (cancelled) {
+                    throw new UncheckedOSIFaceException(
+                            String.format("ShellProcess cancelled [%s]", String.join(" ", command)));
+                }
                 process = builder.start();
+                if (cancelled) {
+                    process.destroyForcibly();
+                }
 
                 try (BufferedReader stdInput = new BufferedReader(
                         new InputStreamReader(process.getInputStream(), shellEncoding));) {
@@ -251,6 +259,26 @@ public class OperatingSystemInterface {
             }
         }
 
+        /**
+         * Stop the process and its children - a not yet started process is not started anymore.
+         */
+        public void cancel() {
+            cancelled = true;
+            Process lProcess = process;
+            if (lProcess != null) {
+                // children would keep the output open and block the reading thread
+                lProcess.descendants().forEach(ProcessHandle::destroyForcibly);
+                lProcess.destroy();
+                lProcess.destroyForcibly();
+            }
+        }
+
+        /**
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
         /**
          */
         public void close() {
@@ -0,0 +1,104 @@
+/* Authored by iqbserve.de */
+package org.isa.jps.comp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.isa.ipc.JamnServer;
+import org.isa.ipc.JamnWebContentProvider;
+import org.isa.ipc.JamnWebContentProvider.DefaultFileCache;
+import org.isa.ipc.JamnWebContentProvider.DefaultFileEnricher;
+import org.isa.ipc.JamnWebContentProvider.WebFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ */
+class DefaultFileEnricherValueProviderTest {
+
+    @Test
+    void testComponentCache(@TempDir Path pDir) throws Exception {
+        Path lHeader = Files.writeString(pDir.resolve("header.html"), "<h1>v1</h1>");
+        AtomicInteger lReads = new AtomicInteger();
+        DefaultFileEnricherValueProvider lProvider = new DefaultFileEnricherValueProvider(pDir.toString()) {
+            @Override
+            protected String getFileContent(Path pFile) {
+                lReads.incrementAndGet();
+                return super.getFileContent(pFile);
+            }
+        };
+        WebFile lPage = new WebFile("/page.html");
+
+        assertEquals("<h1>v1</h1>", lProvider.getValueFor("header.html", lPage));
+        assertEquals("<h1>v1</h1>", lProvider.getValueFor("header.html", lPage));
+        assertEquals(1, lReads.get(), "Error component NOT cached");
+        assertTrue(lPage.getDependencies().contains(lHeader));
+
+        // an edited component is reloaded once and then served from the cache again
+        Files.writeString(lHeader, "<h1>version 2</h1>");
+        assertEquals("<h1>version 2</h1>", lProvider.getValueFor("header.html", lPage));
+        assertEquals("<h1>version 2</h1>", lProvider.getValueFor("header.html", lPage));
+        assertEquals(2, lReads.get(), "Error edited component NOT reloaded once");
+    }
+
+    @Test
+    void testCyclicInclude(@TempDir Path pDir) throws Exception {
+        Files.writeString(pDir.resolve("a.html"), "<!--jamn.web.template-->\n<a>${b.html}</a>");
+        Files.writeString(pDir.resolve("b.html"), "<!--jamn.web.template-->\n<b>${a.html}</b>");
+        DefaultFileEnricherValueProvider lProvider = new DefaultFileEnricherValueProvider(pDir.toString());
+        WebFile lPage = new WebFile("/page.html");
+
+        String lValue = lProvider.getValueFor("a.html", lPage);
+        assertTrue(lValue.contains("CYCLIC INCLUDE for: a.html"), lValue);
+        // nested components are recorded as dependencies of the page
+        assertTrue(lPage.getDependencies().contains(pDir.resolve("b.html")));
+    }
+
+    @Test
+    void testComponentInvalidatesOnlyItsPages(@TempDir Path pDir) throws Exception {
+        Path lRoot = Files.createDirectories(pDir.resolve("web"));
+        Path lComponents = Files.createDirectories(pDir.resolve("components"));
+        Files.writeString(lRoot.resolve("one.html"), "<!--jamn.web.template-->\n${header.html}");
+        Files.writeString(lRoot.resolve("two.html"), "<!--jamn.web.template-->\n${footer.html}");
+        Path lHeader = Files.writeString(lComponents.resolve("header.html"), "<h1>v1</h1>");
+        Files.writeString(lComponents.resolve("footer.html"), "<p>v1</p>");
+
+        DefaultFileCache lCache = new DefaultFileCache(DefaultFileCache.DefaultMaxBytes, 0);
+        JamnServer lServer = new JamnServer(8095);
+        JamnWebContentProvider lProvider = new JamnWebContentProvider(lRoot.toString())
+                .setConfig(lServer.getConfig()).setDevelopmentMode(false).setFileCache(lCache)
+                .setFileEnricher(new DefaultFileEnricher(new DefaultFileEnricherValueProvider(lComponents.toString())));
+        lServer.addContentProvider("WebContentProvider", lProvider);
+        lServer.start();
+        try {
+            HttpClient lClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (String page : new String[] { "one.html", "two.html" }) {
+                assertEquals(200, lClient.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8095/" + page))
+                        .GET().build(), BodyHandlers.ofString()).statusCode());
+            }
+            assertTrue(lCache.contains("/one.html") && lCache.contains("/two.html"));
+
+            Files.writeString(lHeader, "<h1>version 2</h1>");
+            lProvider.invalidate(lHeader);
+            assertFalse(lCache.contains("/one.html"), "Error dependent page NOT invalidated");
+            assertTrue(lCache.contains("/two.html"), "Error independent page invalidated");
+
+            String lBody = lClient.send(HttpRequest.newBuilder().uri(new URI("http://localhost:8095/one.html"))
+                    .GET().build(), BodyHandlers.ofString()).body();
+            assertTrue(lBody.endsWith("<h1>version 2</h1>"), lBody);
+        } finally {
+            lServer.stop();
+        }
+    }
+
+}
@@ -162,14 +162,15 @@ public class SampleExtension {
             // keep instantiation internal
         }
 
-        @WebService(path = WSP_get_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON)
+        @WebService(path = WSP_get_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON, cacheTtlMs = 300000)
         public DbConnectionResponse getDbConnections() {
             DbConnectionResponse lResponse = new DbConnectionResponse();
             lResponse.addAllConnections(connectionMap);
             return lResponse;
         }
 
-        @WebService(path = WSP_save_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON)
+        @WebService(path = WSP_save_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON, invalidates = {
+                WSP_get_dbconnections }, maxConcurrent = 1, queue = 2)
         public DbConnectionResponse saveDbConnections(DbConnectionRequest pRequest) {
             DbConnectionResponse lResponse = new DbConnectionResponse().setStatusOk();
             try {
@@ -180,7 +181,8 @@ public class SampleExtension {
             return lResponse;
         }
 
-        @WebService(path = WSP_delete_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON)
+        @WebService(path = WSP_delete_dbconnections, methods = { "POST" }, contentType = APPLICATION_JSON, invalidates = {
+                WSP_get_dbconnections }, maxConcurrent = 1, queue = 2)
         public DbConnectionResponse deleteDbConnections(DbConnectionRequest pRequest) {
             DbConnectionResponse lResponse = new DbConnectionResponse().setStatusOk();
             try {